@@ -0,0 +1,49 @@
+package com.steven10172.corptracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The chat path of onChatMessage, every game message goes through the drop parser
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DropMessageBenchmark {
+	@Param({"other", "drop", "multiDrop", "valuableDrop"})
+	private String message;
+
+	private final DropMessageParser parser = new DropMessageParser();
+	private String line;
+
+	@Setup
+	public void setUp() {
+		switch (message) {
+			case "drop":
+				line = "<col=005f00>Prized received a drop: 175 x Onyx bolts (e)</col>";
+				break;
+			case "multiDrop":
+				line = "<col=005f00>Prized received a drop: 1,200 x Pure essence, Uncut diamond, 2 x Uncut ruby</col>";
+				break;
+			case "valuableDrop":
+				line = "<col=ef1020>Valuable drop: 250 x Runite bolts (95,250 coins)</col>";
+				break;
+			default:
+				line = "You feel a strange power draining your stats.";
+				break;
+		}
+	}
+
+	@Benchmark
+	public Object parse() {
+		return parser.parse(line);
+	}
+}
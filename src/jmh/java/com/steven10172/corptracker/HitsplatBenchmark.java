@@ -0,0 +1,71 @@
+package com.steven10172.corptracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One hitsplat on the boss from another player, split evenly between the attackers and counted
+ * against each of them, as the plugin does for every hit in a mass. Every attacker is already a
+ * participant, so nothing should allocate: run with {@code -prof gc} to check the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HitsplatBenchmark {
+	private static final int CORP_INDEX = 42;
+
+	@Param({"5", "20", "60"})
+	private int attackers;
+
+	private final int corp = BossRegistry.CORPOREAL_BEAST.getNpcIds()[0];
+	private KillLifecycle lifecycle;
+	private String[] names;
+	private int amount;
+
+	@Setup
+	public void setUp() {
+		final VirtualKillTimers timers = new VirtualKillTimers();
+		lifecycle = new KillLifecycle(new PlayerDictionary(), timers.getClock(), timers, KillReplay::unpricedItem, () -> true,
+				UUID::randomUUID, new KillLifecycle.Listener() {
+					@Override
+					public void killUpdated(BossKillEvent kill) {
+					}
+
+					@Override
+					public void killExpired(UUID id) {
+					}
+				});
+		lifecycle.handle(new KillEvent.NpcSpawned(0, CORP_INDEX, corp));
+
+		// Distinct players, a repeated name would share a participant
+		final List<String> participants = KillFixtures.participants(new Random(attackers), attackers);
+		names = new String[attackers];
+		for (int i = 0; i < attackers; i++) {
+			names[i] = participants.get(i) + " #" + i;
+			lifecycle.onDamage(CORP_INDEX, corp, i, names[i], 1);
+		}
+	}
+
+	@Benchmark
+	public void otherPlayersHit() {
+		// Hits of 1 to 50, so the split leaves a remainder most of the time
+		amount = amount % 50 + 1;
+		for (int attacker = 0; attacker < attackers; attacker++) {
+			final int share = DamageCounter.evenShare(amount, attackers, attacker);
+			if (share > 0) {
+				lifecycle.onDamage(CORP_INDEX, corp, attacker, names[attacker], share);
+			}
+		}
+	}
+}
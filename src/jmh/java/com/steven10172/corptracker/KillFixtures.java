@@ -0,0 +1,53 @@
+package com.steven10172.corptracker;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic kill histories for the benchmarks
+ */
+final class KillFixtures {
+	static final String[] ITEMS = {
+		"Spirit shield", "Holy elixir", "Spectral sigil", "Arcane sigil", "Elysian sigil", "Onyx bolts (e)",
+		"Cannonball", "Pure essence", "Death rune", "Soul rune", "Mystic robe top", "Adamantite bar",
+		"Uncut diamond", "Uncut dragonstone", "Magic seed", "Teak plank", "Raw shark", "Coins",
+	};
+	static final int PLAYER_POOL = 500;
+
+	private KillFixtures() {
+	}
+
+	static String player(int index) {
+		return "Player " + index;
+	}
+
+	static List<String> participants(Random random, int count) {
+		final List<String> participants = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			participants.add(player(random.nextInt(PLAYER_POOL)));
+		}
+		return participants;
+	}
+
+	/**
+	 * Completed kills, newest first, one every ten minutes
+	 */
+	static List<BossKillEvent> kills(PlayerDictionary dictionary, int count, int participantCount) {
+		final Random random = new Random(count * 31L + participantCount);
+		final long now = System.currentTimeMillis();
+		final List<BossKillEvent> kills = new ArrayList<>(count);
+
+		for (int i = 0; i < count; i++) {
+			final String itemName = ITEMS[random.nextInt(ITEMS.length)];
+			final BossTrackerItem item = new BossTrackerItem(i % ITEMS.length, itemName, 1 + random.nextInt(250), 1000 + random.nextInt(100_000), 500);
+			final List<String> participants = participants(random, participantCount);
+			kills.add(new BossKillEvent(dictionary, new UUID(random.nextLong(), random.nextLong()), BossRegistry.CORPOREAL_BEAST.getBossId(), item,
+					participants.get(0), participants, Instant.ofEpochMilli(now - i * 600_000L)));
+		}
+
+		return kills;
+	}
+}
@@ -0,0 +1,124 @@
+package com.steven10172.corptracker;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.swing.JComponent;
+import javax.swing.JPopupMenu;
+import java.awt.Component;
+import java.awt.Container;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the stacked kill list for a 1000 kill history into a fresh panel. Each iteration's
+ * teardown prints the components (popup menus and their items included), the popup menus and
+ * the heap retained by the panel, those are what the row sharing keeps down. Run with -prof gc
+ * for the bytes allocated per build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class KillRowsBenchmark {
+	private static final int HISTORY_SIZE = 1000;
+
+	@Param({"5", "20"})
+	private int participants;
+
+	// 0 keeps every row expanded, 24 collapses all but the last 144 kills
+	@Param({"0", "24"})
+	private int collapseAfterHours;
+
+	private File journalFile;
+	private KillJournal journal;
+	private KillArchive archive;
+	private CorpEventTrackerPanel panel;
+	private List<BossKillEvent> kills;
+	private long baselineHeap;
+
+	@Setup(Level.Iteration)
+	public void setUp() throws IOException {
+		journalFile = File.createTempFile("corp-event-tracker", ".journal");
+		final PlayerDictionary dictionary = new PlayerDictionary();
+		journal = new KillJournal(journalFile, dictionary);
+		archive = new KillArchive(new File(journalFile.getPath() + ".archive"), dictionary);
+
+		final CorpEventTrackerConfig config = new CorpEventTrackerConfig() {
+			@Override
+			public boolean virtualizeKillList() {
+				return false;
+			}
+
+			@Override
+			public int collapseAfterHours() {
+				return collapseAfterHours;
+			}
+
+			@Override
+			public int hotKills() {
+				return Integer.MAX_VALUE;
+			}
+		};
+		panel = new CorpEventTrackerPanel(null, config, new KillStore(dictionary), journal, archive, MoreExecutors.newDirectExecutorService());
+		panel.setSize(225, 800);
+		kills = KillFixtures.kills(dictionary, HISTORY_SIZE, participants);
+		baselineHeap = usedHeap();
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDown() {
+		final Set<JPopupMenu> menus = Collections.newSetFromMap(new IdentityHashMap<>());
+		final int components = countComponents(panel, menus);
+		final long retained = usedHeap() - baselineHeap;
+		System.out.printf("%d components, %d menus, %.1f MB retained%n", components, menus.size(), retained / (1024.0 * 1024.0));
+
+		panel.close();
+		journal.close();
+		archive.close();
+		journalFile.delete();
+	}
+
+	@Benchmark
+	public CorpEventTrackerPanel loadKills() {
+		panel.loadKills(kills);
+		panel.validate();
+		return panel;
+	}
+
+	private static int countComponents(Component component, Set<JPopupMenu> menus) {
+		int count = 1;
+		if (component instanceof JComponent) {
+			final JPopupMenu menu = ((JComponent) component).getComponentPopupMenu();
+			if (menu != null && menus.add(menu)) {
+				count += countComponents(menu, menus);
+			}
+		}
+		if (component instanceof Container) {
+			for (Component child : ((Container) component).getComponents()) {
+				count += countComponents(child, menus);
+			}
+		}
+		return count;
+	}
+
+	private static long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,56 @@
+package com.steven10172.corptracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search box queries over the kill index, the successor of the old per-kill BossKillEvent.search scan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KillSearchBenchmark {
+	@Param({"1000", "10000", "100000"})
+	private int historySize;
+
+	@Param({"5", "20", "60"})
+	private int participants;
+
+	private KillSearchIndex index;
+
+	@Setup
+	public void setUp() {
+		index = new KillSearchIndex();
+		for (BossKillEvent kill : KillFixtures.kills(new PlayerDictionary(), historySize, participants)) {
+			index.add(kill);
+		}
+	}
+
+	@Benchmark
+	public int itemQuery() {
+		return index.search("elysian").size();
+	}
+
+	@Benchmark
+	public int playerQuery() {
+		return index.search("player 123").size();
+	}
+
+	@Benchmark
+	public int shortQuery() {
+		return index.search("ro").size();
+	}
+
+	@Benchmark
+	public int noMatchQuery() {
+		return index.search("twisted bow").size();
+	}
+}
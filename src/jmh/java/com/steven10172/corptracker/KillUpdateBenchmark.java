@@ -0,0 +1,96 @@
+package com.steven10172.corptracker;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EDT time for one in-progress kill update, including the validate() that lays the list out
+ * again, against 100 to 10k kills of history. Each call adds or drops a participant, so the
+ * row really changes every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KillUpdateBenchmark {
+	private static final int PARTICIPANTS = 10;
+
+	@Param({"100", "1000", "10000"})
+	private int historySize;
+
+	@Param({"false", "true"})
+	private boolean virtualize;
+
+	private File journalFile;
+	private KillJournal journal;
+	private KillArchive archive;
+	private CorpEventTrackerPanel panel;
+	private BossKillEvent[] updates;
+	private int next;
+
+	@Setup
+	public void setUp() throws IOException {
+		journalFile = File.createTempFile("corp-event-tracker", ".journal");
+		final PlayerDictionary dictionary = new PlayerDictionary();
+		journal = new KillJournal(journalFile, dictionary);
+		archive = new KillArchive(new File(journalFile.getPath() + ".archive"), dictionary);
+
+		final CorpEventTrackerConfig config = new CorpEventTrackerConfig() {
+			@Override
+			public boolean virtualizeKillList() {
+				return virtualize;
+			}
+
+			@Override
+			public int hotKills() {
+				return Integer.MAX_VALUE;
+			}
+		};
+		panel = new CorpEventTrackerPanel(null, config, new KillStore(dictionary), journal, archive, MoreExecutors.newDirectExecutorService());
+		panel.setSize(225, 800);
+		panel.loadKills(KillFixtures.kills(dictionary, historySize, PARTICIPANTS));
+		panel.validate();
+
+		final UUID id = UUID.randomUUID();
+		final List<String> participants = KillFixtures.participants(new Random(1), PARTICIPANTS + 1);
+		final Instant time = Instant.now();
+		updates = new BossKillEvent[]{
+			new BossKillEvent(dictionary, id, BossRegistry.CORPOREAL_BEAST.getBossId(), BossTrackerItem.generateFakeItem(),
+					"IN-PROGRESS", participants.subList(0, PARTICIPANTS), time).withInProgress(true),
+			new BossKillEvent(dictionary, id, BossRegistry.CORPOREAL_BEAST.getBossId(), BossTrackerItem.generateFakeItem(),
+					"IN-PROGRESS", participants, time).withInProgress(true),
+		};
+		panel.updateRecord(updates[0]);
+		panel.validate();
+	}
+
+	@TearDown
+	public void tearDown() {
+		panel.close();
+		journal.close();
+		archive.close();
+		journalFile.delete();
+	}
+
+	@Benchmark
+	public void updateInProgressKill() {
+		next ^= 1;
+		panel.updateRecord(updates[next]);
+		panel.validate();
+	}
+}
@@ -0,0 +1,94 @@
+package com.steven10172.corptracker;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless panel updates: a full rebuild, and the in-progress kill update that runs every time
+ * a participant shows up (which also refreshes the overall labels)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PanelBenchmark {
+	@Param({"1000", "10000", "50000"})
+	private int historySize;
+
+	@Param({"5", "20"})
+	private int participants;
+
+	@Param({"false", "true"})
+	private boolean virtualize;
+
+	// 0 keeps every row expanded, 24 collapses all but the last 144 kills
+	@Param({"0", "24"})
+	private int collapseAfterHours;
+
+	private File journalFile;
+	private KillJournal journal;
+	private CorpEventTrackerPanel panel;
+	private BossKillEvent inProgressKill;
+
+	@Setup
+	public void setUp() throws IOException {
+		journalFile = File.createTempFile("corp-event-tracker", ".journal");
+		final PlayerDictionary dictionary = new PlayerDictionary();
+		journal = new KillJournal(journalFile, dictionary);
+
+		final CorpEventTrackerConfig config = new CorpEventTrackerConfig() {
+			@Override
+			public boolean virtualizeKillList() {
+				return virtualize;
+			}
+
+			@Override
+			public int collapseAfterHours() {
+				return collapseAfterHours;
+			}
+
+			@Override
+			public int hotKills() {
+				// Every kill stays in memory, the archive is never written to
+				return Integer.MAX_VALUE;
+			}
+		};
+		panel = new CorpEventTrackerPanel(null, config, new KillStore(dictionary), journal,
+				new KillArchive(new File(journalFile.getPath() + ".archive"), dictionary), MoreExecutors.newDirectExecutorService());
+		panel.setSize(225, 800);
+		panel.loadKills(KillFixtures.kills(dictionary, historySize, participants));
+
+		inProgressKill = new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(),
+				BossTrackerItem.generateFakeItem(), "IN-PROGRESS", KillFixtures.participants(new Random(1), participants), Instant.now()).withInProgress(true);
+	}
+
+	@TearDown
+	public void tearDown() {
+		journal.close();
+		journalFile.delete();
+	}
+
+	@Benchmark
+	public void rebuild() {
+		panel.rebuild();
+	}
+
+	@Benchmark
+	public void updateInProgressKill() {
+		panel.updateRecord(inProgressKill);
+	}
+}
@@ -0,0 +1,74 @@
+package com.steven10172.corptracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What happens every time the participants of a kill change: the participant set takes a new
+ * name, the in-progress kill is rebuilt from it and written over its row in the store. Also a
+ * participant being removed from a stored kill.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParticipantChurnBenchmark {
+	@Param({"1000", "10000", "100000"})
+	private int historySize;
+
+	@Param({"5", "20", "60"})
+	private int participants;
+
+	private final Set<String> participantSet = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+	private List<String> names;
+	private KillStore store;
+	private BossKillEvent storedKill;
+	private UUID killId;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		names = KillFixtures.participants(new Random(participants), participants);
+		store = new KillStore(new PlayerDictionary());
+		final List<BossKillEvent> kills = KillFixtures.kills(store.getDictionary(), historySize, participants);
+		for (BossKillEvent kill : kills) {
+			store.put(kill);
+		}
+		storedKill = kills.get(0);
+		killId = UUID.randomUUID();
+	}
+
+	@Benchmark
+	public BossKillEvent participantJoins() {
+		// A full kill's worth of players joining one by one, then the next kill starting over
+		if (next == names.size()) {
+			next = 0;
+			participantSet.clear();
+			store.remove(killId);
+			killId = UUID.randomUUID();
+		}
+		participantSet.add(names.get(next++));
+
+		final BossKillEvent kill = new BossKillEvent(store.getDictionary(), killId, BossRegistry.CORPOREAL_BEAST.getBossId(),
+				BossTrackerItem.generateFakeItem(), "IN-PROGRESS", participantSet, Instant.now()).withInProgress(true);
+		return store.put(kill);
+	}
+
+	@Benchmark
+	public BossKillEvent participantRemoved() {
+		return store.get(storedKill.getUuid()).withoutParticipant(storedKill.getParticipants().get(0));
+	}
+}
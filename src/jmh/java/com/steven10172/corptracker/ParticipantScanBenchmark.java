@@ -0,0 +1,61 @@
+package com.steven10172.corptracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The participant scan of one game tick, with every loaded player interacting with some NPC and
+ * one in twenty of them attacking the boss. Also a tick with nobody attacking, where the scanner
+ * backs off and most ticks skip the scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParticipantScanBenchmark {
+	private static final int BOSS_INDEX = 1;
+
+	@Param({"100", "500", "2000"})
+	private int players;
+
+	private final ParticipantScanner scanner = new ParticipantScanner();
+	private final ParticipantScanner idleScanner = new ParticipantScanner();
+	private final Set<String> participants = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+	private List<KillEvent.Interaction> interactions;
+	private List<KillEvent.Interaction> idleInteractions;
+
+	@Setup
+	public void setUp() {
+		interactions = new ArrayList<>(players);
+		idleInteractions = new ArrayList<>(players);
+		for (int i = 0; i < players; i++) {
+			final String name = KillFixtures.player(i);
+			interactions.add(new KillEvent.Interaction(name, i % 20 == 0 ? BOSS_INDEX : BOSS_INDEX + 1 + i % 50));
+			idleInteractions.add(new KillEvent.Interaction(name, BOSS_INDEX + 1 + i % 50));
+		}
+
+		// The attackers were all found by earlier scans, as they are for most of a kill
+		scanner.scan(interactions, BOSS_INDEX, participants);
+	}
+
+	@Benchmark
+	public List<String> scanKnownAttackers() {
+		return scanner.scan(interactions, BOSS_INDEX, participants);
+	}
+
+	@Benchmark
+	public List<String> tickWithoutAttackers() {
+		return idleScanner.tick() ? idleScanner.scan(idleInteractions, BOSS_INDEX, participants) : null;
+	}
+}
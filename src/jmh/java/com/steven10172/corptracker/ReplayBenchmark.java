@@ -0,0 +1,87 @@
+package com.steven10172.corptracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline replay of a synthetic Corp session through the kill lifecycle, one tick every 600ms
+ * and a kill every two minutes. Reports the time to replay the whole session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReplayBenchmark {
+	private static final int TICK_MS = 600;
+	private static final int TICKS_PER_KILL = 200;
+	private static final int CORP_INDEX = 42;
+
+	@Param({"100", "1000"})
+	private int kills;
+
+	@Param({"5", "20", "60"})
+	private int participants;
+
+	private List<KillEvent> events;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(kills * 31L + participants);
+		final int corp = BossRegistry.CORPOREAL_BEAST.getBossId();
+		events = new ArrayList<>(kills * (TICKS_PER_KILL + participants + 3));
+		long time = 0;
+
+		for (int kill = 0; kill < kills; kill++) {
+			events.add(new KillEvent.NpcSpawned(time, CORP_INDEX, corp));
+
+			final List<KillEvent.Interaction> attackers = new ArrayList<>();
+			for (String player : KillFixtures.participants(random, participants)) {
+				events.add(new KillEvent.Interacting(time, player, CORP_INDEX, corp));
+				attackers.add(new KillEvent.Interaction(player, CORP_INDEX));
+			}
+
+			for (int tick = 0; tick < TICKS_PER_KILL; tick++) {
+				time += TICK_MS;
+				events.add(new KillEvent.Tick(time, attackers));
+			}
+
+			events.add(new KillEvent.ChatMessage(time, "<col=005f00>" + attackers.get(0).getPlayer() + " received a drop: 175 x Onyx bolts (e)</col>", null));
+			events.add(new KillEvent.NpcDespawned(time, CORP_INDEX, corp, true));
+			time += BossRegistry.CORPOREAL_BEAST.getRespawnMillis();
+		}
+	}
+
+	@Benchmark
+	public int replay() {
+		final int[] completed = new int[1];
+		final KillReplay replay = new KillReplay(1, new PlayerDictionary(), true, KillReplay::unpricedItem, new KillLifecycle.Listener() {
+			@Override
+			public void killUpdated(BossKillEvent kill) {
+				if (!kill.isInProgress()) {
+					completed[0]++;
+				}
+			}
+
+			@Override
+			public void killExpired(UUID id) {
+			}
+		});
+
+		for (KillEvent event : events) {
+			replay.play(event);
+		}
+		replay.finish();
+		return completed[0];
+	}
+}
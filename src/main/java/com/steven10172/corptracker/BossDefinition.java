@@ -0,0 +1,27 @@
+package com.steven10172.corptracker;
+
+import lombok.Value;
+
+/**
+ * A trackable boss
+ */
+@Value
+class BossDefinition {
+    String name;
+    /**
+     * Every NPC id the boss shows up as, the first one is the id kills are logged under
+     */
+    int[] npcIds;
+    /**
+     * Time between the boss dying and its next spawn
+     */
+    int respawnMillis;
+    /**
+     * Item shown as the boss' icon
+     */
+    int iconItemId;
+
+    int getBossId() {
+        return npcIds[0];
+    }
+}
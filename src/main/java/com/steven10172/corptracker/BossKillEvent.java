@@ -1,37 +1,188 @@
 package com.steven10172.corptracker;
 
-import lombok.Data;
-import lombok.RequiredArgsConstructor;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.Value;
 
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
-@RequiredArgsConstructor
-@Data
+/**
+ * An immutable snapshot of a kill, safe to hand between threads. Changes produce a new snapshot.
+ */
+@Value
 public class BossKillEvent {
-    private final UUID uuid;
-    private final int bossId;
-    private final BossTrackerItem item;
-    private final String killOwner;
-    private final List<String> participants;
-    private final Instant time;
-    private boolean inProgress = false;
-
-    public boolean search(String search) {
-        if (search == null) {
-            return true;
+    // Resolves the participant ids, the one dictionary of the plugin
+    @Getter(AccessLevel.PACKAGE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    PlayerDictionary dictionary;
+    UUID uuid;
+    int bossId;
+    BossTrackerItem item;
+    String killOwner;
+    // Sorted PlayerDictionary ids, never modified in place
+    int[] participantIds;
+    // Damage dealt by each participant, parallel to participantIds, null when none was seen
+    int[] participantDamage;
+    Instant time;
+    boolean inProgress;
+
+    public BossKillEvent(PlayerDictionary dictionary, UUID uuid, int bossId, BossTrackerItem item, String killOwner,
+                         Collection<String> participants, Instant time) {
+        this(dictionary, uuid, bossId, item, killOwner, dictionary.encode(participants), time, false);
+    }
+
+    /**
+     * Rebuild a kill from stored participant ids. The array is shared, it is never modified in place.
+     */
+    BossKillEvent(PlayerDictionary dictionary, UUID uuid, int bossId, BossTrackerItem item, String killOwner, int[] participantIds,
+                  Instant time, boolean inProgress) {
+        this(dictionary, uuid, bossId, item, killOwner, participantIds, null, time, inProgress);
+    }
+
+    BossKillEvent(PlayerDictionary dictionary, UUID uuid, int bossId, BossTrackerItem item, String killOwner, int[] participantIds,
+                  int[] participantDamage, Instant time, boolean inProgress) {
+        this.dictionary = dictionary;
+        this.uuid = uuid;
+        this.bossId = bossId;
+        this.item = item;
+        this.killOwner = killOwner;
+        this.participantIds = participantIds;
+        this.participantDamage = participantDamage;
+        this.time = time;
+        this.inProgress = inProgress;
+    }
+
+    /**
+     * Participant names, a fresh copy on every call
+     */
+    public List<String> getParticipants() {
+        return dictionary.decode(participantIds);
+    }
+
+    public int getParticipantCount() {
+        return participantIds.length;
+    }
+
+    boolean hasDamage() {
+        return participantDamage != null;
+    }
+
+    /**
+     * @return the damage a participant was seen dealing, 0 if unknown
+     */
+    int getDamage(String participant) {
+        final int id = dictionary.findId(participant);
+        final int index = participantDamage == null || id < 0 ? -1 : Arrays.binarySearch(participantIds, id);
+        return index < 0 ? 0 : participantDamage[index];
+    }
+
+    long getTotalDamage() {
+        long total = 0;
+        if (participantDamage != null) {
+            for (int damage : participantDamage) {
+                total += damage;
+            }
         }
-        if (item.getName().toLowerCase().contains(search)) {
-            return true;
+        return total;
+    }
+
+    BossKillEvent withInProgress(boolean inProgress) {
+        return inProgress == this.inProgress ? this
+                : new BossKillEvent(dictionary, uuid, bossId, item, killOwner, participantIds, participantDamage, time, inProgress);
+    }
+
+    /**
+     * @param players damage dealers, any who aren't participants are ignored
+     * @param damage the damage of each player
+     * @return the kill with the damage of its participants replaced
+     */
+    BossKillEvent withDamage(List<String> players, int[] damage) {
+        final int[] participantDamage = new int[participantIds.length];
+        for (int i = 0; i < players.size(); i++) {
+            final int index = Arrays.binarySearch(participantIds, dictionary.getId(players.get(i)));
+            if (index >= 0) {
+                participantDamage[index] += damage[i];
+            }
+        }
+        return new BossKillEvent(dictionary, uuid, bossId, item, killOwner, participantIds, participantDamage, time, inProgress);
+    }
+
+    /**
+     * @return the kill without the player, or this same kill if they weren't a participant
+     */
+    BossKillEvent withoutParticipant(String participant) {
+        final int id = dictionary.findId(participant);
+        final int index = id < 0 ? -1 : Arrays.binarySearch(participantIds, id);
+        if (index < 0) {
+            return this;
         }
 
-        for (String participant : participants) {
-            if (participant.toLowerCase().contains(search)) {
-                return true;
+        final int[] ids = new int[participantIds.length - 1];
+        System.arraycopy(participantIds, 0, ids, 0, index);
+        System.arraycopy(participantIds, index + 1, ids, index, ids.length - index);
+
+        int[] damage = null;
+        if (participantDamage != null) {
+            damage = new int[ids.length];
+            System.arraycopy(participantDamage, 0, damage, 0, index);
+            System.arraycopy(participantDamage, index + 1, damage, index, damage.length - index);
+        }
+        return new BossKillEvent(dictionary, uuid, bossId, item, killOwner, ids, damage, time, inProgress);
+    }
+
+    /**
+     * Both kills are views of the same fight, so a player seen by both keeps the higher damage
+     *
+     * @return the kill with every participant of the other kill added, or this same kill if nothing was missing
+     */
+    BossKillEvent withParticipantsOf(BossKillEvent other) {
+        final int[] theirs = other.participantIds;
+        final int[] ids = new int[participantIds.length + theirs.length];
+        final boolean merged = participantDamage != null || other.participantDamage != null;
+        final int[] damage = merged ? new int[ids.length] : null;
+        boolean changed = false;
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < participantIds.length || j < theirs.length) {
+            final int mine = i < participantIds.length ? damageAt(participantDamage, i) : 0;
+            final int their = j < theirs.length ? damageAt(other.participantDamage, j) : 0;
+            if (j == theirs.length || (i < participantIds.length && participantIds[i] < theirs[j])) {
+                if (merged) {
+                    damage[count] = mine;
+                }
+                ids[count++] = participantIds[i++];
+            } else if (i == participantIds.length || theirs[j] < participantIds[i]) {
+                if (merged) {
+                    damage[count] = their;
+                }
+                ids[count++] = theirs[j++];
+                changed = true;
+            } else {
+                if (merged) {
+                    damage[count] = Math.max(mine, their);
+                    changed |= their > mine;
+                }
+                ids[count++] = participantIds[i++];
+                j++;
             }
         }
 
-        return false;
+        if (!changed) {
+            return this;
+        }
+        return new BossKillEvent(dictionary, uuid, bossId, item, killOwner, Arrays.copyOf(ids, count), merged ? Arrays.copyOf(damage, count) : null,
+                time, inProgress);
+    }
+
+    private static int damageAt(int[] damage, int index) {
+        return damage == null ? 0 : damage[index];
     }
 }
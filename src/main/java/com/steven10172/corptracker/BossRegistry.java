@@ -0,0 +1,68 @@
+package com.steven10172.corptracker;
+
+import net.runelite.api.ItemID;
+import net.runelite.api.NpcID;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Every boss the plugin can track
+ */
+final class BossRegistry {
+    static final BossDefinition CORPOREAL_BEAST = new BossDefinition("Corporeal Beast",
+            new int[]{NpcID.CORPOREAL_BEAST}, 30 * 1000, ItemID.PET_CORPOREAL_CRITTER);
+
+    static final List<BossDefinition> BOSSES = Collections.unmodifiableList(Arrays.asList(
+            CORPOREAL_BEAST,
+            new BossDefinition("General Graardor",
+                    new int[]{NpcID.GENERAL_GRAARDOR, NpcID.GENERAL_GRAARDOR_6494}, 90 * 1000, ItemID.PET_GENERAL_GRAARDOR),
+            new BossDefinition("Kree'arra",
+                    new int[]{NpcID.KREEARRA, NpcID.KREEARRA_6492}, 90 * 1000, ItemID.PET_KREEARRA),
+            new BossDefinition("Commander Zilyana",
+                    new int[]{NpcID.COMMANDER_ZILYANA, NpcID.COMMANDER_ZILYANA_6493}, 90 * 1000, ItemID.PET_ZILYANA),
+            new BossDefinition("K'ril Tsutsaroth",
+                    new int[]{NpcID.KRIL_TSUTSAROTH, NpcID.KRIL_TSUTSAROTH_6495}, 90 * 1000, ItemID.PET_KRIL_TSUTSAROTH),
+            new BossDefinition("The Nightmare",
+                    new int[]{NpcID.THE_NIGHTMARE, NpcID.THE_NIGHTMARE_9426, NpcID.THE_NIGHTMARE_9427, NpcID.THE_NIGHTMARE_9428,
+                            NpcID.THE_NIGHTMARE_9429, NpcID.THE_NIGHTMARE_9430, NpcID.THE_NIGHTMARE_9431, NpcID.THE_NIGHTMARE_9432,
+                            NpcID.THE_NIGHTMARE_9433}, 60 * 1000, ItemID.LITTLE_NIGHTMARE)
+    ));
+
+    static final int MAX_NPC_ID = BOSSES.stream().flatMapToInt(boss -> Arrays.stream(boss.getNpcIds())).max().orElse(0);
+
+    private static final BossDefinition[] BY_NPC_ID = indexByNpcId();
+
+    private BossRegistry() {
+    }
+
+    /**
+     * @return the boss an NPC id or logged boss id belongs to, or null
+     */
+    static BossDefinition forNpcId(int npcId) {
+        return npcId >= 0 && npcId < BY_NPC_ID.length ? BY_NPC_ID[npcId] : null;
+    }
+
+    /**
+     * @return the boss with a display name, ignoring case, or null
+     */
+    static BossDefinition forName(String name) {
+        for (BossDefinition boss : BOSSES) {
+            if (boss.getName().equalsIgnoreCase(name)) {
+                return boss;
+            }
+        }
+        return null;
+    }
+
+    private static BossDefinition[] indexByNpcId() {
+        final BossDefinition[] byNpcId = new BossDefinition[MAX_NPC_ID + 1];
+        for (BossDefinition boss : BOSSES) {
+            for (int npcId : boss.getNpcIds()) {
+                byNpcId[npcId] = boss;
+            }
+        }
+        return byNpcId;
+    }
+}
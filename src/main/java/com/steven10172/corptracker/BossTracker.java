@@ -0,0 +1,28 @@
+package com.steven10172.corptracker;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Live state of one boss: the NPC while it's around, the kill in progress and who is fighting it
+ */
+@Getter
+@Setter
+class BossTracker {
+    private final BossDefinition boss;
+    private final Set<String> participants = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private final ParticipantScanner participantScanner = new ParticipantScanner();
+    private final DamageCounter damage = new DamageCounter();
+    // Index of the spawned boss NPC, -1 while it isn't around
+    private int npcIndex = -1;
+    private UUID killId;
+    private KillTimers.Handle expireTimer;
+
+    BossTracker(BossDefinition boss) {
+        this.boss = boss;
+    }
+}
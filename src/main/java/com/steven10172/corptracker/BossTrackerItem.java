@@ -3,6 +3,13 @@ package com.steven10172.corptracker;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The dropped item of a kill. A drop of several items (a gem table roll next to the main drop)
+ * is one item holding the others as extras, so it stays one kill.
+ */
 @AllArgsConstructor
 @Getter
 public class BossTrackerItem {
@@ -11,6 +18,16 @@ public class BossTrackerItem {
     private final int quantity;
     private final int gePrice;
     private final int haPrice;
+    // The rest of the drop, in message order, each without extras of its own
+    private final List<BossTrackerItem> extras;
+
+    public BossTrackerItem(int id, String name, int quantity, int gePrice, int haPrice) {
+        this(id, name, quantity, gePrice, haPrice, Collections.emptyList());
+    }
+
+    BossTrackerItem withExtras(List<BossTrackerItem> extras) {
+        return new BossTrackerItem(id, name, quantity, gePrice, haPrice, extras.isEmpty() ? Collections.emptyList() : extras);
+    }
 
     long getTotalGePrice() {
         return (long) gePrice * quantity;
@@ -20,6 +37,36 @@ public class BossTrackerItem {
         return (long) haPrice * quantity;
     }
 
+    /**
+     * GE value of the whole drop, extras included
+     */
+    long getDropGePrice() {
+        long total = getTotalGePrice();
+        for (BossTrackerItem extra : extras) {
+            total += extra.getTotalGePrice();
+        }
+        return total;
+    }
+
+    /**
+     * "2 x Uncut ruby, Uncut diamond", the way the drop message put it
+     */
+    String getDropName() {
+        final StringBuilder dropName = new StringBuilder();
+        appendName(dropName, this);
+        for (BossTrackerItem extra : extras) {
+            appendName(dropName.append(", "), extra);
+        }
+        return dropName.toString();
+    }
+
+    private static void appendName(StringBuilder dropName, BossTrackerItem item) {
+        if (item.quantity != 1) {
+            dropName.append(item.quantity).append(" x ");
+        }
+        dropName.append(item.name);
+    }
+
     static BossTrackerItem generateFakeItem() {
         return new BossTrackerItem(0, "N/A", 0, 0, 0);
     }
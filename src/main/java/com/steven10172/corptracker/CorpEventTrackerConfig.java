@@ -14,4 +14,58 @@ public interface CorpEventTrackerConfig extends Config {
 	default boolean showInProgress() {
 		return false;
 	}
+
+	@ConfigItem(
+		keyName = "virtualizeKillList",
+		name = "Virtualize Kill List",
+		description = "Only create rows for kills scrolled into view. Keeps the panel fast with very large histories"
+	)
+	default boolean virtualizeKillList() {
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "currentValue",
+		name = "Value At Current Prices",
+		description = "Value the kill history at current GE prices instead of the prices when each drop was received"
+	)
+	default boolean currentValue() {
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "collapseAfterHours",
+		name = "Collapse Kills Older Than",
+		description = "Kills older than this many hours start collapsed and only list their players once expanded. 0 starts every kill expanded"
+	)
+	default int collapseAfterHours() {
+		return 0;
+	}
+
+	@ConfigItem(
+		keyName = "hotKills",
+		name = "Kills Kept In Memory",
+		description = "Older kills are moved to compressed files on disk and only read back when scrolled or searched to. They still count towards the totals"
+	)
+	default int hotKills() {
+		return 10000;
+	}
+
+	@ConfigItem(
+		keyName = "recordEvents",
+		name = "Record Events",
+		description = "Record boss, player and drop events to .runelite/corp-event-tracker so sessions can be replayed offline"
+	)
+	default boolean recordEvents() {
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "importMatchWindow",
+		name = "Import Match Window",
+		description = "Imported kills within this many seconds of a known kill, with the same drop and owner, are merged into it"
+	)
+	default int importMatchWindow() {
+		return 10;
+	}
 }
@@ -10,47 +10,154 @@ import net.runelite.client.util.QuantityFormatter;
 
 import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
+import javax.swing.JComboBox;
+import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
+import javax.swing.JProgressBar;
+import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
+import javax.swing.JToggleButton;
+import javax.swing.JViewport;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
-import java.awt.GridBagConstraints;
-import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class CorpEventTrackerPanel extends PluginPanel {
     private static final String HTML_LABEL_TEMPLATE =
             "<html><body style='color:%s'>%s<span style='color:white'>%s</span></body></html>";
+    private static final int IMPORT_BATCH_SIZE = 1000;
     private String searchString = null;
 
-    private final JPanel killListView = new JPanel(new GridBagLayout());
+    private KillListView killListView;
     private final JPanel display = new JPanel();
     private final JPanel actionsContainer = new JPanel();
     private final JPanel overallPanel = new JPanel(new BorderLayout());
     private final JLabel overallKillsLabel = new JLabel();
     private final JLabel overallGpLabel = new JLabel();
+    private final JLabel overallHaLabel = new JLabel();
     private final JLabel overallIcon = new JLabel();
+    private final JComboBox<KillRange> overallRange = new JComboBox<>(KillRange.values());
+    private KillRange selectedRange = KillRange.ALL_TIME;
+    // Days picked for the custom range, both included
+    private LocalDate customFrom = LocalDate.now();
+    private LocalDate customTo = LocalDate.now();
     private final JPanel searchPanel = new JPanel(new BorderLayout());
     private final IconTextField searchBar = new IconTextField();
+    private final JToggleButton playerStatsToggle = new JToggleButton("Player stats");
+    private final JProgressBar fileProgress = new JProgressBar();
+    private final JLabel olderKillsLabel = new JLabel("Loading older kills...", JLabel.CENTER);
+    private final ChangeListener viewportListener = e -> pageInIfVisible();
+    private JViewport viewport;
 
-    final HashMap<UUID, BossKillEvent> bossKills = new HashMap<>();
+    private final KillStore killStore;
+    private final KillSearchIndex searchIndex = new KillSearchIndex();
+    private final KillRowMenus rowMenus = new KillRowMenus(this);
+    private final KillSearch search;
+    // Searches, paging, imports and exports read the disk, on the panel's own thread rather than the client's shared executor
+    private final ExecutorService executor;
+    // Reused by every keystroke until the kill history changes
+    private KillStore.Snapshot searchSnapshot;
+    // Totals over every kill, and over the kills matching the active search
+    private final KillRollups overallTotals = new KillRollups();
+    private final KillRollups filteredTotals = new KillRollups();
+    // Totals of the archived kills matching the active search, filled in once the archive has been searched
+    private final KillRollups archivedMatches = new KillRollups();
+    private boolean archiveSearchPending;
+    // Archived kills paged into the list since it was last rebuilt, and the segments left to page through
+    private final Map<UUID, BossKillEvent> pagedKills = new HashMap<>();
+    private List<KillArchive.Segment> pagingSegments = Collections.emptyList();
+    private int nextPagingSegment;
+    private long pagingGeneration;
+    private boolean paging;
+    // Latest GE prices of the items in the history, null until the first refresh
+    private ItemPrices currentPrices;
+    private final PlayerStats playerStats;
+    private final PlayerStatsView playerStatsView;
+    private String localPlayer;
 
     private final CorpEventTrackerPlugin plugin;
     private final CorpEventTrackerConfig config;
+    private final KillJournal journal;
+    private final KillArchive archive;
 
-    CorpEventTrackerPanel(final CorpEventTrackerPlugin plugin, final CorpEventTrackerConfig config, ScheduledExecutorService executor) {
+    CorpEventTrackerPanel(final CorpEventTrackerPlugin plugin, final CorpEventTrackerConfig config, KillStore killStore,
+            KillJournal journal, KillArchive archive) {
+        this(plugin, config, killStore, journal, archive, Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "corp-event-tracker-panel");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * @param executor runs the searches, paging, archive rewrites, imports and exports, and is shut down by {@link #close()}
+     */
+    CorpEventTrackerPanel(final CorpEventTrackerPlugin plugin, final CorpEventTrackerConfig config, KillStore killStore,
+            KillJournal journal, KillArchive archive, ExecutorService executor) {
         this.plugin = plugin;
         this.config = config;
+        this.killStore = killStore;
+        this.journal = journal;
+        this.archive = archive;
+        this.executor = executor;
+        this.search = new KillSearch(executor, killStore.getDictionary(), archive, new KillSearch.Listener() {
+            @Override
+            public void searchPage(List<BossKillEvent> kills) {
+                killListView.setKills(kills, searchString);
+                revalidate();
+                repaint();
+            }
+
+            @Override
+            public void searchComplete(int modCount, List<BossKillEvent> kills) {
+                if (modCount != killStore.getModCount()) {
+                    // Kills changed while searching, search them again rather than filter on the EDT
+                    search.submit(currentSnapshot(), searchString);
+                    return;
+                }
+                searchBar.setIcon(IconTextField.Icon.SEARCH);
+                showKills(kills);
+            }
+
+            @Override
+            public void searchArchiveComplete(KillRollups matches) {
+                archiveSearchPending = false;
+                archivedMatches.add(matches);
+                updateOverall();
+            }
+        });
+        this.playerStats = new PlayerStats(killStore);
+        this.playerStatsView = new PlayerStatsView(playerStats, killStore.getDictionary());
 
         setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
 
@@ -69,20 +176,36 @@ public class CorpEventTrackerPanel extends PluginPanel {
         overallInfo.setBorder(new EmptyBorder(2, 0, 2, 0));
         overallKillsLabel.setFont(FontManager.getRunescapeSmallFont());
         overallGpLabel.setFont(FontManager.getRunescapeSmallFont());
+        overallHaLabel.setFont(FontManager.getRunescapeSmallFont());
         overallInfo.add(overallKillsLabel);
         overallInfo.add(overallGpLabel);
+        overallInfo.add(overallHaLabel);
         overallPanel.add(overallIcon, BorderLayout.WEST);
         overallPanel.add(overallInfo, BorderLayout.CENTER);
 
+        // Time range of the totals
+        overallRange.setFont(FontManager.getRunescapeSmallFont());
+        overallRange.setFocusable(false);
+        overallRange.addActionListener(e -> rangeSelected());
+        overallPanel.add(overallRange, BorderLayout.EAST);
+
         final JMenuItem deleteKill = new JMenuItem("Delete All Kills");
         deleteKill.addActionListener(e -> {
             this.removeAllKills();
         });
 
-        // Create right click delete menu
+        // Create right click delete and export menu
         final JPopupMenu popupMenu = new JPopupMenu();
         popupMenu.setBorder(new EmptyBorder(5, 5, 5, 5));
         popupMenu.add(deleteKill);
+        final JMenuItem importKills = new JMenuItem("Import Kills");
+        importKills.addActionListener(e -> importKills());
+        popupMenu.add(importKills);
+        for (KillExporter.Format format : KillExporter.Format.values()) {
+            final JMenuItem exportKills = new JMenuItem("Export Kills (" + format + ")");
+            exportKills.addActionListener(e -> exportKills(format));
+            popupMenu.add(exportKills);
+        }
         overallPanel.setComponentPopupMenu(popupMenu);
 
         // Display - Kills Container
@@ -93,15 +216,48 @@ public class CorpEventTrackerPanel extends PluginPanel {
         searchBar.setPreferredSize(new Dimension(100, 30));
         searchBar.setBackground(ColorScheme.DARKER_GRAY_COLOR);
         searchBar.setHoverBackgroundColor(ColorScheme.DARKER_GRAY_HOVER_COLOR);
-        searchBar.addActionListener(e -> executor.execute(this::executeSearch));
-        searchBar.addClearListener(e -> clearSearch());
+        // Search as you type, clearing the bar empties the document too
+        searchBar.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                executeSearch();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                executeSearch();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+
+        // Actions - swap the kill list for the per-player numbers
+        actionsContainer.setLayout(new BorderLayout());
+        playerStatsToggle.setFont(FontManager.getRunescapeSmallFont());
+        playerStatsToggle.setFocusPainted(false);
+        playerStatsToggle.addActionListener(e -> updateDisplay());
+        actionsContainer.add(playerStatsToggle);
+
+        killListView = createKillListView();
+        display.add(killListView.getComponent());
 
-        display.add(killListView);
+        // Shown under the list while there are archived kills left to page in
+        olderKillsLabel.setFont(FontManager.getRunescapeSmallFont());
+        olderKillsLabel.setBorder(new EmptyBorder(5, 0, 5, 0));
+        olderKillsLabel.setVisible(false);
+        display.add(olderKillsLabel, BorderLayout.SOUTH);
         header.add(actionsContainer, BorderLayout.NORTH);
 
         searchPanel.setBorder(new EmptyBorder(0, 0, 5, 0));
         searchPanel.add(searchBar);
 
+        fileProgress.setStringPainted(true);
+        fileProgress.setFont(FontManager.getRunescapeSmallFont());
+        fileProgress.setVisible(false);
+        searchPanel.add(fileProgress, BorderLayout.SOUTH);
+
         add(header, BorderLayout.NORTH);
         add(searchPanel, BorderLayout.NORTH);
         add(overallPanel, BorderLayout.NORTH);
@@ -116,77 +272,596 @@ public class CorpEventTrackerPanel extends PluginPanel {
         this.updateRecord(bossKill);
     }
 
-    public void updateRecord(BossKillEvent bossKill) {
-        this.bossKills.remove(bossKill.getUuid());
+    /**
+     * Stop the background thread, an import or export still running is abandoned
+     */
+    void close() {
+        executor.shutdownNow();
+    }
 
-        this.bossKills.put(bossKill.getUuid(), bossKill);
+    /**
+     * Count the archived kills, from their segment summaries
+     */
+    void loadArchive(KillArchive.Totals totals) {
+        this.overallTotals.add(totals.getRollups());
+        this.playerStats.add(totals.getPlayers());
+        // The journal may have loaded first, its old kills could only be archived now
+        sealOldKills();
         rebuild();
     }
 
+    /**
+     * Add the kills read back from the journal
+     */
+    void loadKills(Collection<BossKillEvent> kills) {
+        putKills(kills);
+        sealOldKills();
+        rebuild();
+    }
+
+    /**
+     * Store a batch of kills without touching the kill list, the caller rebuilds once it's done
+     */
+    private void putKills(Collection<BossKillEvent> kills) {
+        for (BossKillEvent kill : kills) {
+            BossKillEvent previous = this.killStore.put(kill);
+            if (previous != null) {
+                this.overallTotals.remove(previous);
+                this.playerStats.remove(previous);
+            }
+            this.overallTotals.add(kill);
+            this.playerStats.add(kill);
+            this.searchIndex.add(kill);
+        }
+    }
+
+    public void updateRecord(BossKillEvent bossKill) {
+        BossKillEvent previous = this.killStore.put(bossKill);
+        if (!bossKill.isInProgress()) {
+            // In progress kills are never journaled, so only a finished one is overwritten
+            this.journal.appendKill(bossKill, previous != null && !previous.isInProgress());
+        }
+
+        refreshKill(previous, bossKill);
+        if (!bossKill.isInProgress() && sealOldKills()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Archive old kills after the number kept in memory was lowered in the config
+     */
+    void updateHotKills() {
+        if (sealOldKills()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Move the oldest finished kills into the archive, a segment at a time, once a segment's worth
+     * is over the number kept in memory. They stay counted in the totals and player stats.
+     *
+     * @return whether any kills were archived, their rows are left for the caller to rebuild
+     */
+    private boolean sealOldKills() {
+        // Imports decide what's archived up front, and exports read the archive as it was
+        int excess = this.killStore.size() - Math.max(config.hotKills(), 0);
+        if (!archive.isLoaded() || fileProgress.isVisible() || excess < KillArchive.SEGMENT_SIZE) {
+            return false;
+        }
+
+        final KillStore.Snapshot snapshot = this.killStore.snapshot();
+        final int[] order = snapshot.getNewestFirst();
+        List<BossKillEvent> kills = new ArrayList<>(KillArchive.SEGMENT_SIZE);
+        boolean sealed = false;
+
+        for (int i = order.length - 1; i >= 0 && excess >= KillArchive.SEGMENT_SIZE; i--) {
+            if (snapshot.isInProgress(order[i])) {
+                continue;
+            }
+
+            kills.add(snapshot.getKill(order[i]));
+            if (kills.size() == KillArchive.SEGMENT_SIZE) {
+                sealKills(kills);
+                sealed = true;
+                excess -= KillArchive.SEGMENT_SIZE;
+                kills = new ArrayList<>(KillArchive.SEGMENT_SIZE);
+            }
+        }
+        return sealed;
+    }
+
+    private void sealKills(List<BossKillEvent> kills) {
+        final List<UUID> ids = new ArrayList<>(kills.size());
+        for (BossKillEvent kill : kills) {
+            final UUID id = kill.getUuid();
+            if (this.searchString != null && this.searchIndex.matches(id, this.searchString)) {
+                this.filteredTotals.remove(kill);
+                this.archivedMatches.addArchived(kill);
+            }
+            this.killStore.remove(id);
+            this.searchIndex.remove(id);
+            this.overallTotals.archive(kill);
+            this.playerStats.archive(kill);
+            ids.add(id);
+        }
+
+        // The journal lets go of the kills once the segment is safely written
+        this.archive.seal(kills, () -> ids.forEach(journal::appendKillDeletion));
+    }
+
+    /**
+     * Re-index a changed kill, move it between the running totals and update (or drop) its row
+     * depending on the current search
+     */
+    private void refreshKill(BossKillEvent previous, BossKillEvent bossKill) {
+        final UUID id = bossKill.getUuid();
+        if (previous != null) {
+            this.overallTotals.remove(previous);
+            this.playerStats.remove(previous);
+            if (this.searchIndex.matches(id, this.searchString)) {
+                this.filteredTotals.remove(previous);
+            }
+        }
+
+        this.searchIndex.add(bossKill);
+        this.overallTotals.add(bossKill);
+        this.playerStats.add(bossKill);
+
+        if (this.searchIndex.matches(id, this.searchString)) {
+            this.filteredTotals.add(bossKill);
+            killListView.updateKill(bossKill, this.searchString);
+        } else {
+            killListView.removeKill(bossKill.getUuid());
+        }
+
+        updateOverall();
+        refreshPlayerStats();
+    }
+
     public BossKillEvent getKill(UUID id) {
-        return bossKills.get(id);
+        final BossKillEvent kill = killStore.get(id);
+        return kill == null ? pagedKills.get(id) : kill;
     }
 
     public void rebuild() {
-        GridBagConstraints constraints = new GridBagConstraints();
-        constraints.fill = GridBagConstraints.HORIZONTAL;
-        constraints.weightx = 1;
-        constraints.gridx = 0;
-        constraints.gridy = 0;
-
-        killListView.removeAll();
+        // Anything still being searched for is answered right here, bar the archive
+        search.cancel();
+        searchBar.setIcon(IconTextField.Icon.SEARCH);
+        if (archiveSearchPending) {
+            archivedMatches.reset();
+            search.submitArchive(this.searchString);
+        }
 
-        bossKills.entrySet()
+        List<BossKillEvent> kills = killStore.getAll(searchIndex.search(this.searchString))
                 .stream()
-                .sorted((k1, k2) -> k2.getValue().getTime().compareTo(k1.getValue().getTime()))
-                .forEach(action -> {
-                    UUID id = action.getKey();
-                    BossKillEvent bossKillEvent = action.getValue();
-
-                    if (bossKillEvent.search(this.searchString)) {
-                        KillTrackerBox kill = new KillTrackerBox(id, bossKillEvent, this, this.searchString);
-                        killListView.add(kill, constraints);
-                        constraints.gridy++;
-                    }
-                });
+                .sorted((k1, k2) -> k2.getTime().compareTo(k1.getTime()))
+                .collect(Collectors.toList());
+        showKills(kills);
+    }
+
+    /**
+     * Show the kills matching the current search, ordered newest first
+     */
+    private void showKills(List<BossKillEvent> kills) {
+        // The search may have changed, so this is the one place the filtered totals get recounted
+        filteredTotals.reset();
+        kills.forEach(filteredTotals::add);
+
+        killListView.setKills(kills, this.searchString);
+
+        // Archived kills paged in before went with the old rows, paging starts over from the newest segment
+        pagedKills.clear();
+        pagingGeneration++;
+        pagingSegments = archive.getSegments();
+        nextPagingSegment = 0;
+        olderKillsLabel.setVisible(!pagingSegments.isEmpty());
 
         updateOverall();
+        refreshPlayerStats();
         repaint();
         revalidate();
+        SwingUtilities.invokeLater(this::pageInIfVisible);
+    }
+
+    /**
+     * Page in the next archive segments with matches for the current search, once the end of the
+     * list is scrolled into view
+     */
+    private void pageInIfVisible() {
+        if (paging || nextPagingSegment >= pagingSegments.size()
+                || !olderKillsLabel.isShowing() || olderKillsLabel.getVisibleRect().isEmpty()) {
+            return;
+        }
+
+        paging = true;
+        final long generation = pagingGeneration;
+        final List<KillArchive.Segment> segments = pagingSegments;
+        final int start = nextPagingSegment;
+        final String query = this.searchString;
+
+        executor.execute(() -> {
+            final KillSearch.Matcher matcher = new KillSearch.Matcher(this.killStore.getDictionary(), query);
+            final List<BossKillEvent> kills = new ArrayList<>();
+            int next = start;
+            // Segments without a match are skipped over, so a search doesn't stop on an empty page
+            while (next < segments.size() && kills.isEmpty()) {
+                final KillArchive.Segment segment = segments.get(next++);
+                if (!matcher.mayMatch(segment)) {
+                    continue;
+                }
+
+                try {
+                    for (BossKillEvent kill : archive.read(segment)) {
+                        if (matcher.matches(kill)) {
+                            kills.add(kill);
+                        }
+                    }
+                } catch (IOException e) {
+                    log.warn("Unable to read kill archive segment", e);
+                }
+            }
+
+            final int end = next;
+            SwingUtilities.invokeLater(() -> showPagedKills(generation, end, kills));
+        });
+    }
+
+    private void showPagedKills(long generation, int nextSegment, List<BossKillEvent> kills) {
+        paging = false;
+        if (generation == pagingGeneration) {
+            nextPagingSegment = nextSegment;
+            for (BossKillEvent kill : kills) {
+                pagedKills.put(kill.getUuid(), kill);
+                killListView.updateKill(kill, this.searchString);
+            }
+            olderKillsLabel.setVisible(nextPagingSegment < pagingSegments.size());
+            revalidate();
+            repaint();
+        }
+
+        // Keep going while the end of the list is still in view
+        SwingUtilities.invokeLater(this::pageInIfVisible);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, this);
+        if (viewport != null) {
+            viewport.addChangeListener(viewportListener);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        if (viewport != null) {
+            viewport.removeChangeListener(viewportListener);
+            viewport = null;
+        }
+        super.removeNotify();
+    }
+
+    /**
+     * Recreate the kill list after the list mode or collapse cutoff changed in the config
+     */
+    void updateKillListMode() {
+        display.remove(killListView.getComponent());
+        killListView = createKillListView();
+        updateDisplay();
+        rebuild();
+    }
+
+    /**
+     * Ids of every item in the kill history, for the next price refresh
+     */
+    int[] getItemIds() {
+        return this.overallTotals.getTotal().getItemIds();
+    }
+
+    /**
+     * Totals of every kill, in memory or archived
+     */
+    KillRollups getOverallTotals() {
+        return this.overallTotals;
+    }
+
+    void setCurrentPrices(ItemPrices prices) {
+        this.currentPrices = prices;
+        updateOverall();
+    }
+
+    /**
+     * Switch the header between drop time and current values after the config changed
+     */
+    void updateValueMode() {
+        updateOverall();
+    }
+
+    /**
+     * Show either the kill list or the player stats, depending on the toggle
+     */
+    private void updateDisplay() {
+        display.removeAll();
+        if (playerStatsToggle.isSelected()) {
+            playerStatsView.refresh();
+            display.add(playerStatsView);
+        } else {
+            display.add(killListView.getComponent());
+            display.add(olderKillsLabel, BorderLayout.SOUTH);
+        }
+        revalidate();
+        repaint();
+    }
+
+    private void refreshPlayerStats() {
+        if (playerStatsToggle.isSelected()) {
+            playerStatsView.refresh();
+        }
+    }
+
+    private KillListView createKillListView() {
+        if (config.virtualizeKillList()) {
+            return new VirtualKillListView(this);
+        }
+        return new StackedKillListView(this);
+    }
+
+    KillRowMenus getRowMenus() {
+        return rowMenus;
+    }
+
+    /**
+     * Kills from before this time start out collapsed, null when every kill starts expanded
+     */
+    Instant getCollapseBefore() {
+        final int hours = config.collapseAfterHours();
+        return hours <= 0 ? null : Instant.now().minus(Duration.ofHours(hours));
+    }
+
+    KillSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    /**
+     * The logged in player, whose damage is the only damage known exactly. Null when logged out.
+     */
+    String getLocalPlayer() {
+        return localPlayer;
+    }
+
+    void setLocalPlayer(String localPlayer) {
+        this.localPlayer = localPlayer;
+        rebuild();
+    }
+
+    void killCollapseChanged(UUID id, boolean collapsed) {
+        killListView.killCollapseChanged(id, collapsed);
     }
 
     public void removeKill(UUID id) {
         log.info("Delete Kill" + id.toString());
-        this.bossKills.remove(id);
-        rebuild();
+        if (pagedKills.containsKey(id)) {
+            removeArchivedKill(pagedKills.get(id));
+            return;
+        }
+
+        BossKillEvent removed = this.killStore.remove(id);
+        if (removed != null) {
+            if (!removed.isInProgress()) {
+                this.journal.appendKillDeletion(id);
+            }
+            this.overallTotals.remove(removed);
+            this.playerStats.remove(removed);
+            if (this.searchIndex.matches(id, this.searchString)) {
+                this.filteredTotals.remove(removed);
+            }
+        }
+        this.searchIndex.remove(id);
+        killListView.removeKill(id);
+
+        updateOverall();
+        refreshPlayerStats();
+    }
+
+    /**
+     * Delete a paged in kill from its archive segment, in the background. The totals and its row
+     * are updated on the EDT once the segment is rewritten.
+     */
+    private void removeArchivedKill(BossKillEvent kill) {
+        final UUID id = kill.getUuid();
+        executor.execute(() -> {
+            final BossKillEvent removed;
+            try {
+                removed = this.archive.delete(kill);
+            } catch (IOException e) {
+                log.warn("Unable to delete archived kill {}", id, e);
+                return;
+            }
+
+            SwingUtilities.invokeLater(() -> {
+                if (removed != null) {
+                    this.overallTotals.removeArchived(removed);
+                    this.playerStats.remove(removed);
+                    if (this.searchString != null) {
+                        this.archivedMatches.removeArchived(removed);
+                    }
+                }
+                this.pagedKills.remove(id);
+                killListView.removeKill(id);
+
+                updateOverall();
+                refreshPlayerStats();
+            });
+        });
     }
 
     private void removeAllKills() {
         log.info("Delete ALl Kills");
-        this.bossKills.clear();
+        this.killStore.clear();
+        this.searchIndex.clear();
+        this.overallTotals.reset();
+        this.archivedMatches.reset();
+        this.playerStats.clear();
+        this.journal.appendDeleteAll();
+        this.archive.clear();
         rebuild();
     }
 
     public void removePlayerFromKill(UUID id, String participant) {
         log.info(String.format("Removing player: %s from %s", participant, id.toString()));
-        this.bossKills.get(id).getParticipants().remove(participant);
-        rebuild();
+        BossKillEvent previousKill = this.killStore.get(id);
+        if (previousKill == null) {
+            final BossKillEvent pagedKill = this.pagedKills.get(id);
+            if (pagedKill != null) {
+                updateArchivedKill(pagedKill.withoutParticipant(participant));
+            }
+            return;
+        }
+
+        BossKillEvent bossKill = previousKill.withoutParticipant(participant);
+        if (bossKill == previousKill) {
+            return;
+        }
+        if (!bossKill.isInProgress()) {
+            this.journal.appendPlayerRemoval(id, participant);
+        }
+
+        BossKillEvent previous = this.killStore.put(bossKill);
+        refreshKill(previous, bossKill);
     }
 
-    private void updateOverall() {
-        long overallKills = 0;
-        long overallGe = 0;
+    /**
+     * Rewrite a changed kill into its archive segment, in the background. The totals and its row
+     * are updated on the EDT once the segment is rewritten.
+     */
+    private void updateArchivedKill(BossKillEvent kill) {
+        executor.execute(() -> {
+            final BossKillEvent previous;
+            try {
+                previous = this.archive.update(Collections.singletonList(kill)).get(kill.getUuid());
+            } catch (IOException e) {
+                log.warn("Unable to update archived kill {}", kill.getUuid(), e);
+                return;
+            }
+
+            if (previous != null && previous != kill) {
+                SwingUtilities.invokeLater(() -> {
+                    refreshArchivedKill(previous, kill, new KillSearch.Matcher(this.killStore.getDictionary(), this.searchString));
+                    updateOverall();
+                    refreshPlayerStats();
+                });
+            }
+        });
+    }
+
+    /**
+     * Move a changed archived kill between the running totals, and update its row if it was paged in
+     */
+    private void refreshArchivedKill(BossKillEvent previous, BossKillEvent kill, KillSearch.Matcher matcher) {
+        final UUID id = kill.getUuid();
+        this.overallTotals.removeArchived(previous);
+        this.playerStats.remove(previous);
+        this.overallTotals.addArchived(kill);
+        this.playerStats.add(kill);
+        this.playerStats.archive(kill);
 
-        for (Map.Entry<UUID, BossKillEvent> entry : bossKills.entrySet()) {
-            BossKillEvent kill = entry.getValue();
-            if (kill.search(this.searchString)) {
-                overallGe += kill.getItem().getTotalGePrice();
-                overallKills++;
+        final boolean matches = matcher.matches(kill);
+        if (this.searchString != null) {
+            if (matcher.matches(previous)) {
+                this.archivedMatches.removeArchived(previous);
             }
+            if (matches) {
+                this.archivedMatches.addArchived(kill);
+            }
+        }
+
+        if (this.pagedKills.containsKey(id)) {
+            if (matches) {
+                this.pagedKills.put(id, kill);
+                killListView.updateKill(kill, this.searchString);
+            } else {
+                this.pagedKills.remove(id);
+                killListView.removeKill(id);
+            }
+        }
+    }
+
+    /**
+     * Ask for the days of a custom range, going back to the previous range if none were given
+     */
+    private void rangeSelected() {
+        final KillRange range = (KillRange) overallRange.getSelectedItem();
+        if (range == KillRange.CUSTOM && !pickCustomRange()) {
+            overallRange.setSelectedItem(selectedRange);
+            return;
+        }
+
+        selectedRange = range;
+        overallRange.setToolTipText(range == KillRange.CUSTOM ? customFrom + " to " + customTo : null);
+        updateOverall();
+    }
+
+    private boolean pickCustomRange() {
+        final JTextField from = new JTextField(customFrom.toString());
+        final JTextField to = new JTextField(customTo.toString());
+        final Object[] fields = {"From (yyyy-mm-dd):", from, "To (yyyy-mm-dd):", to};
+        if (JOptionPane.showConfirmDialog(this, fields, "Custom range", JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) {
+            return false;
+        }
+
+        final LocalDate fromDate;
+        final LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from.getText().trim());
+            toDate = LocalDate.parse(to.getText().trim());
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Dates are written like " + LocalDate.now(), "Custom range", JOptionPane.ERROR_MESSAGE);
+            return false;
+        }
+        if (toDate.isBefore(fromDate)) {
+            JOptionPane.showMessageDialog(this, "The range ends before it starts", "Custom range", JOptionPane.ERROR_MESSAGE);
+            return false;
         }
 
-        overallKillsLabel.setText(htmlLabel("Total count: ", overallKills));
-        overallGpLabel.setText(htmlLabel("Total value: ", overallGe));
+        customFrom = fromDate;
+        customTo = toDate;
+        return true;
+    }
+
+    private void updateOverall() {
+        final KillRollups rollups = this.searchString == null ? this.overallTotals : this.filteredTotals;
+        final Instant now = Instant.now();
+        final ZoneId zone = ZoneId.systemDefault();
+        final Instant start;
+        final Instant end;
+        if (selectedRange == KillRange.CUSTOM) {
+            start = customFrom.atStartOfDay(zone).toInstant();
+            end = customTo.plusDays(1).atStartOfDay(zone).toInstant();
+        } else {
+            start = selectedRange.getStart(now, zone);
+            end = selectedRange.getEnd(now, zone);
+        }
+
+        KillTotals totals = start == null ? rollups.getTotal() : rollups.totalsBetween(start, end);
+        if (this.searchString != null) {
+            // The archived matches are kept apart, the kills in memory get recounted on every rebuild
+            final KillTotals combined = new KillTotals();
+            combined.add(totals);
+            combined.add(start == null ? archivedMatches.getTotal() : archivedMatches.totalsBetween(start, end));
+            totals = combined;
+        }
+
+        overallKillsLabel.setText(htmlLabel("Total count: ", totals.getCount()));
+        if (config.currentValue() && currentPrices != null) {
+            overallGpLabel.setText(htmlLabel("Current value: ", totals.getGePrice(currentPrices)));
+            overallGpLabel.setToolTipText("At drop time: " + QuantityFormatter.formatNumber(totals.getGePrice()) + " gp");
+        } else {
+            overallGpLabel.setText(htmlLabel("Total value: ", totals.getGePrice()));
+            overallGpLabel.setToolTipText(currentPrices == null ? null
+                    : "At current prices: " + QuantityFormatter.formatNumber(totals.getGePrice(currentPrices)) + " gp");
+        }
+        overallHaLabel.setText(htmlLabel("HA value: ", totals.getHaPrice()));
     }
 
     private static String htmlLabel(String key, long value) {
@@ -196,18 +871,164 @@ public class CorpEventTrackerPanel extends PluginPanel {
 
     public void setFilter(String filterStr) {
         this.searchBar.setText(filterStr);
-        executeSearch();
     }
 
+    /**
+     * Search the kill history in the background for the text in the search bar
+     */
     private void executeSearch() {
-        this.searchString = this.searchBar.getText();
-        log.info("Search: " + searchString);
-        SwingUtilities.invokeLater(this::rebuild);
+        final String text = this.searchBar.getText();
+        this.searchString = text == null || text.isEmpty() ? null : text.toLowerCase();
+
+        searchBar.setIcon(IconTextField.Icon.LOADING);
+        archivedMatches.reset();
+        archiveSearchPending = this.searchString != null;
+        search.submit(currentSnapshot(), this.searchString);
+    }
+
+    private KillStore.Snapshot currentSnapshot() {
+        if (searchSnapshot == null || searchSnapshot.getModCount() != killStore.getModCount()) {
+            searchSnapshot = killStore.snapshot();
+        }
+        return searchSnapshot;
+    }
+
+    /**
+     * Write the kills matching the current search to a file the user picks, in the background
+     */
+    private void exportKills(KillExporter.Format format) {
+        if (fileProgress.isVisible()) {
+            return;
+        }
+
+        final JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Kills");
+        chooser.setSelectedFile(new File("corp-kills-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + "." + format.getExtension()));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        final File file = chooser.getSelectedFile();
+        final KillStore.Snapshot snapshot = currentSnapshot();
+        final KillMerger.Source kills = KillMerger.interleave(archive.oldestFirst(), KillMerger.of(snapshot));
+        final String query = this.searchString;
+
+        fileProgress.setMaximum(Math.max(snapshot.size() + archive.size(), 1));
+        fileProgress.setValue(0);
+        fileProgress.setVisible(true);
+        revalidate();
+
+        executor.execute(() -> {
+            try {
+                final int written = new KillExporter(format, this.killStore.getDictionary()).export(kills, query, file,
+                        done -> SwingUtilities.invokeLater(() -> fileProgress.setValue(done)));
+                log.info("Exported {} kills to {}", written, file);
+            } catch (IOException e) {
+                log.warn("Unable to export kills to {}", file, e);
+            } finally {
+                SwingUtilities.invokeLater(() -> {
+                    fileProgress.setVisible(false);
+                    revalidate();
+                });
+            }
+        });
     }
 
-    private void clearSearch() {
-        this.searchString = null;
-        log.info("Clear search");
-        SwingUtilities.invokeLater(this::rebuild);
+    /**
+     * Merge kill files exported by other players into the history, in the background. Files are
+     * streamed side by side, only the kills that are new or gained participants are stored.
+     */
+    private void importKills() {
+        if (fileProgress.isVisible()) {
+            return;
+        }
+
+        final JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Kills");
+        chooser.setMultiSelectionEnabled(true);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        final File[] files = chooser.getSelectedFiles();
+        final KillMerger.Source local = KillMerger.interleave(archive.oldestFirst(), KillMerger.of(currentSnapshot()));
+        final KillMerger merger = new KillMerger(config.importMatchWindow() * 1000L);
+
+        fileProgress.setIndeterminate(true);
+        fileProgress.setString("Importing...");
+        fileProgress.setVisible(true);
+        revalidate();
+
+        executor.execute(() -> {
+            final List<KillFileReader> readers = new ArrayList<>();
+            final List<BossKillEvent> batch = new ArrayList<>();
+            try {
+                for (File file : files) {
+                    readers.add(new KillFileReader(file, this.killStore.getDictionary()));
+                }
+
+                final KillMerger.Stats stats = merger.merge(local, readers, kill -> {
+                    batch.add(kill);
+                    if (batch.size() == IMPORT_BATCH_SIZE) {
+                        postImportBatch(batch);
+                        batch.clear();
+                    }
+                });
+                postImportBatch(batch);
+                log.info("Imported {} files: {}", files.length, stats);
+            } catch (IOException e) {
+                log.warn("Unable to import kills", e);
+            } catch (UncheckedIOException e) {
+                log.warn("Unable to import kills", e.getCause());
+            } finally {
+                for (KillFileReader reader : readers) {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        log.warn("Unable to close import", e);
+                    }
+                }
+                SwingUtilities.invokeLater(() -> {
+                    fileProgress.setIndeterminate(false);
+                    fileProgress.setString(null);
+                    fileProgress.setVisible(false);
+                    sealOldKills();
+                    rebuild();
+                });
+            }
+        });
+    }
+
+    /**
+     * Hand a batch of merged kills to the EDT. Kills that are archived get rewritten in their
+     * segment here, off the EDT, the rest join the kills in memory.
+     */
+    private void postImportBatch(List<BossKillEvent> batch) {
+        final List<BossKillEvent> kills = new ArrayList<>(batch);
+        final Map<UUID, BossKillEvent> archived;
+        try {
+            archived = archive.update(kills);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        SwingUtilities.invokeLater(() -> {
+            final KillSearch.Matcher matcher = new KillSearch.Matcher(this.killStore.getDictionary(), this.searchString);
+            final List<BossKillEvent> unarchived = new ArrayList<>(kills.size());
+            for (BossKillEvent kill : kills) {
+                final BossKillEvent previous = archived.get(kill.getUuid());
+                if (previous == null) {
+                    unarchived.add(kill);
+                } else {
+                    refreshArchivedKill(previous, kill, matcher);
+                }
+            }
+            for (BossKillEvent kill : unarchived) {
+                journal.appendKill(kill, killStore.contains(kill.getUuid()));
+            }
+            putKills(unarchived);
+            fileProgress.setString("Imported " + QuantityFormatter.formatNumber(killStore.size()) + " kills");
+        });
     }
 }
@@ -5,18 +5,21 @@ import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Actor;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
-import net.runelite.api.Constants;
 import net.runelite.api.GameState;
-import net.runelite.api.ItemID;
+import net.runelite.api.Hitsplat;
 import net.runelite.api.NPC;
-import net.runelite.api.NpcID;
+import net.runelite.api.Player;
 import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.HitsplatApplied;
 import net.runelite.api.events.InteractingChanged;
 import net.runelite.api.events.NpcDespawned;
 import net.runelite.api.events.NpcSpawned;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.plugins.Plugin;
@@ -25,42 +28,55 @@ import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.util.AsyncBufferedImage;
 import net.runelite.client.util.ImageUtil;
-import net.runelite.http.api.item.ItemPrice;
 
 import javax.inject.Inject;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.time.Instant;
+import java.io.File;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Slf4j
 @PluginDescriptor(
 	name = "Corp Event Tracker"
 )
 public class CorpEventTrackerPlugin extends Plugin {
-	private final Pattern DROP_MESSAGE = Pattern.compile("<col=005f00>(.*) received a drop: (.+)</col>");
-	private final Pattern VALUABLE_DROP_MESSAGE = Pattern.compile("<col=ef1020>Valuable drop: (.*) \\((.*)\\)</col>");
-	private final Pattern DROP_QTY = Pattern.compile("(.+) x (.+)");
-	private final Set<String> participants = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
-	private final int BOSS_DELETE_IN_PROG_KILL_MS = 28 * 1000; // Corp respawn is 30 seconds
-
-	private UUID killId;
-	private NPC corp;
+	private static final long ITEM_PRICE_REFRESH_MINUTES = 30;
+	private static final File DATA_DIR = new File(RuneLite.RUNELITE_DIR, "corp-event-tracker");
+	private static final File JOURNAL_FILE = new File(DATA_DIR, "kills.journal");
+	private static final File ARCHIVE_DIR = new File(DATA_DIR, "archive");
+
+	private final Clock clock = Clock.systemUTC();
+	private KillLifecycle lifecycle;
+	private KillEventLog eventLog;
 	private CorpEventTrackerPanel panel;
+	// Player ids of every kill this plugin holds, only meaningful to this dictionary
+	private PlayerDictionary dictionary;
+	private KillStore killStore;
+	private KillJournal journal;
+	private KillArchive archive;
+	private ItemResolver itemResolver;
+	private ScheduledFuture<?> itemPriceRefresh;
 	private NavigationButton navButton;
-	private Thread bosskillExpiredThread;
-	private GameState lastGameState;
-	private Timer checkForParticipantsTimer = null;
+	private KillTimerScheduler timers;
+	private KillPublisher publisher;
+	// Client thread only
+	private String localPlayer;
 
 	@Inject
 	private ItemManager itemManager;
@@ -84,8 +100,40 @@ public class CorpEventTrackerPlugin extends Plugin {
 	protected void startUp() throws Exception {
 		log.info("Corp Event Tracker started!");
 
-		panel = new CorpEventTrackerPanel(this, config, executor);
-		renderBossIcon(ItemID.PET_CORPOREAL_CRITTER, 48, 48);
+		// Expiry timers run on the client thread, like every other lifecycle event
+		timers = new KillTimerScheduler(executor, clientThread::invokeLater);
+		itemResolver = new ItemResolver(itemManager);
+		clientThread.invokeLater(() -> {
+			if (client.getGameState() == GameState.STARTING || client.getGameState() == GameState.UNKNOWN) {
+				return false;
+			}
+			itemResolver.prewarm();
+			return true;
+		});
+		itemPriceRefresh = executor.scheduleAtFixedRate(this::refreshPrices,
+				ITEM_PRICE_REFRESH_MINUTES, ITEM_PRICE_REFRESH_MINUTES, TimeUnit.MINUTES);
+		dictionary = new PlayerDictionary();
+		journal = new KillJournal(JOURNAL_FILE, dictionary);
+		archive = new KillArchive(ARCHIVE_DIR, dictionary);
+		killStore = new KillStore(dictionary);
+		panel = new CorpEventTrackerPanel(this, config, killStore, journal, archive);
+		// Only the archive summaries are read, the archived kills stay on disk until paged in
+		final CompletableFuture<KillArchive.Totals> archived = new CompletableFuture<>();
+		archive.load(archived::complete);
+		archived.thenAccept(totals -> SwingUtilities.invokeLater(() -> panel.loadArchive(totals)));
+		// The journal can only be checked for kills that were archived once the archive is loaded
+		journal.load(kills -> archived.thenRun(() -> {
+			final Collection<BossKillEvent> live = withoutArchived(kills);
+			SwingUtilities.invokeLater(() -> {
+				panel.loadKills(live);
+				refreshPrices();
+			});
+		}));
+		// Kill state is only ever changed on the client thread, the panel gets immutable snapshots
+		publisher = new KillPublisher(panel::updateRecord, panel::removeKill);
+		lifecycle = new KillLifecycle(dictionary, clock, timers, itemResolver::toDrop, config::showInProgress, UUID::randomUUID, publisher);
+		updateEventRecording();
+		renderBossIcon(BossRegistry.CORPOREAL_BEAST.getIconItemId(), 48, 48);
 
 
 		final BufferedImage icon = ImageUtil.getResourceStreamFromClass(getClass(), "/CorporealBeast.png");
@@ -105,180 +153,203 @@ public class CorpEventTrackerPlugin extends Plugin {
 	@Override
 	protected void shutDown() throws Exception {
 		log.info("Corp Event Tracker stopped!");
-		this.corp = null;
-		this.killId = null;
-		this.participants.clear();
-		this.clearBossExpireThread();
-		if (this.checkForParticipantsTimer != null) {
-			this.checkForParticipantsTimer.cancel();
-			this.checkForParticipantsTimer = null;
-		}
+		clientThread.invoke(() -> {
+			this.lifecycle.reset();
+			this.stopEventRecording();
+		});
+		log.info("Kill timers: {}", this.timers);
+		log.info("Kill updates: {}", this.publisher);
+		this.itemPriceRefresh.cancel(false);
 		clientToolbar.removeNavigation(navButton);
+		panel.close();
+		// The archive hands written segments' kills back to the journal to delete, so it closes first
+		archive.close();
+		journal.close();
 	}
 
-	@Subscribe
-	public void onNpcSpawned(NpcSpawned npcSpawned) {
-		NPC npc = npcSpawned.getNpc();
+	/**
+	 * Drop journal kills that made it into the archive before the client stopped, but whose
+	 * deletions didn't make it into the journal. Journal thread only.
+	 */
+	private Collection<BossKillEvent> withoutArchived(Collection<BossKillEvent> kills) {
+		final Set<UUID> archived;
+		try {
+			archived = archive.findArchived(kills);
+		} catch (IOException e) {
+			log.warn("Unable to check the journal against the kill archive", e);
+			return kills;
+		}
+		if (archived.isEmpty()) {
+			return kills;
+		}
 
-		if (npc.getId() == NpcID.CORPOREAL_BEAST) {
-			log.info("Corporeal beast spawn: {}", npc);
-			this.corp = npc;
+		log.info("Dropping {} journal kills that are already archived", archived.size());
+		archived.forEach(journal::appendKillDeletion);
+		return kills.stream()
+				.filter(kill -> !archived.contains(kill.getUuid()))
+				.collect(Collectors.toList());
+	}
 
-			// If the last kill never expired re-use it
-			this.clearBossExpireThread();
+	/**
+	 * Record and apply a lifecycle event, client thread only
+	 */
+	private void dispatch(KillEvent event) {
+		if (this.eventLog != null) {
+			this.eventLog.record(event);
+		}
+		this.lifecycle.handle(event);
+	}
 
-			// This is a new kill
-			this.createAndLogNewKillIfNotPresent();
+	@Subscribe
+	public void onNpcSpawned(NpcSpawned npcSpawned) {
+		NPC npc = npcSpawned.getNpc();
+		if (this.lifecycle.isTracked(npc.getId())) {
+			this.dispatch(new KillEvent.NpcSpawned(clock.millis(), npc.getIndex(), npc.getId()));
+		}
+	}
 
-			// Cancel existing timer
-			if (this.checkForParticipantsTimer != null) {
-				this.checkForParticipantsTimer.cancel();
-			}
+	@Subscribe
+	public void onGameTick(GameTick gameTick) {
+		updateLocalPlayer();
+		if (!this.lifecycle.hasSpawnedBoss()) {
+			return;
+		}
 
-			this.checkForParticipantsTimer = new Timer();
-			checkForParticipantsTimer.scheduleAtFixedRate(new TimerTask() {
-				@Override
-				public void run() {
-					log.info("Checking for boss participants");
-					client.getPlayers().forEach(player -> {
-						if (corp != null && player.getInteracting() != null && player.getInteracting().getName().equals(corp.getName())) {
-							log.info("Found participant: " + player.getName());
-							participants.add(player.getName());
-						}
-					});
-					createAndLogNewKillIfNotPresent();
+		// Only look at every player when a participant scan is due
+		List<KillEvent.Interaction> interactions = Collections.emptyList();
+		if (this.lifecycle.isScanDue()) {
+			interactions = new ArrayList<>();
+			for (Player player : client.getPlayers()) {
+				Actor target = player.getInteracting();
+				if (target instanceof NPC && player.getName() != null && this.lifecycle.isTracked(((NPC) target).getId())) {
+					interactions.add(new KillEvent.Interaction(player.getName(), ((NPC) target).getIndex()));
 				}
-			},0,2500);
+			}
 		}
+
+		this.dispatch(new KillEvent.Tick(clock.millis(), interactions));
 	}
 
-	private void createAndLogNewKillIfNotPresent() {
-		if (this.killId == null) {
-			log.info("Generating a new UUID");
-			this.killId = UUID.randomUUID();
-			this.participants.clear(); // Clear existing as kill wasn't active
+	/**
+	 * Let the panel know whose damage shares are exact, when the logged in player changes
+	 */
+	private void updateLocalPlayer() {
+		final Player player = client.getLocalPlayer();
+		final String name = player == null ? null : player.getName();
+		if (!Objects.equals(name, this.localPlayer)) {
+			this.localPlayer = name;
+			SwingUtilities.invokeLater(() -> panel.setLocalPlayer(name));
 		}
-
-		this.logInProgressKill();
 	}
 
 	@Subscribe
 	public void onNpcDespawned(NpcDespawned npcDespawned) {
 		NPC npc = npcDespawned.getNpc();
-
-		if (npc == this.corp) {
-			log.info("Corporeal beast despawn: {}", npc);
-
-			this.checkForParticipantsTimer.cancel();
-			this.corp = null;
-
-			if (npc.isDead()) {
-				log.info("NPC Dead");
-				// Clear the kill instantly, but prevent the possibility of the
-				// kill message not being first
-				this.clearNpcActiveKill(1000); // Clear the kill "instantly"
-			} else {
-				this.clearNpcActiveKill();
-			}
+		if (this.lifecycle.isTracked(npc.getId())) {
+			this.dispatch(new KillEvent.NpcDespawned(clock.millis(), npc.getIndex(), npc.getId(), npc.isDead()));
 		}
 	}
 
-	private void clearNpcActiveKill() {
-		this.clearNpcActiveKill(BOSS_DELETE_IN_PROG_KILL_MS);
+	@Subscribe
+	public void onChatMessage(ChatMessage chatMessage) {
+		if (chatMessage.getType() != ChatMessageType.GAMEMESSAGE) {
+			return;
+		}
+
+		this.dispatch(new KillEvent.ChatMessage(clock.millis(), chatMessage.getMessage(), client.getUsername()));
 	}
 
-	private void clearNpcActiveKill(int waitMs) {
-		// Kill the current kill if nothing happened in the last 25 seconds
-		this.clearBossExpireThread();
+	@Subscribe
+	public void onInteractingChanged(InteractingChanged interactingChanged) {
+		Actor source = interactingChanged.getSource();
+		Actor target = interactingChanged.getTarget();
 
-		if (this.killId == null) {
-			// Make sure all participants are removed
-			this.participants.clear();
-		} else {
-			log.info("Setting up boss expire thread");
-			// Kill in progress still. Set a timer to clean up this kill after X seconds
-			this.bosskillExpiredThread = setTimeout(() -> {
-				log.info("Clearing participants");
-				this.participants.clear();
-				UUID curKillId = this.killId; // Save for later
-				this.killId = null;
-
-				SwingUtilities.invokeLater(() -> this.panel.removeKill(curKillId));
-			}, waitMs);
+		if (!(target instanceof NPC) || source.getName() == null || !this.lifecycle.isTracked(((NPC) target).getId())) {
+			return;
 		}
+
+		NPC npc = (NPC) target;
+		this.dispatch(new KillEvent.Interacting(clock.millis(), source.getName(), npc.getIndex(), npc.getId()));
 	}
 
+	/**
+	 * Hitsplats don't say who dealt them. Our own are ours, everyone else's are split between the
+	 * other players attacking the boss. Runs for every hit in a mass, so nothing here allocates
+	 * unless events are being recorded.
+	 */
 	@Subscribe
-	public void onChatMessage(ChatMessage chatMessage) {
-		if (chatMessage.getType() == ChatMessageType.GAMEMESSAGE) {
-			// Example: <col=005f00>Prized received a drop: 175 x Onyx bolts (e)</col>
-			// Example: <col=ef1020>Valuable drop: 250 x Runite bolts (95,250 coins)</col>
-			Matcher matcherValuable = VALUABLE_DROP_MESSAGE.matcher(chatMessage.getMessage());
-
-			if (matcherValuable.lookingAt()) {
-				String player = client.getUsername();
-				int qty = 1;
-				String dropName = matcherValuable.group(1);
-
-				Matcher matcher2 = DROP_QTY.matcher(dropName);
-				if (matcher2.lookingAt()) {
-					qty = Integer.parseInt(matcher2.group(1).replaceAll(",", ""));
-					dropName = matcher2.group(2);
-				}
-
-				participants.add(player);
-				this.logAndClearKill(player, dropName, qty);
+	public void onHitsplatApplied(HitsplatApplied hitsplatApplied) {
+		if (!(hitsplatApplied.getActor() instanceof NPC)) {
+			return;
+		}
 
-				return;
-			}
+		NPC npc = (NPC) hitsplatApplied.getActor();
+		Hitsplat hitsplat = hitsplatApplied.getHitsplat();
+		Hitsplat.HitsplatType type = hitsplat.getHitsplatType();
+		if ((type != Hitsplat.HitsplatType.DAMAGE_ME && type != Hitsplat.HitsplatType.DAMAGE_OTHER)
+				|| hitsplat.getAmount() <= 0 || !this.lifecycle.isTracked(npc.getId())) {
+			return;
+		}
 
-			Matcher matcher = DROP_MESSAGE.matcher(chatMessage.getMessage());
-			log.info("Chat message: " + chatMessage.getMessage());
+		Player localPlayer = client.getLocalPlayer();
+		Player[] players = client.getCachedPlayers();
+		boolean mine = type == Hitsplat.HitsplatType.DAMAGE_ME;
 
-			// TODO - Handle gem drop and other multi-item drops
-			if (matcher.lookingAt()) {
-				int qty = 1; // Default quantity
-				String player = matcher.group(1);
-				String dropName = matcher.group(2);
+		int attackers = 0;
+		for (Player player : players) {
+			if (isAttacker(player, npc, localPlayer, mine)) {
+				attackers++;
+			}
+		}
+		if (attackers == 0) {
+			return;
+		}
 
-				Matcher matcher2 = DROP_QTY.matcher(dropName);
-				if (matcher2.lookingAt()) {
-					qty = Integer.parseInt(matcher2.group(1).replaceAll(",", ""));
-					dropName = matcher2.group(2);
+		int attacker = 0;
+		for (int slot = 0; slot < players.length; slot++) {
+			if (isAttacker(players[slot], npc, localPlayer, mine)) {
+				int amount = DamageCounter.evenShare(hitsplat.getAmount(), attackers, attacker++);
+				if (amount > 0) {
+					this.dispatchDamage(npc, slot, players[slot].getName(), amount);
 				}
-
-				// Make sure the person who got the kill is in the list
-				participants.add(player);
-
-				this.logAndClearKill(player, dropName, qty);
 			}
 		}
 	}
 
-	@Subscribe
-	public void onInteractingChanged(InteractingChanged interactingChanged) {
-		Actor source = interactingChanged.getSource();
-		Actor target = interactingChanged.getTarget();
-
-		if (this.corp == null || target != this.corp) {
-			return;
+	private static boolean isAttacker(Player player, NPC npc, Player localPlayer, boolean mine) {
+		if (player == null || player.getName() == null) {
+			return false;
 		}
+		return mine ? player == localPlayer : player != localPlayer && player.getInteracting() == npc;
+	}
 
-		log.info(String.format("Adding: %s", source.getName()));
-
-		this.participants.add(source.getName());
-		this.createAndLogNewKillIfNotPresent();
+	private void dispatchDamage(NPC npc, int slot, String player, int amount) {
+		if (this.eventLog != null) {
+			this.dispatch(new KillEvent.Damage(clock.millis(), npc.getIndex(), npc.getId(), slot, player, amount));
+		} else {
+			this.lifecycle.onDamage(npc.getIndex(), npc.getId(), slot, player, amount);
+		}
 	}
 
 	@Subscribe
 	public void onGameStateChanged(GameStateChanged gameStateChanged) {
-		if (gameStateChanged.getGameState() != this.lastGameState
-				&& (gameStateChanged.getGameState() == GameState.LOGGED_IN
-				|| gameStateChanged.getGameState() == GameState.LOGIN_SCREEN || gameStateChanged.getGameState() == GameState.HOPPING)) {
-			// Clear exiting state
-			log.info("Game State Changed: " + gameStateChanged.getGameState().toString());
-			this.lastGameState = gameStateChanged.getGameState();
-			this.clearNpcActiveKill(0);
+		this.dispatch(new KillEvent.GameStateChanged(clock.millis(), gameStateChanged.getGameState()));
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged configChanged) {
+		if (!configChanged.getGroup().equals("corpeventtracker")) {
+			return;
+		}
+
+		if (configChanged.getKey().equals("virtualizeKillList") || configChanged.getKey().equals("collapseAfterHours")) {
+			SwingUtilities.invokeLater(() -> this.panel.updateKillListMode());
+		} else if (configChanged.getKey().equals("currentValue")) {
+			SwingUtilities.invokeLater(() -> this.panel.updateValueMode());
+		} else if (configChanged.getKey().equals("hotKills")) {
+			SwingUtilities.invokeLater(() -> this.panel.updateHotKills());
+		} else if (configChanged.getKey().equals("recordEvents")) {
+			clientThread.invoke(this::updateEventRecording);
 		}
 	}
 
@@ -287,6 +358,49 @@ public class CorpEventTrackerPlugin extends Plugin {
 		return configManager.getConfig(CorpEventTrackerConfig.class);
 	}
 
+	/**
+	 * Re-read GE prices in one batch on the client thread: the cached drop items, then every item in the
+	 * kill history so the panel can revalue it without touching the kills
+	 */
+	private void refreshPrices() {
+		SwingUtilities.invokeLater(() -> {
+			final int[] itemIds = this.panel.getItemIds();
+			clientThread.invokeLater(() -> {
+				this.itemResolver.refreshPrices();
+				final ItemPrices prices = ItemPrices.lookup(itemIds, itemManager::getItemPrice);
+				log.info("Looked up current prices of {} items in the kill history", prices.size());
+				SwingUtilities.invokeLater(() -> this.panel.setCurrentPrices(prices));
+			});
+		});
+	}
+
+	/**
+	 * Start or stop recording lifecycle events for replay, following the config
+	 */
+	private void updateEventRecording() {
+		if (!config.recordEvents()) {
+			this.stopEventRecording();
+			return;
+		}
+
+		if (this.eventLog == null) {
+			final String name = "events-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".log";
+			try {
+				this.eventLog = new KillEventLog(new File(DATA_DIR, name));
+				log.info("Recording events to {}", name);
+			} catch (IOException e) {
+				log.warn("Unable to record events", e);
+			}
+		}
+	}
+
+	private void stopEventRecording() {
+		if (this.eventLog != null) {
+			this.eventLog.close();
+			this.eventLog = null;
+		}
+	}
+
 	private void preFillKills() {
 		clientThread.invokeLater(() -> {
 			if (client.getGameState() == GameState.STARTING || client.getGameState() == GameState.UNKNOWN) {
@@ -302,120 +416,32 @@ public class CorpEventTrackerPlugin extends Plugin {
 		});
 	}
 
+	/**
+	 * Play a few fake Corp kills through the lifecycle
+	 */
 	private void generateKills() {
-		this.participants.add("steven10172");
-		this.participants.add("player 2");
-		this.participants.add("player 3");
-
-		this.killId = UUID.randomUUID();
-		logAndClearKill("Steven10172", "Pure Essence", 1200);
-
-		this.participants.add("player 4");
-		this.participants.add("player 5");
-		this.participants.add("player 6");
-		this.participants.add("player 7");
-		this.killId = UUID.randomUUID();
-		logAndClearKill("Steven10172", "Elysian Sigil", 1);
-
-		this.killId = UUID.randomUUID();
-		logAndClearKill("Steven10172", "Spirit Shield", 1);
-
-		this.participants.add("player 8");
-		this.participants.add("player 9");
-		this.participants.add("player 10");
-		this.participants.add("player 11");
-		this.participants.add("player 12");
-		this.participants.add("player 13");
-		this.participants.add("player 14");
-		this.participants.add("player 15");
-		this.killId = UUID.randomUUID();
-		logAndClearKill("Steven10172", "Holy elixir", 1);
-
-		this.participants.clear();
-		this.participants.add("player 1");
-		this.participants.add("player 2");
-		this.killId = UUID.randomUUID();
-		logAndClearKill("Steven10172", "Onyx bolts (e)", 175);
-
-		this.killId = UUID.randomUUID();
-		logAndClearKill("Steven10172", "Coins", 35379);
-
-		this.participants.clear();
-		this.killId = UUID.randomUUID();
-		logInProgressKill();
-
-		this.killId = null;
-		this.participants.clear();
+		generateKill("Steven10172", "1,200 x Pure Essence", "steven10172", "player 2", "player 3");
+		generateKill("Steven10172", "Elysian Sigil", "steven10172", "player 2", "player 3", "player 4", "player 5", "player 6", "player 7");
+		generateKill("Steven10172", "Spirit Shield", "steven10172", "player 2", "player 3", "player 4", "player 5", "player 6", "player 7");
+		generateKill("Steven10172", "Holy elixir", "steven10172", "player 2", "player 3", "player 4", "player 5", "player 6", "player 7",
+				"player 8", "player 9", "player 10", "player 11", "player 12", "player 13", "player 14", "player 15");
+		generateKill("Steven10172", "175 x Onyx bolts (e)", "player 1", "player 2");
+		generateKill("Steven10172", "35,379 x Coins", "player 1", "player 2");
 	}
 
-	private void logInProgressKill() {
-		if (!this.config.showInProgress()) {
-			return;
-		}
-		BossKillEvent bossKill = generateBossKill("IN-PROGRESS", BossTrackerItem.generateFakeItem());
-		bossKill.setInProgress(true);
-		log.info("In Progress: " + bossKill.getUuid().toString());
+	private void generateKill(String killOwner, String drop, String... participants) {
+		final int npcIndex = 1;
+		final int npcId = BossRegistry.CORPOREAL_BEAST.getBossId();
 
-		SwingUtilities.invokeLater(() -> this.panel.updateRecord(bossKill));
-	}
-
-	private void logAndClearKill(String killOwner, String dropName, int qty) {
-		BossKillEvent bossKill = this.generateBossKill(killOwner, dropName, qty);
-		log.info("Kill Completed: " + bossKill.getUuid().toString());
-
-		SwingUtilities.invokeLater(() -> this.panel.updateRecord(bossKill));
-
-		this.killId = null;
-		this.clearBossExpireThread();
-	}
-
-	private void clearBossExpireThread() {
-		if (this.bosskillExpiredThread != null) {
-			log.info("Killing expiration check thread");
-			this.bosskillExpiredThread.interrupt();
-			this.bosskillExpiredThread = null;
-		}
-	}
-
-	private BossKillEvent generateBossKill(String killOwner, BossTrackerItem droppedItem) {
-		return this.generateBossKill(killOwner, droppedItem, NpcID.CORPOREAL_BEAST);
-	}
-
-	private BossKillEvent generateBossKill(String killOwner, BossTrackerItem droppedItem, int bossId) {
-		return new BossKillEvent(this.killId, bossId, droppedItem, killOwner, this.convertParticipantsToList(), Instant.now());
-	}
-
-	private BossKillEvent generateBossKill(String killOwner, String dropName, int qty) {
-		BossTrackerItem droppedItem = this.generateDrop(dropName, qty);
-		return this.generateBossKill(killOwner, droppedItem);
-	}
-
-	private List<String> convertParticipantsToList() {
-		return new ArrayList<>(this.participants);
-	}
-
-	private BossTrackerItem generateDrop(String dropName, int qty) {
-		if (dropName.toLowerCase().equals("coins")) {
-			log.info("Coins received");
-			return new BossTrackerItem(ItemID.COINS_995, "Coins", qty, 1, 1);
+		this.lifecycle.handle(new KillEvent.NpcSpawned(clock.millis(), npcIndex, npcId));
+		for (String participant : participants) {
+			this.lifecycle.handle(new KillEvent.Interacting(clock.millis(), participant, npcIndex, npcId));
 		}
-
-		ItemPrice item = findItem(dropName);
-		long storePrice = itemManager.getItemComposition(item.getId()).getPrice();
-		int alchPrice = Math.round(storePrice * Constants.HIGH_ALCHEMY_MULTIPLIER);
-
-		return new BossTrackerItem(item.getId(), item.getName(), qty, item.getPrice(), alchPrice);
-	}
-
-	private ItemPrice findItem(String dropName) {
-		List<ItemPrice> items = itemManager.search(dropName);
-		for (ItemPrice item : items) {
-			if (item.getName().toLowerCase().equals(dropName.toLowerCase())) {
-				return item;
-			}
+		for (int slot = 0; slot < participants.length; slot++) {
+			this.lifecycle.handle(new KillEvent.Damage(clock.millis(), npcIndex, npcId, slot, participants[slot], 50 * (slot + 1)));
 		}
-
-		return null;
+		this.lifecycle.handle(new KillEvent.ChatMessage(clock.millis(), "<col=005f00>" + killOwner + " received a drop: " + drop + "</col>", killOwner));
+		this.lifecycle.handle(new KillEvent.NpcDespawned(clock.millis(), npcIndex, npcId, true));
 	}
 
 	private void renderBossIcon(final int itemID, final int width, final int height) {
@@ -438,21 +464,4 @@ public class CorpEventTrackerPlugin extends Plugin {
 		icon.onLoaded(resize);
 		resize.run();
 	}
-
-	private static Thread setTimeout(Runnable runnable, int delay) {
-		log.info("Setting up another waiting thread");
-		Thread t = new Thread(() -> {
-			try {
-				Thread.sleep(delay);
-				log.info("Still executing thread");
-				runnable.run();
-			} catch (Exception e) {
-				System.err.println(e);
-			}
-		});
-
-		t.start();
-
-		return t;
-	}
 }
@@ -0,0 +1,88 @@
+package com.steven10172.corptracker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Damage dealt to one boss during the current kill, counted by player slot in the client's
+ * player array. Counting a hit never allocates, masses land hundreds of hits a minute.
+ *
+ * A slot only changes hands when its player logs out or leaves the area. Whatever the old player
+ * dealt is moved aside by name then, which is the only path that allocates.
+ */
+class DamageCounter {
+    // Size of the client's cached player array
+    private static final int MAX_PLAYERS = 2048;
+
+    private final int[] damageBySlot = new int[MAX_PLAYERS];
+    private final String[] playerBySlot = new String[MAX_PLAYERS];
+    // Slots with damage, so clearing doesn't sweep every slot
+    private final int[] usedSlots = new int[MAX_PLAYERS];
+    private int usedCount;
+    private final Map<String, Integer> departed = new HashMap<>();
+
+    /**
+     * One attacker's share of a hit split evenly in whole points, the first few attackers pick up
+     * the remainder
+     *
+     * @param attacker which of the attackers, counting from 0
+     */
+    static int evenShare(int amount, int attackers, int attacker) {
+        return amount / attackers + (attacker < amount % attackers ? 1 : 0);
+    }
+
+    void add(int slot, String player, int amount) {
+        if (slot < 0 || slot >= MAX_PLAYERS || player == null) {
+            return;
+        }
+
+        final String current = playerBySlot[slot];
+        if (current == null) {
+            playerBySlot[slot] = player;
+            usedSlots[usedCount++] = slot;
+        } else if (!current.equals(player)) {
+            departed.merge(current, damageBySlot[slot], Integer::sum);
+            playerBySlot[slot] = player;
+            damageBySlot[slot] = 0;
+        }
+        damageBySlot[slot] += amount;
+    }
+
+    boolean isEmpty() {
+        return usedCount == 0;
+    }
+
+    void clear() {
+        for (int i = 0; i < usedCount; i++) {
+            final int slot = usedSlots[i];
+            damageBySlot[slot] = 0;
+            playerBySlot[slot] = null;
+        }
+        usedCount = 0;
+        departed.clear();
+    }
+
+    /**
+     * @return the kill with the damage counted so far, or the kill itself if nobody dealt any
+     */
+    BossKillEvent applyTo(BossKillEvent kill) {
+        if (isEmpty()) {
+            return kill;
+        }
+
+        final List<String> players = new ArrayList<>(usedCount + departed.size());
+        final int[] damage = new int[usedCount + departed.size()];
+        for (int i = 0; i < usedCount; i++) {
+            final int slot = usedSlots[i];
+            damage[players.size()] = damageBySlot[slot];
+            players.add(playerBySlot[slot]);
+        }
+        for (Map.Entry<String, Integer> entry : departed.entrySet()) {
+            damage[players.size()] = entry.getValue();
+            players.add(entry.getKey());
+        }
+        return kill.withDamage(players, damage);
+    }
+}
@@ -0,0 +1,137 @@
+package com.steven10172.corptracker;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parses the game's drop messages.
+ *
+ * <pre>
+ * &lt;col=005f00&gt;Prized received a drop: 175 x Onyx bolts (e)&lt;/col&gt;
+ * &lt;col=005f00&gt;Prized received a drop: 2 x Uncut ruby, Uncut diamond&lt;/col&gt;
+ * &lt;col=ef1020&gt;Valuable drop: 250 x Runite bolts (95,250 coins)&lt;/col&gt;
+ * </pre>
+ *
+ * Almost every game message is not a drop, so those are rejected on the colour prefix before
+ * anything is allocated. Quantities (which may contain thousands separators) are parsed in place.
+ */
+class DropMessageParser {
+    private static final String DROP_PREFIX = "<col=005f00>";
+    private static final String DROP_MARKER = " received a drop: ";
+    private static final String VALUABLE_DROP_PREFIX = "<col=ef1020>Valuable drop: ";
+    private static final String SUFFIX = "</col>";
+    private static final String QUANTITY_SEPARATOR = " x ";
+    private static final String ITEM_SEPARATOR = ", ";
+
+    @Value
+    static class DroppedItem {
+        String name;
+        int quantity;
+    }
+
+    @Value
+    static class Drop {
+        /**
+         * Who received the drop, null for valuable drop messages which are always the local player
+         */
+        String player;
+        List<DroppedItem> items;
+    }
+
+    /**
+     * @return the parsed drop, or null when the message is not a drop message
+     */
+    Drop parse(String message) {
+        if (message.startsWith(VALUABLE_DROP_PREFIX)) {
+            return parseValuableDrop(message);
+        }
+
+        if (!message.startsWith(DROP_PREFIX)) {
+            return null;
+        }
+
+        final int marker = message.indexOf(DROP_MARKER, DROP_PREFIX.length());
+        if (marker < 0) {
+            return null;
+        }
+
+        final String player = message.substring(DROP_PREFIX.length(), marker);
+        final List<DroppedItem> items = parseItems(message, marker + DROP_MARKER.length(), contentEnd(message));
+        return items.isEmpty() ? null : new Drop(player, items);
+    }
+
+    private Drop parseValuableDrop(String message) {
+        final int end = contentEnd(message);
+
+        // Drop the trailing " (95,250 coins)", the item itself may end in "(e)"
+        final int value = message.lastIndexOf(" (", end);
+        if (value < VALUABLE_DROP_PREFIX.length()) {
+            return null;
+        }
+
+        final DroppedItem item = parseItem(message, VALUABLE_DROP_PREFIX.length(), value);
+        return item == null ? null : new Drop(null, Collections.singletonList(item));
+    }
+
+    /**
+     * Items are separated by ", ". Quantities never contain a space after their commas, so
+     * "1,200 x Pure essence" stays a single item.
+     */
+    private List<DroppedItem> parseItems(String message, int start, int end) {
+        final int separator = message.indexOf(ITEM_SEPARATOR, start);
+        if (separator < 0 || separator >= end) {
+            final DroppedItem item = parseItem(message, start, end);
+            return item == null ? Collections.emptyList() : Collections.singletonList(item);
+        }
+
+        final List<DroppedItem> items = new ArrayList<>();
+        int itemStart = start;
+        while (itemStart < end) {
+            int itemEnd = message.indexOf(ITEM_SEPARATOR, itemStart);
+            if (itemEnd < 0 || itemEnd > end) {
+                itemEnd = end;
+            }
+
+            final DroppedItem item = parseItem(message, itemStart, itemEnd);
+            if (item != null) {
+                items.add(item);
+            }
+            itemStart = itemEnd + ITEM_SEPARATOR.length();
+        }
+        return items;
+    }
+
+    /**
+     * Parse "1,200 x Pure essence" or "Spirit shield" between start and end
+     */
+    private static DroppedItem parseItem(String message, int start, int end) {
+        int quantity = 0;
+        int i = start;
+        boolean digits = false;
+
+        for (; i < end; i++) {
+            final char c = message.charAt(i);
+            if (c >= '0' && c <= '9') {
+                quantity = quantity * 10 + (c - '0');
+                digits = true;
+            } else if (c != ',' || !digits) {
+                break;
+            }
+        }
+
+        if (digits && message.startsWith(QUANTITY_SEPARATOR, i)) {
+            start = i + QUANTITY_SEPARATOR.length();
+        } else {
+            quantity = 1;
+        }
+
+        return start < end ? new DroppedItem(message.substring(start, end), quantity) : null;
+    }
+
+    private static int contentEnd(String message) {
+        return message.endsWith(SUFFIX) ? message.length() - SUFFIX.length() : message.length();
+    }
+}
@@ -0,0 +1,55 @@
+package com.steven10172.corptracker;
+
+import net.runelite.api.ItemID;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * GE prices of a set of items, looked up together in one pass. A table never changes once built,
+ * a refresh builds a new one, so it can be handed to the EDT as is.
+ */
+class ItemPrices {
+    // Sorted
+    private final int[] ids;
+    private final int[] prices;
+
+    private ItemPrices(int[] ids, int[] prices) {
+        this.ids = ids;
+        this.prices = prices;
+    }
+
+    /**
+     * Look up the price of every item, client thread only. Unknown (negative) ids are left out, as are
+     * items without a price, which happens for untradeables and before the prices have loaded.
+     *
+     * @param itemIds sorted item ids
+     */
+    static ItemPrices lookup(int[] itemIds, IntUnaryOperator priceOf) {
+        final int[] ids = new int[itemIds.length];
+        final int[] prices = new int[itemIds.length];
+        int count = 0;
+        for (int id : itemIds) {
+            final int price = id < 0 ? 0 : id == ItemID.COINS_995 ? 1 : priceOf.applyAsInt(id);
+            if (price > 0) {
+                ids[count] = id;
+                prices[count] = price;
+                count++;
+            }
+        }
+        return new ItemPrices(Arrays.copyOf(ids, count), Arrays.copyOf(prices, count));
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * @param fallback value to use when the item isn't in the table
+     * @return the value of a quantity of an item at these prices
+     */
+    long valueOf(int itemId, long quantity, long fallback) {
+        final int index = Arrays.binarySearch(ids, itemId);
+        return index < 0 ? fallback : prices[index] * quantity;
+    }
+}
@@ -0,0 +1,151 @@
+package com.steven10172.corptracker;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Constants;
+import net.runelite.api.ItemID;
+import net.runelite.client.game.ItemManager;
+import net.runelite.http.api.item.ItemPrice;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves drop names from chat messages to items, caching by case-folded exact name so the
+ * fuzzy {@link ItemManager#search(String)} only ever runs once per name. Misses are cached until
+ * the next price refresh, in case the item prices simply hadn't loaded yet.
+ *
+ * Resolving and refreshing prices touch item compositions, so both must run on the client thread.
+ */
+@Slf4j
+class ItemResolver {
+    /**
+     * Corp's drop table, resolved up front so the first kill doesn't pay for the searches
+     */
+    private static final String[] CORP_DROP_TABLE = {
+            "Spirit shield", "Holy elixir", "Spectral sigil", "Arcane sigil", "Elysian sigil", "Jar of spirits",
+            "Mystic robe top", "Mystic robe bottom", "Mystic air staff", "Mystic water staff", "Mystic earth staff",
+            "Onyx bolts (e)", "Cannonball", "Adamant arrow", "Runite bolts", "Pure essence",
+            "Cosmic rune", "Death rune", "Blood rune", "Soul rune", "Law rune",
+            "Magic seed", "Ranarr seed", "Watermelon seed", "Teak plank", "Adamantite bar", "Raw shark",
+            "Magic logs", "Tuna potato", "Uncut sapphire", "Uncut emerald", "Uncut ruby", "Uncut diamond",
+            "Uncut dragonstone",
+    };
+
+    static final class ResolvedItem {
+        private final int id;
+        private final String name;
+        private final int haPrice;
+        private volatile int gePrice;
+
+        private ResolvedItem(int id, String name, int gePrice, int haPrice) {
+            this.id = id;
+            this.name = name;
+            this.gePrice = gePrice;
+            this.haPrice = haPrice;
+        }
+
+        BossTrackerItem toDrop(int quantity) {
+            return new BossTrackerItem(id, name, quantity, gePrice, haPrice);
+        }
+    }
+
+    /**
+     * The lookups made for an item, answered by the {@link ItemManager} in the client
+     */
+    interface ItemSource {
+        List<ItemPrice> search(String name);
+
+        int getGePrice(int id);
+
+        int getStorePrice(int id);
+    }
+
+    private static final ResolvedItem MISS = new ResolvedItem(-1, null, 0, 0);
+
+    private final ItemSource itemSource;
+    private final Map<String, ResolvedItem> items = new ConcurrentHashMap<>();
+
+    ItemResolver(ItemManager itemManager) {
+        this(new ItemSource() {
+            @Override
+            public List<ItemPrice> search(String name) {
+                return itemManager.search(name);
+            }
+
+            @Override
+            public int getGePrice(int id) {
+                return itemManager.getItemPrice(id);
+            }
+
+            @Override
+            public int getStorePrice(int id) {
+                return itemManager.getItemComposition(id).getPrice();
+            }
+        });
+    }
+
+    ItemResolver(ItemSource itemSource) {
+        this.itemSource = itemSource;
+        items.put("coins", new ResolvedItem(ItemID.COINS_995, "Coins", 1, 1));
+    }
+
+    /**
+     * Resolve every item on Corp's drop table, client thread only
+     */
+    void prewarm() {
+        for (String dropName : CORP_DROP_TABLE) {
+            resolve(dropName);
+        }
+        log.info("Item cache pre-warmed with {} items", items.size());
+    }
+
+    /**
+     * Build the tracked drop for an item name from a chat message, client thread only.
+     * Unknown items are kept by name with no value rather than dropped.
+     */
+    BossTrackerItem toDrop(String dropName, int quantity) {
+        final ResolvedItem item = resolve(dropName);
+        if (item == MISS) {
+            return new BossTrackerItem(-1, dropName, quantity, 0, 0);
+        }
+        return item.toDrop(quantity);
+    }
+
+    /**
+     * Re-read the GE price of every cached item, client thread only
+     */
+    void refreshPrices() {
+        items.values().removeIf(item -> item == MISS);
+        for (ResolvedItem item : items.values()) {
+            if (item.id != ItemID.COINS_995) {
+                item.gePrice = itemSource.getGePrice(item.id);
+            }
+        }
+        log.info("Refreshed GE prices of {} cached items", items.size());
+    }
+
+    private ResolvedItem resolve(String dropName) {
+        final String key = dropName.toLowerCase();
+        ResolvedItem item = items.get(key);
+        if (item == null) {
+            item = lookup(key);
+            items.put(key, item);
+        }
+        return item;
+    }
+
+    private ResolvedItem lookup(String key) {
+        final List<ItemPrice> results = itemSource.search(key);
+        for (ItemPrice result : results) {
+            if (result.getName().toLowerCase().equals(key)) {
+                final long storePrice = itemSource.getStorePrice(result.getId());
+                final int alchPrice = Math.round(storePrice * Constants.HIGH_ALCHEMY_MULTIPLIER);
+                return new ResolvedItem(result.getId(), result.getName(), result.getPrice(), alchPrice);
+            }
+        }
+
+        log.warn("No exact item match for drop \"{}\"", key);
+        return MISS;
+    }
+}
@@ -0,0 +1,699 @@
+package com.steven10172.corptracker;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Kills too old to keep in memory, sealed into segment files of {@link #SEGMENT_SIZE} kills each.
+ *
+ * A segment file starts with an uncompressed summary: its time range and kill count, the totals
+ * of every hour, the numbers of every player and the names of the dropped items. The kills follow
+ * oldest first, gzip compressed, in the {@link KillJournal} record format. Loading the archive only
+ * reads the summaries, kills are read back a segment at a time when they are paged in.
+ *
+ * Segments are never written over. A changed segment is written out under a new sequence number
+ * naming the one it replaces, and the old file is deleted after. A segment can be read as soon
+ * as it is sealed, the file is written on a background thread. Nothing is sealed or rewritten
+ * before the archive is loaded, new segments are numbered after the ones already on disk.
+ */
+@Slf4j
+class KillArchive {
+    static final int SEGMENT_SIZE = 1000;
+
+    private static final int MAGIC = 0x43455453; // "CETS"
+    private static final int VERSION = 1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".gz";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int NO_SEGMENT = -1;
+
+    /**
+     * What is kept in memory of a segment, enough to tell whether it needs reading at all
+     */
+    static final class Segment {
+        private final int sequence;
+        private final File file;
+        private final long from;
+        private final long to;
+        private final int count;
+        // Sorted PlayerDictionary ids of every owner and participant
+        private final int[] players;
+        // Lowercase names of every dropped item
+        private final String[] items;
+        // The kills, until the file has been written
+        private volatile List<BossKillEvent> pending;
+
+        private Segment(int sequence, File file, long from, long to, int count, int[] players, String[] items) {
+            this.sequence = sequence;
+            this.file = file;
+            this.from = from;
+            this.to = to;
+            this.count = count;
+            this.players = players;
+            this.items = items;
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        int[] getPlayers() {
+            return players;
+        }
+
+        String[] getItems() {
+            return items;
+        }
+
+        private boolean covers(long time) {
+            return time >= from && time <= to;
+        }
+    }
+
+    /**
+     * Totals of every archived kill, rolled up from the segment summaries
+     */
+    @Value
+    static class Totals {
+        KillRollups rollups;
+        PlayerStats players;
+        int count;
+    }
+
+    private final File directory;
+    private final PlayerDictionary dictionary;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "corp-event-tracker-archive");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Newest first by end time, only ever replaced as a whole so readers can keep iterating
+    private volatile List<Segment> segments = Collections.emptyList();
+    private volatile int size;
+    private volatile boolean loaded;
+    private int nextSequence;
+
+    KillArchive(File directory, PlayerDictionary dictionary) {
+        this.directory = directory;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Read the segment summaries in the background and hand the archive totals to the callback.
+     * Call once, before anything else. An archive that fails to load stays empty and refuses new
+     * segments, so the kills it would have taken are kept in the journal.
+     */
+    void load(Consumer<Totals> callback) {
+        writer.execute(() -> {
+            Totals totals;
+            try {
+                totals = loadSegments();
+            } catch (RuntimeException e) {
+                log.error("Unable to load the kill archive {}, old kills stay in the journal", directory, e);
+                totals = new Totals(new KillRollups(), new PlayerStats(null), 0);
+            }
+            callback.accept(totals);
+        });
+    }
+
+    /**
+     * Whether {@link #load} has read the segments on disk, only then can kills be sealed or rewritten
+     */
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Read the segment summaries, dropping segments that were replaced
+     */
+    private synchronized Totals loadSegments() {
+        final KillRollups rollups = new KillRollups();
+        final PlayerStats players = new PlayerStats(null);
+        final File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX)
+                && (name.endsWith(SEGMENT_SUFFIX) || name.endsWith(SEGMENT_SUFFIX + TEMP_SUFFIX)));
+        if (files == null) {
+            loaded = true;
+            return new Totals(rollups, players, 0);
+        }
+
+        final Map<Integer, File> filesBySequence = new HashMap<>();
+        final Map<Integer, Integer> replacedBy = new HashMap<>();
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                // A write that never finished, the segment it was for is still in the journal or its old file
+                deleteFile(file);
+                continue;
+            }
+
+            // Going by the name as well, an unreadable segment is never written over
+            nextSequence = Math.max(nextSequence, sequenceOf(file) + 1);
+            try (DataInputStream in = open(file)) {
+                final int sequence = in.readInt();
+                final int replaces = in.readInt();
+                filesBySequence.put(sequence, file);
+                if (replaces != NO_SEGMENT) {
+                    replacedBy.put(replaces, sequence);
+                }
+                nextSequence = Math.max(nextSequence, sequence + 1);
+            } catch (IOException e) {
+                log.warn("Skipping unreadable kill archive segment {}", file, e);
+            }
+        }
+
+        final List<Segment> found = new ArrayList<>();
+        for (Map.Entry<Integer, File> entry : filesBySequence.entrySet()) {
+            final File file = entry.getValue();
+            if (replacedBy.containsKey(entry.getKey())) {
+                // The rewrite finished but the old file couldn't be deleted at the time
+                deleteFile(file);
+                continue;
+            }
+
+            try {
+                final Segment segment = readSummary(file, rollups, players);
+                if (segment.count > 0) {
+                    found.add(segment);
+                }
+            } catch (IOException e) {
+                log.warn("Skipping unreadable kill archive segment {}", file, e);
+            }
+        }
+
+        replace(found, Collections.emptyList());
+        loaded = true;
+        log.info("Loaded {} archived kills in {} segments", size, found.size());
+        return new Totals(rollups, players, size);
+    }
+
+    /**
+     * Segments newest first, by the time of their newest kill
+     */
+    List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * Number of archived kills
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Seal kills into a new segment. It can be read straight away, the file is written in the background.
+     *
+     * @param kills finished kills, oldest first
+     * @param written run on the writer thread once the segment is on disk, when the kills can leave the journal
+     */
+    synchronized void seal(List<BossKillEvent> kills, Runnable written) {
+        checkLoaded();
+        final Segment segment = newSegment(new ArrayList<>(kills));
+        replace(Collections.singletonList(segment), Collections.emptyList());
+        writer.execute(() -> {
+            if (write(segment, NO_SEGMENT)) {
+                written.run();
+            }
+        });
+    }
+
+    /**
+     * Replace archived kills with new versions of them, rewriting the segments they are in
+     *
+     * @return the replaced versions, keyed by id. Kills that aren't archived are left out.
+     */
+    synchronized Map<UUID, BossKillEvent> update(Collection<BossKillEvent> kills) throws IOException {
+        return rewrite(kills, false);
+    }
+
+    /**
+     * Delete an archived kill, rewriting the segment it is in
+     *
+     * @return the archived version of the kill, or null if it isn't archived
+     */
+    synchronized BossKillEvent delete(BossKillEvent kill) throws IOException {
+        return rewrite(Collections.singletonList(kill), true).get(kill.getUuid());
+    }
+
+    /**
+     * Delete every segment
+     */
+    synchronized void clear() {
+        replace(Collections.emptyList(), segments);
+        writer.execute(() -> {
+            final File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX));
+            if (files != null) {
+                for (File file : files) {
+                    deleteFile(file);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the ids of the kills that are archived
+     */
+    Set<UUID> findArchived(Collection<BossKillEvent> kills) throws IOException {
+        final Set<UUID> archived = new HashSet<>();
+        for (Segment segment : segments) {
+            final Set<UUID> candidates = candidates(segment, kills);
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            for (BossKillEvent kill : read(segment)) {
+                if (candidates.contains(kill.getUuid())) {
+                    archived.add(kill.getUuid());
+                }
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * The kills of a segment, oldest first
+     */
+    List<BossKillEvent> read(Segment segment) throws IOException {
+        final List<BossKillEvent> pending = segment.pending;
+        if (pending != null) {
+            return pending;
+        }
+
+        try (DataInputStream in = open(segment.file)) {
+            in.readInt(); // Sequence
+            in.readInt(); // Replaced sequence
+            final int summaryLength = in.readInt();
+            skipFully(in, summaryLength);
+            return KillJournal.readRecords(dictionary, ByteBuffer.wrap(readFully(new GZIPInputStream(in))));
+        }
+    }
+
+    /**
+     * Every archived kill, oldest first. Segments are only opened once their kills are up next, so
+     * only one is held at a time unless their time ranges overlap.
+     */
+    KillMerger.Source oldestFirst() {
+        final List<Segment> byStart = new ArrayList<>(segments);
+        byStart.sort(Comparator.comparingLong(segment -> segment.from));
+
+        return new KillMerger.Source() {
+            private final PriorityQueue<Cursor> open = new PriorityQueue<>(Comparator.comparingLong(Cursor::time));
+            private int next;
+
+            @Override
+            public BossKillEvent next() throws IOException {
+                while (next < byStart.size() && (open.isEmpty() || byStart.get(next).from <= open.peek().time())) {
+                    final List<BossKillEvent> kills = read(byStart.get(next++));
+                    if (!kills.isEmpty()) {
+                        open.add(new Cursor(kills));
+                    }
+                }
+
+                final Cursor cursor = open.poll();
+                if (cursor == null) {
+                    return null;
+                }
+
+                final BossKillEvent kill = cursor.kills.get(cursor.index++);
+                if (cursor.index < cursor.kills.size()) {
+                    open.add(cursor);
+                }
+                return kill;
+            }
+        };
+    }
+
+    /**
+     * Flush pending writes
+     */
+    void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Cursor {
+        private final List<BossKillEvent> kills;
+        private int index;
+
+        private Cursor(List<BossKillEvent> kills) {
+            this.kills = kills;
+        }
+
+        private long time() {
+            return kills.get(index).getTime().toEpochMilli();
+        }
+    }
+
+    private Map<UUID, BossKillEvent> rewrite(Collection<BossKillEvent> kills, boolean delete) throws IOException {
+        checkLoaded();
+        final Map<UUID, BossKillEvent> replaced = new HashMap<>();
+        for (Segment segment : segments) {
+            final Set<UUID> candidates = candidates(segment, kills);
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            final Map<UUID, BossKillEvent> changes = new HashMap<>();
+            for (BossKillEvent kill : kills) {
+                if (candidates.contains(kill.getUuid())) {
+                    changes.put(kill.getUuid(), kill);
+                }
+            }
+
+            final List<BossKillEvent> contents = new ArrayList<>(read(segment));
+            boolean changed = false;
+            for (ListIterator<BossKillEvent> it = contents.listIterator(); it.hasNext(); ) {
+                final BossKillEvent kill = it.next();
+                final BossKillEvent change = changes.get(kill.getUuid());
+                if (change == null || replaced.containsKey(kill.getUuid())) {
+                    continue;
+                }
+
+                replaced.put(kill.getUuid(), kill);
+                changed = true;
+                if (delete) {
+                    it.remove();
+                } else {
+                    it.set(change);
+                }
+            }
+
+            if (changed) {
+                final Segment rewritten = newSegment(contents);
+                replace(rewritten.count == 0 ? Collections.emptyList() : Collections.singletonList(rewritten),
+                        Collections.singletonList(segment));
+                writer.execute(() -> {
+                    // An empty segment is still written, so the one it replaces stays replaced if it can't be deleted
+                    if (write(rewritten, segment.sequence)) {
+                        deleteFile(segment.file);
+                        if (rewritten.count == 0 && !segment.file.exists()) {
+                            deleteFile(rewritten.file);
+                        }
+                    }
+                });
+            }
+        }
+        return replaced;
+    }
+
+    /**
+     * Ids of the kills whose time falls in the segment's range
+     */
+    private static Set<UUID> candidates(Segment segment, Collection<BossKillEvent> kills) {
+        Set<UUID> candidates = Collections.emptySet();
+        for (BossKillEvent kill : kills) {
+            if (segment.covers(kill.getTime().toEpochMilli())) {
+                if (candidates.isEmpty()) {
+                    candidates = new HashSet<>();
+                }
+                candidates.add(kill.getUuid());
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * New segments would be numbered from 0 and written over the segments on disk
+     */
+    private void checkLoaded() {
+        if (!loaded) {
+            throw new IllegalStateException("The kill archive isn't loaded");
+        }
+    }
+
+    private Segment newSegment(List<BossKillEvent> kills) {
+        final int sequence = nextSequence++;
+        final File file = new File(directory, String.format("%s%06d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        final Set<Integer> players = new HashSet<>();
+        final Set<String> items = new TreeSet<>();
+
+        for (BossKillEvent kill : kills) {
+            final long time = kill.getTime().toEpochMilli();
+            from = Math.min(from, time);
+            to = Math.max(to, time);
+            players.add(dictionary.getId(kill.getKillOwner()));
+            for (int id : kill.getParticipantIds()) {
+                players.add(id);
+            }
+            addItemNames(items, kill.getItem());
+        }
+
+        final Segment segment = new Segment(sequence, file, from, to, kills.size(), sortedIds(players), items.toArray(new String[0]));
+        segment.pending = kills;
+        return segment;
+    }
+
+    private void replace(List<Segment> added, List<Segment> removed) {
+        final List<Segment> updated = new ArrayList<>(segments);
+        updated.removeAll(removed);
+        updated.addAll(added);
+        updated.sort(Comparator.comparingLong((Segment segment) -> segment.to).reversed());
+
+        int count = 0;
+        for (Segment segment : updated) {
+            count += segment.count;
+        }
+        segments = Collections.unmodifiableList(updated);
+        size = count;
+    }
+
+    /**
+     * Write a segment's file, writer thread only
+     *
+     * @return whether the file was written
+     */
+    private boolean write(Segment segment, int replaces) {
+        final List<BossKillEvent> kills = segment.pending;
+        final File temp = new File(directory, segment.file.getName() + TEMP_SUFFIX);
+
+        try {
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw new IOException("Unable to create " + directory);
+            }
+
+            final byte[] summary = summarize(kills);
+            try (OutputStream file = new BufferedOutputStream(new FileOutputStream(temp))) {
+                final DataOutputStream header = new DataOutputStream(file);
+                header.writeInt(MAGIC);
+                header.writeInt(VERSION);
+                header.writeInt(segment.sequence);
+                header.writeInt(replaces);
+                header.writeInt(summary.length);
+                header.write(summary);
+                header.flush();
+
+                final GZIPOutputStream compressed = new GZIPOutputStream(file);
+                final DataOutputStream body = new DataOutputStream(new BufferedOutputStream(compressed));
+                for (BossKillEvent kill : kills) {
+                    KillJournal.writeRecord(body, kill);
+                }
+                body.flush();
+                compressed.finish();
+            }
+
+            Files.move(temp.toPath(), segment.file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The kills stay pending in memory, and in the journal too if this was a new segment
+            log.warn("Unable to write kill archive segment {}", segment.file, e);
+            deleteFile(temp);
+            return false;
+        }
+
+        segment.pending = null;
+        return true;
+    }
+
+    /**
+     * The summary at the start of a segment file
+     */
+    private byte[] summarize(List<BossKillEvent> kills) throws IOException {
+        final KillRollups rollups = new KillRollups();
+        final PlayerStats stats = new PlayerStats(null);
+        final Set<String> items = new TreeSet<>();
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        for (BossKillEvent kill : kills) {
+            rollups.addArchived(kill);
+            stats.add(kill);
+            addItemNames(items, kill.getItem());
+            from = Math.min(from, kill.getTime().toEpochMilli());
+            to = Math.max(to, kill.getTime().toEpochMilli());
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(bytes)) {
+            data.writeLong(from);
+            data.writeLong(to);
+            data.writeInt(kills.size());
+
+            final List<Map.Entry<Long, KillTotals>> hours = new ArrayList<>();
+            rollups.forEachHour((hour, totals) -> hours.add(new AbstractMap.SimpleEntry<>(hour, totals)));
+            data.writeInt(hours.size());
+            for (Map.Entry<Long, KillTotals> hour : hours) {
+                data.writeLong(hour.getKey());
+                hour.getValue().write(data);
+            }
+
+            final int[] players = stats.getPlayers();
+            data.writeInt(players.length);
+            for (int id : players) {
+                data.writeUTF(dictionary.getName(id));
+                data.writeInt(stats.getKillsAttended(id));
+                data.writeInt(stats.getKillsOwned(id));
+                data.writeLong(stats.getTotalSplitValue(id));
+                data.writeLong(stats.getLastSeen(id));
+            }
+
+            data.writeInt(items.size());
+            for (String item : items) {
+                data.writeUTF(item);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read a segment's summary into the archive totals
+     */
+    private Segment readSummary(File file, KillRollups rollups, PlayerStats stats) throws IOException {
+        try (DataInputStream in = open(file)) {
+            final int sequence = in.readInt();
+            in.readInt(); // Replaced sequence
+            in.readInt(); // Summary length
+            final long from = in.readLong();
+            final long to = in.readLong();
+            final int count = in.readInt();
+
+            final int hours = in.readInt();
+            for (int i = 0; i < hours; i++) {
+                final long hour = in.readLong();
+                rollups.add(hour, KillTotals.read(in));
+            }
+
+            final Set<Integer> players = new HashSet<>();
+            final int playerCount = in.readInt();
+            for (int i = 0; i < playerCount; i++) {
+                final int id = dictionary.getId(in.readUTF());
+                stats.addPlayer(id, in.readInt(), in.readInt(), in.readLong(), in.readLong());
+                players.add(id);
+            }
+
+            final String[] items = new String[in.readInt()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = in.readUTF();
+            }
+
+            return new Segment(sequence, file, from, to, count, sortedIds(players), items);
+        }
+    }
+
+    private static void addItemNames(Set<String> items, BossTrackerItem item) {
+        items.add(item.getName().toLowerCase());
+        for (BossTrackerItem extra : item.getExtras()) {
+            items.add(extra.getName().toLowerCase());
+        }
+    }
+
+    /**
+     * @return the sequence number in a segment's file name, -1 if it has none
+     */
+    private static int sequenceOf(File file) {
+        final String name = file.getName();
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Open a segment file just past its magic and version
+     */
+    private static DataInputStream open(File file) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            in.close();
+            throw new IOException("Not a kill archive segment: " + file);
+        }
+        return in;
+    }
+
+    private static int[] sortedIds(Set<Integer> ids) {
+        final int[] sorted = new int[ids.size()];
+        int i = 0;
+        for (int id : ids) {
+            sorted[i++] = id;
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static void skipFully(DataInputStream in, int length) throws IOException {
+        int skipped = 0;
+        while (skipped < length) {
+            final int n = in.skipBytes(length - skipped);
+            if (n <= 0) {
+                throw new IOException("Truncated kill archive segment");
+            }
+            skipped += n;
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        final byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            bytes.write(buffer, 0, n);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            log.warn("Unable to delete {}", file);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.steven10172.corptracker;
+
+import lombok.Value;
+import net.runelite.api.GameState;
+
+import java.util.List;
+
+/**
+ * Everything the {@link KillLifecycle} reacts to, stamped with the time it happened. Events only
+ * hold plain values (NPCs by index and id, players by name) so they can be recorded with
+ * {@link KillEventLog} and replayed without a client.
+ */
+interface KillEvent {
+    /**
+     * Epoch millis
+     */
+    long getTime();
+
+    void dispatch(KillLifecycle lifecycle);
+
+    @Value
+    class NpcSpawned implements KillEvent {
+        long time;
+        int npcIndex;
+        int npcId;
+
+        @Override
+        public void dispatch(KillLifecycle lifecycle) {
+            lifecycle.onNpcSpawned(this);
+        }
+    }
+
+    @Value
+    class NpcDespawned implements KillEvent {
+        long time;
+        int npcIndex;
+        int npcId;
+        boolean dead;
+
+        @Override
+        public void dispatch(KillLifecycle lifecycle) {
+            lifecycle.onNpcDespawned(this);
+        }
+    }
+
+    /**
+     * A player started interacting with an NPC
+     */
+    @Value
+    class Interacting implements KillEvent {
+        long time;
+        String player;
+        int npcIndex;
+        int npcId;
+
+        @Override
+        public void dispatch(KillLifecycle lifecycle) {
+            lifecycle.onInteracting(this);
+        }
+    }
+
+    /**
+     * Damage dealt to an NPC, attributed to the player in a slot of the client's player array
+     */
+    @Value
+    class Damage implements KillEvent {
+        long time;
+        int npcIndex;
+        int npcId;
+        int playerSlot;
+        String player;
+        int amount;
+
+        @Override
+        public void dispatch(KillLifecycle lifecycle) {
+            lifecycle.onDamage(npcIndex, npcId, playerSlot, player, amount);
+        }
+    }
+
+    /**
+     * A game message, which may be a drop
+     */
+    @Value
+    class ChatMessage implements KillEvent {
+        long time;
+        String message;
+        /**
+         * The logged in player, who valuable drop messages are for
+         */
+        String localPlayer;
+
+        @Override
+        public void dispatch(KillLifecycle lifecycle) {
+            lifecycle.onChatMessage(this);
+        }
+    }
+
+    @Value
+    class GameStateChanged implements KillEvent {
+        long time;
+        GameState gameState;
+
+        @Override
+        public void dispatch(KillLifecycle lifecycle) {
+            lifecycle.onGameStateChanged(this);
+        }
+    }
+
+    /**
+     * A game tick. The interactions are only filled in when {@link KillLifecycle#isScanDue()}
+     * said a participant scan was due.
+     */
+    @Value
+    class Tick implements KillEvent {
+        long time;
+        List<Interaction> interactions;
+
+        @Override
+        public void dispatch(KillLifecycle lifecycle) {
+            lifecycle.onTick(this);
+        }
+    }
+
+    /**
+     * A player interacting with an NPC at the time of a tick
+     */
+    @Value
+    class Interaction {
+        String player;
+        int npcIndex;
+    }
+}
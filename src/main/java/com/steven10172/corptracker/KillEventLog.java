@@ -0,0 +1,165 @@
+package com.steven10172.corptracker;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.GameState;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records {@link KillEvent}s to a text file for {@link KillReplay}, one tab separated event per line:
+ *
+ * <pre>
+ * time  spawn     npcIndex  npcId
+ * time  despawn   npcIndex  npcId  dead (0 or 1)
+ * time  interact  npcIndex  npcId  player
+ * time  damage    npcIndex  npcId  playerSlot  amount  player
+ * time  chat      localPlayer  message
+ * time  state     gameState
+ * time  tick      (npcIndex  player)...
+ * </pre>
+ *
+ * Player names and game messages never contain tabs or line breaks. Writes are buffered on the
+ * calling thread, a failed write stops the recording rather than the plugin.
+ */
+@Slf4j
+class KillEventLog {
+    private static final char SEPARATOR = '\t';
+    private static final String SPAWN = "spawn";
+    private static final String DESPAWN = "despawn";
+    private static final String INTERACT = "interact";
+    private static final String DAMAGE = "damage";
+    private static final String CHAT = "chat";
+    private static final String STATE = "state";
+    private static final String TICK = "tick";
+
+    private final File file;
+    private final StringBuilder line = new StringBuilder();
+    private Writer writer;
+
+    KillEventLog(File file) throws IOException {
+        this.file = file;
+        file.getParentFile().mkdirs();
+        this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+    }
+
+    void record(KillEvent event) {
+        if (writer == null) {
+            return;
+        }
+
+        line.setLength(0);
+        format(event, line);
+        line.append('\n');
+
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            log.warn("Unable to record to {}, recording stopped", file, e);
+            close();
+        }
+    }
+
+    void close() {
+        if (writer == null) {
+            return;
+        }
+
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Unable to close {}", file, e);
+        }
+        writer = null;
+    }
+
+    static void format(KillEvent event, StringBuilder out) {
+        out.append(event.getTime()).append(SEPARATOR);
+
+        if (event instanceof KillEvent.NpcSpawned) {
+            final KillEvent.NpcSpawned spawned = (KillEvent.NpcSpawned) event;
+            out.append(SPAWN).append(SEPARATOR).append(spawned.getNpcIndex()).append(SEPARATOR).append(spawned.getNpcId());
+        } else if (event instanceof KillEvent.NpcDespawned) {
+            final KillEvent.NpcDespawned despawned = (KillEvent.NpcDespawned) event;
+            out.append(DESPAWN).append(SEPARATOR).append(despawned.getNpcIndex()).append(SEPARATOR).append(despawned.getNpcId())
+                    .append(SEPARATOR).append(despawned.isDead() ? '1' : '0');
+        } else if (event instanceof KillEvent.Interacting) {
+            final KillEvent.Interacting interacting = (KillEvent.Interacting) event;
+            out.append(INTERACT).append(SEPARATOR).append(interacting.getNpcIndex()).append(SEPARATOR).append(interacting.getNpcId())
+                    .append(SEPARATOR).append(interacting.getPlayer());
+        } else if (event instanceof KillEvent.Damage) {
+            final KillEvent.Damage damage = (KillEvent.Damage) event;
+            out.append(DAMAGE).append(SEPARATOR).append(damage.getNpcIndex()).append(SEPARATOR).append(damage.getNpcId())
+                    .append(SEPARATOR).append(damage.getPlayerSlot()).append(SEPARATOR).append(damage.getAmount())
+                    .append(SEPARATOR).append(damage.getPlayer());
+        } else if (event instanceof KillEvent.ChatMessage) {
+            final KillEvent.ChatMessage chatMessage = (KillEvent.ChatMessage) event;
+            out.append(CHAT).append(SEPARATOR).append(chatMessage.getLocalPlayer() == null ? "" : chatMessage.getLocalPlayer())
+                    .append(SEPARATOR).append(chatMessage.getMessage());
+        } else if (event instanceof KillEvent.GameStateChanged) {
+            out.append(STATE).append(SEPARATOR).append(((KillEvent.GameStateChanged) event).getGameState().name());
+        } else if (event instanceof KillEvent.Tick) {
+            out.append(TICK);
+            for (KillEvent.Interaction interaction : ((KillEvent.Tick) event).getInteractions()) {
+                out.append(SEPARATOR).append(interaction.getNpcIndex()).append(SEPARATOR).append(interaction.getPlayer());
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown event " + event);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the line isn't a recorded event
+     */
+    static KillEvent parse(String line) {
+        final String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+        if (fields.length < 2) {
+            throw new IllegalArgumentException("Malformed event: " + line);
+        }
+
+        try {
+            final long time = Long.parseLong(fields[0]);
+            switch (fields[1]) {
+                case SPAWN:
+                    return new KillEvent.NpcSpawned(time, Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
+                case DESPAWN:
+                    return new KillEvent.NpcDespawned(time, Integer.parseInt(fields[2]), Integer.parseInt(fields[3]), "1".equals(fields[4]));
+                case INTERACT:
+                    return new KillEvent.Interacting(time, fields[4], Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
+                case DAMAGE:
+                    return new KillEvent.Damage(time, Integer.parseInt(fields[2]), Integer.parseInt(fields[3]), Integer.parseInt(fields[4]),
+                            fields[6], Integer.parseInt(fields[5]));
+                case CHAT:
+                    return new KillEvent.ChatMessage(time, fields[3], fields[2].isEmpty() ? null : fields[2]);
+                case STATE:
+                    return new KillEvent.GameStateChanged(time, GameState.valueOf(fields[2]));
+                case TICK:
+                    return new KillEvent.Tick(time, parseInteractions(fields));
+                default:
+                    throw new IllegalArgumentException("Unknown event type: " + line);
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed event: " + line, e);
+        }
+    }
+
+    private static List<KillEvent.Interaction> parseInteractions(String[] fields) {
+        if (fields.length <= 2) {
+            return Collections.emptyList();
+        }
+
+        final List<KillEvent.Interaction> interactions = new ArrayList<>((fields.length - 2) / 2);
+        for (int i = 2; i + 1 < fields.length; i += 2) {
+            interactions.add(new KillEvent.Interaction(fields[i + 1], Integer.parseInt(fields[i])));
+        }
+        return interactions;
+    }
+}
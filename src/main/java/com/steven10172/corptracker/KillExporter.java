@@ -0,0 +1,250 @@
+package com.steven10172.corptracker;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Writes finished kills out of a {@link KillStore.Snapshot} and the {@link KillArchive} as CSV or
+ * newline-delimited JSON, oldest first. Rows are written one at a time and archive segments are
+ * read one at a time, so little more than the snapshot is held in memory however long the
+ * history is.
+ *
+ * <pre>
+ * time,boss,item,item_id,quantity,ge_value,ha_value,owner,participants,extra_items
+ * 2020-05-01T18:21:04.512Z,Corporeal Beast,Elysian sigil,12819,1,1290000,750000,Owner,Owner;Player 2;Player 3,
+ * 2020-05-01T18:24:31.090Z,Corporeal Beast,Uncut ruby,1619,2,1600,240,Owner,Owner;Player 2,1617:1:2400:300:Uncut diamond
+ * </pre>
+ *
+ * The extra items of a drop of several items are written as {@code item_id:quantity:ge_value:ha_value:name},
+ * separated like the participants.
+ */
+class KillExporter {
+    private static final int PROGRESS_ROWS = 1024;
+    static final String CSV_HEADER = "time,boss,item,item_id,quantity,ge_value,ha_value,owner,participants,extra_items";
+    // Exports from before drops could hold several items
+    static final String CSV_HEADER_SINGLE_ITEM = "time,boss,item,item_id,quantity,ge_value,ha_value,owner,participants";
+    static final char EXTRA_ITEM_FIELD_SEPARATOR = ':';
+    static final char PARTICIPANT_SEPARATOR = ';';
+
+    enum Format {
+        CSV("CSV", "csv"),
+        JSON("JSON lines", "ndjson");
+
+        private final String name;
+        private final String extension;
+
+        Format(String name, String extension) {
+            this.name = name;
+            this.extension = extension;
+        }
+
+        String getExtension() {
+            return extension;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private final Format format;
+    private final PlayerDictionary dictionary;
+
+    KillExporter(Format format, PlayerDictionary dictionary) {
+        this.format = format;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Export the kills matching a query, off the EDT
+     *
+     * @param kills finished kills, oldest first
+     * @param query lowercase query, or null for every kill
+     * @param progress told how many kills were looked at so far
+     * @return the number of kills written
+     */
+    int export(KillMerger.Source kills, String query, File file, IntConsumer progress) throws IOException {
+        final KillSearch.Matcher matcher = new KillSearch.Matcher(dictionary, query);
+        final StringBuilder line = new StringBuilder(256);
+        int written = 0;
+        int done = 0;
+
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            if (format == Format.CSV) {
+                out.write(CSV_HEADER);
+                out.write('\n');
+            }
+
+            BossKillEvent kill;
+            while ((kill = kills.next()) != null) {
+                if (matcher.matches(kill)) {
+                    line.setLength(0);
+                    if (format == Format.CSV) {
+                        appendCsv(line, kill);
+                    } else {
+                        appendJson(line, kill);
+                    }
+                    line.append('\n');
+                    out.append(line);
+                    written++;
+                }
+
+                if (++done % PROGRESS_ROWS == 0) {
+                    progress.accept(done);
+                }
+            }
+        }
+
+        progress.accept(done);
+        return written;
+    }
+
+    private static void appendCsv(StringBuilder line, BossKillEvent kill) {
+        final BossTrackerItem item = kill.getItem();
+        line.append(kill.getTime()).append(',');
+        appendCsvField(line, bossName(kill));
+        line.append(',');
+        appendCsvField(line, item.getName());
+        line.append(',').append(item.getId())
+                .append(',').append(item.getQuantity())
+                .append(',').append(item.getTotalGePrice())
+                .append(',').append(item.getTotalHaPrice())
+                .append(',');
+        appendCsvField(line, kill.getKillOwner());
+        line.append(',');
+
+        final List<String> participants = kill.getParticipants();
+        final StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < participants.size(); i++) {
+            if (i > 0) {
+                joined.append(PARTICIPANT_SEPARATOR);
+            }
+            joined.append(participants.get(i));
+        }
+        appendCsvField(line, joined);
+        line.append(',');
+
+        joined.setLength(0);
+        for (BossTrackerItem extra : item.getExtras()) {
+            if (joined.length() > 0) {
+                joined.append(PARTICIPANT_SEPARATOR);
+            }
+            joined.append(extra.getId()).append(EXTRA_ITEM_FIELD_SEPARATOR)
+                    .append(extra.getQuantity()).append(EXTRA_ITEM_FIELD_SEPARATOR)
+                    .append(extra.getTotalGePrice()).append(EXTRA_ITEM_FIELD_SEPARATOR)
+                    .append(extra.getTotalHaPrice()).append(EXTRA_ITEM_FIELD_SEPARATOR)
+                    .append(extra.getName());
+        }
+        appendCsvField(line, joined);
+    }
+
+    /**
+     * Quote a field only when it holds a comma, quote or line break
+     */
+    private static void appendCsvField(StringBuilder line, CharSequence value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            final char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static void appendJson(StringBuilder line, BossKillEvent kill) {
+        final BossTrackerItem item = kill.getItem();
+        line.append("{\"id\":\"").append(kill.getUuid())
+                .append("\",\"time\":\"").append(kill.getTime())
+                .append("\",\"boss\":");
+        appendJsonString(line, bossName(kill));
+        line.append(",\"item\":");
+        appendJsonString(line, item.getName());
+        line.append(",\"itemId\":").append(item.getId())
+                .append(",\"quantity\":").append(item.getQuantity())
+                .append(",\"geValue\":").append(item.getTotalGePrice())
+                .append(",\"haValue\":").append(item.getTotalHaPrice())
+                .append(",\"owner\":");
+        appendJsonString(line, kill.getKillOwner());
+        line.append(",\"participants\":[");
+
+        final List<String> participants = kill.getParticipants();
+        for (int i = 0; i < participants.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendJsonString(line, participants.get(i));
+        }
+        line.append(']');
+
+        // Same order as the participants
+        final int[] damage = kill.getParticipantDamage();
+        if (damage != null) {
+            line.append(",\"damage\":[");
+            for (int i = 0; i < damage.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append(damage[i]);
+            }
+            line.append(']');
+        }
+
+        final List<BossTrackerItem> extras = item.getExtras();
+        if (!extras.isEmpty()) {
+            line.append(",\"extras\":[");
+            for (int i = 0; i < extras.size(); i++) {
+                final BossTrackerItem extra = extras.get(i);
+                line.append(i > 0 ? ",{\"item\":" : "{\"item\":");
+                appendJsonString(line, extra.getName());
+                line.append(",\"itemId\":").append(extra.getId())
+                        .append(",\"quantity\":").append(extra.getQuantity())
+                        .append(",\"geValue\":").append(extra.getTotalGePrice())
+                        .append(",\"haValue\":").append(extra.getTotalHaPrice())
+                        .append('}');
+            }
+            line.append(']');
+        }
+        line.append('}');
+    }
+
+    private static void appendJsonString(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    private static String bossName(BossKillEvent kill) {
+        final BossDefinition boss = BossRegistry.forNpcId(kill.getBossId());
+        return boss == null ? String.valueOf(kill.getBossId()) : boss.getName();
+    }
+}
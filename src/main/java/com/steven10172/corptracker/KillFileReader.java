@@ -0,0 +1,245 @@
+package com.steven10172.corptracker;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads back a file written by {@link KillExporter}, one kill per call. The format is told apart
+ * by the CSV header on the first line. Kills must come oldest first, as the exporter writes them.
+ *
+ * CSV exports don't carry kill ids, so each row gets an id derived from its own text. Importing
+ * the same file twice gives the same ids.
+ */
+class KillFileReader implements Closeable, KillMerger.Source {
+    private static final Gson GSON = new Gson();
+
+    /**
+     * One line of a JSON lines export
+     */
+    private static final class JsonKill {
+        private String id;
+        private String time;
+        private String boss;
+        private String item;
+        private int itemId;
+        private int quantity;
+        private long geValue;
+        private long haValue;
+        private String owner;
+        private List<String> participants;
+        private int[] damage;
+        private List<JsonItem> extras;
+    }
+
+    /**
+     * An extra item of a drop of several items
+     */
+    private static final class JsonItem {
+        private String item;
+        private int itemId;
+        private int quantity;
+        private long geValue;
+        private long haValue;
+    }
+
+    private final File file;
+    private final PlayerDictionary dictionary;
+    private final BufferedReader reader;
+    private final boolean csv;
+    private String pendingLine;
+    private int lineNumber;
+    private long lastTime = Long.MIN_VALUE;
+
+    KillFileReader(File file, PlayerDictionary dictionary) throws IOException {
+        this.file = file;
+        this.dictionary = dictionary;
+        this.reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+
+        final String first = reader.readLine();
+        this.csv = KillExporter.CSV_HEADER.equals(first) || KillExporter.CSV_HEADER_SINGLE_ITEM.equals(first);
+        this.pendingLine = csv ? null : first;
+        this.lineNumber = 1;
+    }
+
+    /**
+     * @return the next kill, or null at the end of the file
+     */
+    @Override
+    public BossKillEvent next() throws IOException {
+        String line;
+        do {
+            if (pendingLine != null) {
+                line = pendingLine;
+                pendingLine = null;
+            } else {
+                line = reader.readLine();
+                lineNumber++;
+            }
+            if (line == null) {
+                return null;
+            }
+        } while (line.isEmpty());
+
+        final BossKillEvent kill;
+        try {
+            kill = csv ? parseCsv(line) : parseJson(line);
+        } catch (RuntimeException e) {
+            throw new IOException(file.getName() + " line " + lineNumber + ": " + e.getMessage(), e);
+        }
+
+        final long time = kill.getTime().toEpochMilli();
+        if (time < lastTime) {
+            throw new IOException(file.getName() + " line " + lineNumber + ": kills are not ordered by time");
+        }
+        lastTime = time;
+        return kill;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private BossKillEvent parseCsv(String line) {
+        final List<String> fields = splitCsv(line);
+        if (fields.size() != 9 && fields.size() != 10) {
+            throw new IllegalArgumentException("expected 10 fields, found " + fields.size());
+        }
+
+        final List<String> participants = splitList(fields.get(8));
+        final List<BossTrackerItem> extras = new ArrayList<>();
+        if (fields.size() == 10) {
+            for (String extra : splitList(fields.get(9))) {
+                final String[] parts = extra.split(String.valueOf(KillExporter.EXTRA_ITEM_FIELD_SEPARATOR), 5);
+                if (parts.length != 5) {
+                    throw new IllegalArgumentException("bad extra item " + extra);
+                }
+                extras.add(item(Integer.parseInt(parts[0]), parts[4], Integer.parseInt(parts[1]),
+                        Long.parseLong(parts[2]), Long.parseLong(parts[3])));
+            }
+        }
+
+        final UUID id = UUID.nameUUIDFromBytes(line.getBytes(StandardCharsets.UTF_8));
+        final BossTrackerItem item = item(Integer.parseInt(fields.get(3)), fields.get(2), Integer.parseInt(fields.get(4)),
+                Long.parseLong(fields.get(5)), Long.parseLong(fields.get(6))).withExtras(extras);
+        return new BossKillEvent(dictionary, id, bossId(fields.get(1)), item, fields.get(7), participants, parseTime(fields.get(0)));
+    }
+
+    private BossKillEvent parseJson(String line) {
+        final JsonKill json;
+        try {
+            json = GSON.fromJson(line, JsonKill.class);
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("not a kill: " + e.getMessage(), e);
+        }
+        if (json == null || json.time == null || json.item == null || json.owner == null) {
+            throw new IllegalArgumentException("not a kill");
+        }
+
+        final UUID id = json.id == null ? UUID.nameUUIDFromBytes(line.getBytes(StandardCharsets.UTF_8)) : UUID.fromString(json.id);
+        final List<BossTrackerItem> extras = new ArrayList<>();
+        if (json.extras != null) {
+            for (JsonItem extra : json.extras) {
+                if (extra == null || extra.item == null) {
+                    throw new IllegalArgumentException("bad extra item");
+                }
+                extras.add(item(extra.itemId, extra.item, extra.quantity, extra.geValue, extra.haValue));
+            }
+        }
+        final BossTrackerItem item = item(json.itemId, json.item, json.quantity, json.geValue, json.haValue).withExtras(extras);
+        final List<String> participants = json.participants == null ? new ArrayList<>() : json.participants;
+        final BossKillEvent kill = new BossKillEvent(dictionary, id, bossId(json.boss), item, json.owner, participants, parseTime(json.time));
+        return json.damage == null || json.damage.length != participants.size() ? kill : kill.withDamage(participants, json.damage);
+    }
+
+    /**
+     * Split a field holding a list, like the participants
+     */
+    private static List<String> splitList(String joined) {
+        final List<String> values = new ArrayList<>();
+        int start = 0;
+        while (start < joined.length()) {
+            int end = joined.indexOf(KillExporter.PARTICIPANT_SEPARATOR, start);
+            if (end < 0) {
+                end = joined.length();
+            }
+            if (end > start) {
+                values.add(joined.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return values;
+    }
+
+    /**
+     * Exports hold the total values of an item, kills hold the unit prices
+     */
+    private static BossTrackerItem item(int id, String name, int quantity, long geValue, long haValue) {
+        return new BossTrackerItem(id, name, quantity, unitPrice(geValue, quantity), unitPrice(haValue, quantity));
+    }
+
+    /**
+     * Split a CSV line written by the exporter, fields are only quoted when they have to be
+     */
+    private static List<String> splitCsv(String line) {
+        final List<String> fields = new ArrayList<>(9);
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Instant parseTime(String time) {
+        try {
+            return Instant.parse(time);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("bad time " + time, e);
+        }
+    }
+
+    /**
+     * Exports name the boss, or give its id when it wasn't a registered boss
+     */
+    private static int bossId(String boss) {
+        final BossDefinition definition = boss == null ? null : BossRegistry.forName(boss);
+        return definition == null ? Integer.parseInt(boss) : definition.getBossId();
+    }
+
+    private static int unitPrice(long value, int quantity) {
+        return quantity == 0 ? 0 : (int) (value / quantity);
+    }
+}
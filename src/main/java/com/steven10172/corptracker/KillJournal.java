@@ -0,0 +1,610 @@
+package com.steven10172.corptracker;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Append-only binary journal of completed kills.
+ *
+ * The file starts with a magic/version header followed by records of
+ * {@code [int payload length][byte type][payload]}. Kills are written in full, participant
+ * removals and deletions are written as edit records against the kill UUID. Loading replays the
+ * records through a memory-mapped buffer, compaction reads them into the heap so nothing maps the
+ * file it replaces.
+ *
+ * All file access happens on a single background thread, callers only pay for encoding the
+ * record. Once enough records are dead (overwritten by edits or deletions) the file is
+ * rewritten with just the live kills.
+ */
+@Slf4j
+class KillJournal {
+    private static final int MAGIC = 0x434F5250; // "CORP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 5;
+
+    private static final byte RECORD_KILL = 1;
+    private static final byte RECORD_REMOVE_PLAYER = 2;
+    private static final byte RECORD_DELETE_KILL = 3;
+    private static final byte RECORD_DELETE_ALL = 4;
+    // A kill record followed by the damage of each participant
+    private static final byte RECORD_KILL_DAMAGE = 5;
+    // A kill record followed by the extra items of its drop, or by the damage and then the extra items
+    private static final byte RECORD_KILL_EXTRAS = 6;
+    private static final byte RECORD_KILL_DAMAGE_EXTRAS = 7;
+
+    private static final int COMPACT_MIN_DEAD_RECORDS = 1000;
+
+    private final File file;
+    private final PlayerDictionary dictionary;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "corp-event-tracker-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched from the writer thread
+    private DataOutputStream out;
+    private boolean unwritableWarned;
+    private int liveRecords;
+    private int deadRecords;
+    // Dead records to wait for after a failed compaction, before trying again
+    private int retryCompactAt;
+
+    KillJournal(File file, PlayerDictionary dictionary) {
+        this.file = file;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Replay the journal in the background and hand the live kills (oldest first) to the callback.
+     * Appends made after this call are queued behind the load.
+     */
+    void load(Consumer<Collection<BossKillEvent>> callback) {
+        writer.execute(() -> {
+            Collection<BossKillEvent> kills;
+            try {
+                kills = replay(true);
+            } catch (IOException | RuntimeException e) {
+                // Keep the file for a later look, and keep recording new kills in a fresh one
+                log.warn("Unable to read kill journal {}, starting a new one", file, e);
+                moveAside();
+                kills = Collections.emptyList();
+                liveRecords = 0;
+                deadRecords = 0;
+            }
+
+            try {
+                openForAppend();
+            } catch (IOException e) {
+                log.error("Unable to open kill journal {}, new kills will not be saved", file, e);
+            }
+
+            log.info("Loaded {} kills from the journal ({} dead records)", kills.size(), deadRecords);
+            callback.accept(kills);
+            compactIfNeeded();
+        });
+    }
+
+    void appendKill(BossKillEvent kill) {
+        appendKill(kill, false);
+    }
+
+    /**
+     * @param overwrites whether the journal already holds a record of this kill, which is then dead
+     */
+    void appendKill(BossKillEvent kill, boolean overwrites) {
+        append(recordType(kill), encodeKill(kill), overwrites ? 0 : 1, overwrites ? 1 : 0);
+    }
+
+    void appendPlayerRemoval(UUID id, String participant) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(bytes)) {
+            writeUuid(data, id);
+            writeString(data, participant);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // The removal is folded into the kill on compaction
+        append(RECORD_REMOVE_PLAYER, bytes.toByteArray(), 0, 1);
+    }
+
+    void appendKillDeletion(UUID id) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(bytes)) {
+            writeUuid(data, id);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // Both the deletion and the kill it removes are dead
+        append(RECORD_DELETE_KILL, bytes.toByteArray(), -1, 2);
+    }
+
+    void appendDeleteAll() {
+        writer.execute(() -> {
+            write(RECORD_DELETE_ALL, new byte[0]);
+            deadRecords += liveRecords + 1;
+            liveRecords = 0;
+            compactIfNeeded();
+        });
+    }
+
+    /**
+     * Flush pending writes and release the file
+     */
+    void close() {
+        writer.execute(() -> {
+            try {
+                if (out != null) {
+                    out.close();
+                    out = null;
+                }
+            } catch (IOException e) {
+                log.warn("Unable to close kill journal", e);
+            }
+        });
+        writer.shutdown();
+
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void append(byte type, byte[] payload, int liveDelta, int deadDelta) {
+        writer.execute(() -> {
+            write(type, payload);
+            liveRecords = Math.max(0, liveRecords + liveDelta);
+            deadRecords += deadDelta;
+            compactIfNeeded();
+        });
+    }
+
+    private void write(byte type, byte[] payload) {
+        if (out == null) {
+            if (!unwritableWarned) {
+                log.warn("Kill journal {} isn't open, kill changes are not being saved", file);
+                unwritableWarned = true;
+            }
+            return;
+        }
+
+        try {
+            out.writeInt(payload.length);
+            out.writeByte(type);
+            out.write(payload);
+            out.flush();
+        } catch (IOException e) {
+            log.warn("Unable to write to kill journal", e);
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (out == null || deadRecords < COMPACT_MIN_DEAD_RECORDS || deadRecords < liveRecords || deadRecords < retryCompactAt) {
+            return;
+        }
+
+        log.info("Compacting kill journal: {} live, {} dead records", liveRecords, deadRecords);
+        final File compacted = new File(file.getParentFile(), file.getName() + ".compact");
+        final int live = liveRecords;
+        final int dead = deadRecords;
+
+        try {
+            out.close();
+            out = null;
+
+            // Not mapped, Windows refuses to replace a file that still has a mapping open
+            final Collection<BossKillEvent> kills = replay(false);
+            try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(compacted)))) {
+                data.writeInt(MAGIC);
+                data.writeInt(VERSION);
+                for (BossKillEvent kill : kills) {
+                    writeRecord(data, kill);
+                }
+            }
+
+            Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            liveRecords = kills.size();
+            deadRecords = 0;
+            retryCompactAt = 0;
+        } catch (IOException e) {
+            log.warn("Unable to compact kill journal", e);
+            compacted.delete();
+            // The records are all still there, try again once another batch of dead ones piles up
+            liveRecords = live;
+            deadRecords = dead;
+            retryCompactAt = dead + COMPACT_MIN_DEAD_RECORDS;
+        }
+
+        try {
+            openForAppend();
+        } catch (IOException e) {
+            log.warn("Unable to reopen kill journal", e);
+        }
+    }
+
+    /**
+     * Read every record, returning the live kills in the order they were first written.
+     * A torn record at the end of the file (client killed mid-write) is cut off.
+     *
+     * @param mapped whether to map the file, or read it into the heap
+     */
+    private Collection<BossKillEvent> replay(boolean mapped) throws IOException {
+        final Map<UUID, BossKillEvent> kills = new LinkedHashMap<>();
+        liveRecords = 0;
+        deadRecords = 0;
+
+        if (!file.exists() || file.length() < HEADER_SIZE) {
+            return kills.values();
+        }
+
+        long validLength = HEADER_SIZE;
+        final StringPool strings = new StringPool();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+            final ByteBuffer buffer = mapped ? channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()) : readFully(channel);
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a kill journal: " + file);
+            }
+
+            while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                final int length = buffer.getInt();
+                final byte type = buffer.get();
+                if (length < 0 || length > buffer.remaining()) {
+                    break;
+                }
+
+                final ByteBuffer payload = buffer.slice();
+                payload.limit(length);
+                buffer.position(buffer.position() + length);
+
+                try {
+                    applyRecord(kills, type, payload, strings);
+                } catch (BufferUnderflowException e) {
+                    break;
+                }
+                validLength = buffer.position();
+            }
+
+            if (validLength < channel.size()) {
+                log.warn("Dropping {} bytes of torn records from the kill journal", channel.size() - validLength);
+                try {
+                    channel.truncate(validLength);
+                } catch (IOException e) {
+                    // Some platforms refuse to truncate a file that is still mapped
+                    log.warn("Unable to truncate kill journal", e);
+                }
+            }
+        }
+
+        liveRecords = kills.size();
+        return new ArrayList<>(kills.values());
+    }
+
+    private static ByteBuffer readFully(FileChannel channel) throws IOException {
+        if (channel.size() > Integer.MAX_VALUE) {
+            throw new IOException("Kill journal too large to read: " + channel.size() + " bytes");
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void applyRecord(Map<UUID, BossKillEvent> kills, byte type, ByteBuffer payload, StringPool strings) {
+        switch (type) {
+            case RECORD_KILL:
+            case RECORD_KILL_DAMAGE:
+            case RECORD_KILL_EXTRAS:
+            case RECORD_KILL_DAMAGE_EXTRAS: {
+                BossKillEvent kill = decodeKill(dictionary, payload, strings, type);
+                if (kills.put(kill.getUuid(), kill) != null) {
+                    deadRecords++;
+                }
+                break;
+            }
+            case RECORD_REMOVE_PLAYER: {
+                BossKillEvent kill = kills.get(readUuid(payload));
+                String participant = strings.read(payload);
+                if (kill != null) {
+                    kills.put(kill.getUuid(), kill.withoutParticipant(participant));
+                }
+                deadRecords++;
+                break;
+            }
+            case RECORD_DELETE_KILL:
+                if (kills.remove(readUuid(payload)) != null) {
+                    deadRecords++;
+                }
+                deadRecords++;
+                break;
+            case RECORD_DELETE_ALL:
+                deadRecords += kills.size() + 1;
+                kills.clear();
+                break;
+            default:
+                log.warn("Skipping unknown kill journal record type {}", type);
+                deadRecords++;
+        }
+    }
+
+    /**
+     * Rename an unreadable journal out of the way, appends go to the same file otherwise
+     */
+    private void moveAside() {
+        final File aside = new File(file.getPath() + ".unreadable-" + System.currentTimeMillis());
+        if (file.exists() && !file.renameTo(aside)) {
+            log.error("Unable to move unreadable kill journal {} aside, new kills are appended to it", file);
+        } else if (aside.exists()) {
+            log.warn("Moved unreadable kill journal to {}", aside);
+        }
+    }
+
+    private void openForAppend() throws IOException {
+        final File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Unable to create " + parent);
+        }
+
+        final boolean newFile = !file.exists() || file.length() < HEADER_SIZE;
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, !newFile)));
+        if (newFile) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.flush();
+        }
+    }
+
+    /**
+     * Write a kill in the journal's record format, for other files holding kills
+     */
+    static void writeRecord(DataOutputStream data, BossKillEvent kill) throws IOException {
+        final byte[] payload = encodeKill(kill);
+        data.writeInt(payload.length);
+        data.writeByte(recordType(kill));
+        data.write(payload);
+    }
+
+    /**
+     * Read back every kill written by {@link #writeRecord}
+     */
+    static List<BossKillEvent> readRecords(PlayerDictionary dictionary, ByteBuffer buffer) throws IOException {
+        final List<BossKillEvent> kills = new ArrayList<>();
+        final StringPool strings = new StringPool();
+        try {
+            while (buffer.hasRemaining()) {
+                final int length = buffer.getInt();
+                final byte type = buffer.get();
+                if (!isKillRecord(type)) {
+                    throw new IOException("Unexpected record type " + type);
+                }
+
+                final ByteBuffer payload = buffer.slice();
+                payload.limit(length);
+                buffer.position(buffer.position() + length);
+                kills.add(decodeKill(dictionary, payload, strings, type));
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Truncated kill record", e);
+        }
+        return kills;
+    }
+
+    private static byte[] encodeKill(BossKillEvent kill) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream data = new DataOutputStream(bytes)) {
+            writeUuid(data, kill.getUuid());
+            data.writeInt(kill.getBossId());
+            data.writeLong(kill.getTime().toEpochMilli());
+
+            final BossTrackerItem item = kill.getItem();
+            data.writeInt(item.getId());
+            writeString(data, item.getName());
+            data.writeInt(item.getQuantity());
+            data.writeInt(item.getGePrice());
+            data.writeInt(item.getHaPrice());
+
+            writeString(data, kill.getKillOwner());
+            final List<String> participants = kill.getParticipants();
+            data.writeShort(participants.size());
+            for (String participant : participants) {
+                writeString(data, participant);
+            }
+
+            // Same order as the names above
+            final int[] damage = kill.getParticipantDamage();
+            if (damage != null) {
+                for (int participantDamage : damage) {
+                    data.writeInt(participantDamage);
+                }
+            }
+
+            final List<BossTrackerItem> extras = item.getExtras();
+            if (!extras.isEmpty()) {
+                data.writeShort(extras.size());
+                for (BossTrackerItem extra : extras) {
+                    data.writeInt(extra.getId());
+                    writeString(data, extra.getName());
+                    data.writeInt(extra.getQuantity());
+                    data.writeInt(extra.getGePrice());
+                    data.writeInt(extra.getHaPrice());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static boolean isKillRecord(byte type) {
+        return type == RECORD_KILL || type == RECORD_KILL_DAMAGE || type == RECORD_KILL_EXTRAS || type == RECORD_KILL_DAMAGE_EXTRAS;
+    }
+
+    private static byte recordType(BossKillEvent kill) {
+        if (kill.getItem().getExtras().isEmpty()) {
+            return kill.hasDamage() ? RECORD_KILL_DAMAGE : RECORD_KILL;
+        }
+        return kill.hasDamage() ? RECORD_KILL_DAMAGE_EXTRAS : RECORD_KILL_EXTRAS;
+    }
+
+    private static BossKillEvent decodeKill(PlayerDictionary dictionary, ByteBuffer payload, StringPool strings, byte type) {
+        final UUID id = readUuid(payload);
+        final int bossId = payload.getInt();
+        final Instant time = Instant.ofEpochMilli(payload.getLong());
+
+        BossTrackerItem item = new BossTrackerItem(payload.getInt(), strings.read(payload), payload.getInt(), payload.getInt(), payload.getInt());
+
+        final String killOwner = strings.read(payload);
+        final int participantCount = payload.getShort() & 0xFFFF;
+        final List<String> participants = new ArrayList<>(participantCount);
+        for (int i = 0; i < participantCount; i++) {
+            participants.add(strings.read(payload));
+        }
+
+        int[] damage = null;
+        if (type == RECORD_KILL_DAMAGE || type == RECORD_KILL_DAMAGE_EXTRAS) {
+            damage = new int[participantCount];
+            for (int i = 0; i < participantCount; i++) {
+                damage[i] = payload.getInt();
+            }
+        }
+
+        if (type == RECORD_KILL_EXTRAS || type == RECORD_KILL_DAMAGE_EXTRAS) {
+            final int extraCount = payload.getShort() & 0xFFFF;
+            final List<BossTrackerItem> extras = new ArrayList<>(extraCount);
+            for (int i = 0; i < extraCount; i++) {
+                extras.add(new BossTrackerItem(payload.getInt(), strings.read(payload), payload.getInt(), payload.getInt(), payload.getInt()));
+            }
+            item = item.withExtras(extras);
+        }
+
+        final BossKillEvent kill = new BossKillEvent(dictionary, id, bossId, item, killOwner, participants, time);
+        return damage == null ? kill : kill.withDamage(participants, damage);
+    }
+
+    private static void writeUuid(DataOutputStream data, UUID id) throws IOException {
+        data.writeLong(id.getMostSignificantBits());
+        data.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeShort(bytes.length);
+        data.write(bytes);
+    }
+
+    /**
+     * Decodes strings straight from the mapped buffer, handing back the same instance for repeated
+     * names. The same players and items are in almost every record, so this skips most of the
+     * decoding and allocation on reload.
+     */
+    private static final class StringPool {
+        private byte[][] keys = new byte[256][];
+        private String[] values = new String[256];
+        private int size;
+
+        String read(ByteBuffer buffer) {
+            final int length = buffer.getShort() & 0xFFFF;
+            final int start = buffer.position();
+
+            int hash = length;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + buffer.get(start + i);
+            }
+
+            final int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (matches(keys[slot], buffer, start, length)) {
+                    buffer.position(start + length);
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            final byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            final String value = new String(bytes, StandardCharsets.UTF_8);
+
+            keys[slot] = bytes;
+            values[slot] = value;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+            return value;
+        }
+
+        private static boolean matches(byte[] key, ByteBuffer buffer, int start, int length) {
+            if (key.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (key[i] != buffer.get(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void grow() {
+            final byte[][] oldKeys = keys;
+            final String[] oldValues = values;
+            keys = new byte[oldKeys.length * 2][];
+            values = new String[oldKeys.length * 2];
+
+            final int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null) {
+                    continue;
+                }
+                int hash = oldKeys[i].length;
+                for (byte b : oldKeys[i]) {
+                    hash = 31 * hash + b;
+                }
+                int slot = hash & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.steven10172.corptracker;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.GameState;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The kill lifecycle of every registered boss: a boss spawns, players show up attacking it, a
+ * drop message completes the kill, or the kill expires when nothing happened before the boss
+ * could have respawned.
+ *
+ * Driven only by {@link KillEvent}s, its clock and its timers, so the live plugin and a
+ * {@link KillReplay} behave the same. Not thread safe, events and timers must all arrive on one
+ * thread (the client thread when live).
+ */
+@Slf4j
+class KillLifecycle {
+    private static final int BOSS_DELETE_IN_PROG_KILL_MARGIN_MS = 2 * 1000; // Expire a bit before the boss respawns
+
+    /**
+     * Receives the kills the lifecycle produces
+     */
+    interface Listener {
+        /**
+         * A kill started, changed or completed
+         */
+        void killUpdated(BossKillEvent kill);
+
+        /**
+         * An in-progress kill expired without a drop
+         */
+        void killExpired(UUID id);
+    }
+
+    private final DropMessageParser dropMessageParser = new DropMessageParser();
+    // Trackers indexed by NPC id, every id of a boss points at the same tracker
+    private final BossTracker[] trackersByNpcId = new BossTracker[BossRegistry.MAX_NPC_ID + 1];
+    private final List<BossTracker> trackers = new ArrayList<>();
+    // Trackers whose boss is currently spawned
+    private final List<BossTracker> spawnedTrackers = new ArrayList<>();
+    private final PlayerDictionary dictionary;
+    private final Clock clock;
+    private final KillTimers timers;
+    private final BiFunction<String, Integer, BossTrackerItem> itemResolver;
+    private final BooleanSupplier showInProgress;
+    private final Supplier<UUID> idGenerator;
+    private final Listener listener;
+
+    // The boss most recently fought, drop messages don't say which boss they are for
+    private BossTracker lastActiveTracker;
+    private GameState lastGameState;
+
+    KillLifecycle(PlayerDictionary dictionary, Clock clock, KillTimers timers, BiFunction<String, Integer, BossTrackerItem> itemResolver,
+                  BooleanSupplier showInProgress, Supplier<UUID> idGenerator, Listener listener) {
+        this.dictionary = dictionary;
+        this.clock = clock;
+        this.timers = timers;
+        this.itemResolver = itemResolver;
+        this.showInProgress = showInProgress;
+        this.idGenerator = idGenerator;
+        this.listener = listener;
+
+        for (BossDefinition boss : BossRegistry.BOSSES) {
+            BossTracker tracker = new BossTracker(boss);
+            this.trackers.add(tracker);
+            for (int npcId : boss.getNpcIds()) {
+                this.trackersByNpcId[npcId] = tracker;
+            }
+        }
+    }
+
+    void handle(KillEvent event) {
+        event.dispatch(this);
+    }
+
+    boolean isTracked(int npcId) {
+        return this.getTracker(npcId) != null;
+    }
+
+    boolean hasSpawnedBoss() {
+        return !this.spawnedTrackers.isEmpty();
+    }
+
+    /**
+     * @return true if the next tick will scan for participants, so the tick needs its interactions
+     */
+    boolean isScanDue() {
+        for (BossTracker tracker : this.spawnedTrackers) {
+            if (tracker.getParticipantScanner().isDue()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forget every boss and kill, pending expiry timers are cancelled
+     */
+    void reset() {
+        for (BossTracker tracker : this.trackers) {
+            tracker.setNpcIndex(-1);
+            tracker.setKillId(null);
+            tracker.getParticipants().clear();
+            tracker.getDamage().clear();
+            this.clearBossExpireTimer(tracker);
+        }
+        this.spawnedTrackers.clear();
+        this.lastActiveTracker = null;
+        this.lastGameState = null;
+    }
+
+    void onNpcSpawned(KillEvent.NpcSpawned event) {
+        BossTracker tracker = this.getTracker(event.getNpcId());
+
+        if (tracker != null) {
+            log.info("{} spawn: {}", tracker.getBoss().getName(), event.getNpcIndex());
+            if (tracker.getNpcIndex() < 0) {
+                this.spawnedTrackers.add(tracker);
+            }
+            tracker.setNpcIndex(event.getNpcIndex());
+
+            // If the last kill never expired re-use it
+            this.clearBossExpireTimer(tracker);
+
+            // This is a new kill
+            this.createAndLogNewKillIfNotPresent(tracker);
+
+            // Look for participants on the next tick
+            tracker.getParticipantScanner().reset();
+        }
+    }
+
+    void onTick(KillEvent.Tick event) {
+        for (BossTracker tracker : this.spawnedTrackers) {
+            if (!tracker.getParticipantScanner().tick()) {
+                continue;
+            }
+
+            List<String> newParticipants = tracker.getParticipantScanner().scan(event.getInteractions(), tracker.getNpcIndex(), tracker.getParticipants());
+            if (!newParticipants.isEmpty()) {
+                log.info("Found participants: {}", newParticipants);
+                this.createAndLogNewKillIfNotPresent(tracker);
+            }
+        }
+    }
+
+    void onNpcDespawned(KillEvent.NpcDespawned event) {
+        BossTracker tracker = this.getTracker(event.getNpcId());
+
+        if (tracker != null && event.getNpcIndex() == tracker.getNpcIndex()) {
+            log.info("{} despawn: {}", tracker.getBoss().getName(), event.getNpcIndex());
+
+            tracker.setNpcIndex(-1);
+            this.spawnedTrackers.remove(tracker);
+
+            if (event.isDead()) {
+                log.info("NPC Dead");
+                // Clear the kill instantly, but prevent the possibility of the
+                // kill message not being first
+                this.clearNpcActiveKill(tracker, 1000); // Clear the kill "instantly"
+            } else {
+                this.clearNpcActiveKill(tracker);
+            }
+        }
+    }
+
+    void onInteracting(KillEvent.Interacting event) {
+        BossTracker tracker = this.getTracker(event.getNpcId());
+        if (tracker == null || event.getNpcIndex() != tracker.getNpcIndex()) {
+            return;
+        }
+
+        log.info(String.format("Adding: %s", event.getPlayer()));
+
+        tracker.getParticipants().add(event.getPlayer());
+        tracker.getParticipantScanner().reset();
+        this.createAndLogNewKillIfNotPresent(tracker);
+    }
+
+    /**
+     * Called for every hit on a tracked boss, must not allocate once the player is a known participant
+     */
+    void onDamage(int npcIndex, int npcId, int playerSlot, String player, int amount) {
+        BossTracker tracker = this.getTracker(npcId);
+        if (tracker == null || npcIndex != tracker.getNpcIndex()) {
+            return;
+        }
+
+        this.lastActiveTracker = tracker;
+        if (tracker.getKillId() != null && tracker.getParticipants().contains(player)) {
+            tracker.getDamage().add(playerSlot, player, amount);
+            return;
+        }
+
+        // A new kill or a new participant, dealing damage counts as taking part
+        this.createNewKillIfNotPresent(tracker);
+        tracker.getParticipants().add(player);
+        tracker.getDamage().add(playerSlot, player, amount);
+        this.logInProgressKill(tracker);
+    }
+
+    void onChatMessage(KillEvent.ChatMessage event) {
+        // Example: <col=005f00>Prized received a drop: 175 x Onyx bolts (e)</col>
+        // Example: <col=ef1020>Valuable drop: 250 x Runite bolts (95,250 coins)</col>
+        DropMessageParser.Drop drop = dropMessageParser.parse(event.getMessage());
+        if (drop == null) {
+            return;
+        }
+
+        // Valuable drop messages are only ever shown for our own drops
+        String player = drop.getPlayer() == null ? event.getLocalPlayer() : drop.getPlayer();
+
+        // The drop belongs to whichever boss was fought last
+        BossTracker tracker = this.lastActiveTracker == null ? this.getTracker(BossRegistry.CORPOREAL_BEAST.getBossId()) : this.lastActiveTracker;
+
+        // Make sure the person who got the kill is in the list
+        tracker.getParticipants().add(player);
+
+        this.logAndClearKill(tracker, player, drop.getItems());
+    }
+
+    void onGameStateChanged(KillEvent.GameStateChanged event) {
+        GameState gameState = event.getGameState();
+        if (gameState != this.lastGameState
+                && (gameState == GameState.LOGGED_IN || gameState == GameState.LOGIN_SCREEN || gameState == GameState.HOPPING)) {
+            // Clear exiting state
+            log.info("Game State Changed: " + gameState.toString());
+            this.lastGameState = gameState;
+            for (BossTracker tracker : this.trackers) {
+                this.clearNpcActiveKill(tracker, 0);
+            }
+        }
+    }
+
+    private BossTracker getTracker(int npcId) {
+        return npcId >= 0 && npcId < this.trackersByNpcId.length ? this.trackersByNpcId[npcId] : null;
+    }
+
+    private void createAndLogNewKillIfNotPresent(BossTracker tracker) {
+        this.createNewKillIfNotPresent(tracker);
+        this.lastActiveTracker = tracker;
+        this.logInProgressKill(tracker);
+    }
+
+    private void createNewKillIfNotPresent(BossTracker tracker) {
+        if (tracker.getKillId() == null) {
+            log.info("Generating a new UUID");
+            tracker.setKillId(this.idGenerator.get());
+            tracker.getParticipants().clear(); // Clear existing as kill wasn't active
+            tracker.getDamage().clear();
+        }
+    }
+
+    private void clearNpcActiveKill(BossTracker tracker) {
+        this.clearNpcActiveKill(tracker, tracker.getBoss().getRespawnMillis() - BOSS_DELETE_IN_PROG_KILL_MARGIN_MS);
+    }
+
+    private void clearNpcActiveKill(BossTracker tracker, int waitMs) {
+        // Kill the current kill if nothing happened before the boss respawns
+        this.clearBossExpireTimer(tracker);
+
+        if (tracker.getKillId() == null) {
+            // Make sure all participants are removed
+            tracker.getParticipants().clear();
+            tracker.getDamage().clear();
+        } else {
+            log.info("Setting up boss expire timer");
+            // Kill in progress still. Set a timer to clean up this kill after X seconds
+            tracker.setExpireTimer(this.timers.schedule(() -> {
+                log.info("Clearing participants");
+                tracker.getParticipants().clear();
+                tracker.getDamage().clear();
+                UUID curKillId = tracker.getKillId(); // Save for later
+                tracker.setKillId(null);
+                tracker.setExpireTimer(null);
+
+                this.listener.killExpired(curKillId);
+            }, waitMs));
+        }
+    }
+
+    private void clearBossExpireTimer(BossTracker tracker) {
+        if (tracker.getExpireTimer() != null) {
+            log.info("Cancelling expiration timer");
+            tracker.getExpireTimer().cancel();
+            tracker.setExpireTimer(null);
+        }
+    }
+
+    private void logInProgressKill(BossTracker tracker) {
+        if (!this.showInProgress.getAsBoolean()) {
+            return;
+        }
+        BossKillEvent bossKill = generateBossKill(tracker, "IN-PROGRESS", BossTrackerItem.generateFakeItem(), true);
+        log.info("In Progress: " + bossKill.getUuid().toString());
+
+        this.listener.killUpdated(bossKill);
+    }
+
+    /**
+     * One drop is one kill, whatever number of items it holds. The first item is the kill's item,
+     * the rest ride along as its extras.
+     */
+    private void logAndClearKill(BossTracker tracker, String killOwner, List<DropMessageParser.DroppedItem> items) {
+        if (tracker.getKillId() == null) {
+            // The drop showed up without a tracked kill (e.g. the boss was never seen spawning)
+            tracker.setKillId(this.idGenerator.get());
+        }
+
+        final List<BossTrackerItem> extras = new ArrayList<>(items.size() - 1);
+        for (int i = 1; i < items.size(); i++) {
+            extras.add(this.itemResolver.apply(items.get(i).getName(), items.get(i).getQuantity()));
+        }
+        final DropMessageParser.DroppedItem first = items.get(0);
+        final BossTrackerItem droppedItem = this.itemResolver.apply(first.getName(), first.getQuantity()).withExtras(extras);
+        final BossKillEvent bossKill = this.generateBossKill(tracker, killOwner, droppedItem, false);
+        log.info("Kill Completed: " + bossKill.getUuid().toString());
+        this.listener.killUpdated(bossKill);
+
+        tracker.setKillId(null);
+        tracker.getDamage().clear();
+        this.clearBossExpireTimer(tracker);
+    }
+
+    private BossKillEvent generateBossKill(BossTracker tracker, String killOwner, BossTrackerItem droppedItem, boolean inProgress) {
+        // The participant set keeps changing on this thread, the snapshot gets its own encoded copy
+        final int[] participantIds = this.dictionary.encode(tracker.getParticipants());
+        final BossKillEvent kill = new BossKillEvent(this.dictionary, tracker.getKillId(), tracker.getBoss().getBossId(), droppedItem, killOwner,
+                participantIds, Instant.now(this.clock), inProgress);
+        return tracker.getDamage().applyTo(kill);
+    }
+}
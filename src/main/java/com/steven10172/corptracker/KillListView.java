@@ -0,0 +1,29 @@
+package com.steven10172.corptracker;
+
+import javax.swing.JComponent;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Renders the kill history rows underneath the overall header.
+ */
+interface KillListView {
+    JComponent getComponent();
+
+    /**
+     * Replace every row, kills must be ordered newest first
+     */
+    void setKills(List<BossKillEvent> kills, String searchString);
+
+    /**
+     * Insert a row for the kill or refresh the existing one
+     */
+    void updateKill(BossKillEvent kill, String searchString);
+
+    void removeKill(UUID id);
+
+    /**
+     * Called by a {@link KillTrackerBox} after the user collapsed or expanded it
+     */
+    void killCollapseChanged(UUID id, boolean collapsed);
+}
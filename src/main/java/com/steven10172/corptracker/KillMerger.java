@@ -0,0 +1,225 @@
+package com.steven10172.corptracker;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Merges the local kill history with kill files from other players in a single pass.
+ *
+ * Every source hands out kills oldest first, so the sources are merged on kill time through a
+ * heap holding one kill per source. Only the kills within the match window of the newest kill
+ * are held on to. A kill from another source matches one of those when it has the same id, or
+ * the same boss, drop and owner. Matched kills become one kill with every participant of both.
+ *
+ * Only kills that are new to the local history, or that gained participants, are handed on.
+ */
+class KillMerger {
+    interface Source {
+        /**
+         * @return the next kill, never older than the one before it, or null when done
+         */
+        BossKillEvent next() throws IOException;
+    }
+
+    @Getter
+    static final class Stats {
+        private int imported;
+        private int merged;
+        private int added;
+        private int updated;
+
+        @Override
+        public String toString() {
+            return String.format("%d kills imported, %d duplicates merged, %d added, %d updated", imported, merged, added, updated);
+        }
+    }
+
+    private static final class Head {
+        private final Source source;
+        private final int index;
+        private BossKillEvent kill;
+
+        private Head(Source source, int index) {
+            this.source = source;
+            this.index = index;
+        }
+    }
+
+    private static final class Pending {
+        private final BitSet sources = new BitSet();
+        private BossKillEvent kill;
+        private boolean local;
+        private boolean changed;
+
+        private Pending(BossKillEvent kill, int source) {
+            this.kill = kill;
+            this.local = source == LOCAL;
+            this.changed = !local;
+            this.sources.set(source);
+        }
+    }
+
+    private static final int LOCAL = 0;
+
+    private final long windowMillis;
+
+    KillMerger(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * The finished kills of a snapshot, oldest first
+     */
+    static Source of(KillStore.Snapshot snapshot) {
+        final int[] order = snapshot.getNewestFirst();
+        return new Source() {
+            private int next = order.length - 1;
+
+            @Override
+            public BossKillEvent next() {
+                while (next >= 0) {
+                    final int row = order[next--];
+                    if (!snapshot.isInProgress(row)) {
+                        return snapshot.getKill(row);
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Two sources as one, oldest first
+     */
+    static Source interleave(Source first, Source second) {
+        return new Source() {
+            private BossKillEvent nextFirst;
+            private BossKillEvent nextSecond;
+            private boolean started;
+
+            @Override
+            public BossKillEvent next() throws IOException {
+                if (!started) {
+                    nextFirst = first.next();
+                    nextSecond = second.next();
+                    started = true;
+                }
+
+                final BossKillEvent kill;
+                if (nextSecond == null || (nextFirst != null && !nextFirst.getTime().isAfter(nextSecond.getTime()))) {
+                    kill = nextFirst;
+                    nextFirst = kill == null ? null : first.next();
+                } else {
+                    kill = nextSecond;
+                    nextSecond = second.next();
+                }
+                return kill;
+            }
+        };
+    }
+
+    /**
+     * @param changes told about every kill to add or replace in the local history
+     */
+    Stats merge(Source local, List<? extends Source> imports, Consumer<BossKillEvent> changes) throws IOException {
+        final Stats stats = new Stats();
+        final PriorityQueue<Head> heads = new PriorityQueue<>(Comparator
+                .<Head>comparingLong(head -> head.kill.getTime().toEpochMilli())
+                .thenComparingInt(head -> head.index));
+        final Deque<Pending> window = new ArrayDeque<>();
+
+        advance(new Head(local, LOCAL), heads, stats);
+        for (int i = 0; i < imports.size(); i++) {
+            advance(new Head(imports.get(i), LOCAL + 1 + i), heads, stats);
+        }
+
+        while (!heads.isEmpty()) {
+            final Head head = heads.poll();
+            final BossKillEvent kill = head.kill;
+            final long time = kill.getTime().toEpochMilli();
+
+            while (!window.isEmpty() && window.peekFirst().kill.getTime().toEpochMilli() < time - windowMillis) {
+                emit(window.pollFirst(), changes, stats);
+            }
+
+            final Pending match = findMatch(window, kill, head.index);
+            if (match == null) {
+                window.addLast(new Pending(kill, head.index));
+            } else if (head.index == LOCAL) {
+                // An import got there first, the local kill keeps its own id and only changes if it gains players
+                final BossKillEvent merged = kill.withParticipantsOf(match.kill);
+                match.kill = merged;
+                match.local = true;
+                match.changed = merged != kill;
+                match.sources.set(head.index);
+                stats.merged++;
+            } else {
+                final BossKillEvent merged = match.kill.withParticipantsOf(kill);
+                if (merged != match.kill) {
+                    match.kill = merged;
+                    match.changed = true;
+                }
+                match.sources.set(head.index);
+                stats.merged++;
+            }
+
+            advance(head, heads, stats);
+        }
+
+        while (!window.isEmpty()) {
+            emit(window.pollFirst(), changes, stats);
+        }
+        return stats;
+    }
+
+    private static Pending findMatch(Deque<Pending> window, BossKillEvent kill, int source) {
+        for (Iterator<Pending> it = window.descendingIterator(); it.hasNext(); ) {
+            final Pending pending = it.next();
+            if (!pending.sources.get(source) && isSameKill(pending.kill, kill)) {
+                return pending;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSameKill(BossKillEvent a, BossKillEvent b) {
+        if (a.getUuid().equals(b.getUuid())) {
+            return true;
+        }
+        return a.getBossId() == b.getBossId()
+                && a.getItem().getQuantity() == b.getItem().getQuantity()
+                && a.getItem().getName().equalsIgnoreCase(b.getItem().getName())
+                && a.getKillOwner().equalsIgnoreCase(b.getKillOwner());
+    }
+
+    private static void advance(Head head, PriorityQueue<Head> heads, Stats stats) throws IOException {
+        head.kill = head.source.next();
+        if (head.kill != null) {
+            if (head.index != LOCAL) {
+                stats.imported++;
+            }
+            heads.add(head);
+        }
+    }
+
+    private static void emit(Pending pending, Consumer<BossKillEvent> changes, Stats stats) {
+        if (!pending.changed) {
+            return;
+        }
+        if (pending.local) {
+            stats.updated++;
+        } else {
+            stats.added++;
+        }
+        changes.accept(pending.kill);
+    }
+}
@@ -0,0 +1,133 @@
+package com.steven10172.corptracker;
+
+import javax.swing.Timer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hands the kills produced on the client thread to the panel on the EDT.
+ *
+ * The client thread owns the kill lifecycle and the EDT owns the kill history. Nothing mutable
+ * is shared between them, only immutable {@link BossKillEvent} snapshots and kill ids travel
+ * through a lock-free queue.
+ *
+ * The first update of a burst starts a one frame timer. When it fires the queued updates are
+ * merged by kill id, only the latest state of each kill reaches the panel, and they are all
+ * applied in the one EDT event so the panel lays out once per burst.
+ */
+class KillPublisher implements KillLifecycle.Listener {
+    private static final int FRAME_MILLIS = 20;
+
+    private final Consumer<BossKillEvent> updateKill;
+    private final Consumer<UUID> removeKill;
+    private final ConcurrentLinkedQueue<Update> updates = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Timer flushTimer;
+    private final AtomicLong received = new AtomicLong();
+    // Only touched on the EDT
+    private long applied;
+    private long coalesced;
+    private long flushes;
+
+    private static final class Update {
+        private final UUID id;
+        // Null when the kill expired
+        private final BossKillEvent kill;
+
+        private Update(UUID id, BossKillEvent kill) {
+            this.id = id;
+            this.kill = kill;
+        }
+    }
+
+    /**
+     * @param updateKill applies a kill on the EDT
+     * @param removeKill removes an expired kill on the EDT
+     */
+    KillPublisher(Consumer<BossKillEvent> updateKill, Consumer<UUID> removeKill) {
+        this.updateKill = updateKill;
+        this.removeKill = removeKill;
+        this.flushTimer = new Timer(FRAME_MILLIS, e -> flush());
+        this.flushTimer.setRepeats(false);
+        // A coalescing timer drops its event if restarted while the previous flush is still running
+        this.flushTimer.setCoalesce(false);
+    }
+
+    @Override
+    public void killUpdated(BossKillEvent kill) {
+        publish(new Update(kill.getUuid(), kill));
+    }
+
+    @Override
+    public void killExpired(UUID id) {
+        publish(new Update(id, null));
+    }
+
+    private void publish(Update update) {
+        received.incrementAndGet();
+        updates.offer(update);
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushTimer.restart();
+        }
+    }
+
+    private void flush() {
+        // Clear the flag first, anything offered from here on is either flushed now or schedules another flush
+        flushScheduled.set(false);
+
+        final Map<UUID, Update> latest = new LinkedHashMap<>();
+        int polled = 0;
+        Update update;
+        while ((update = updates.poll()) != null) {
+            latest.put(update.id, update);
+            polled++;
+        }
+
+        for (Update merged : latest.values()) {
+            if (merged.kill != null) {
+                updateKill.accept(merged.kill);
+            } else {
+                removeKill.accept(merged.id);
+            }
+        }
+
+        applied += latest.size();
+        coalesced += polled - latest.size();
+        flushes++;
+    }
+
+    /**
+     * Updates handed over by the lifecycle
+     */
+    long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * Updates that reached the panel after merging, EDT only
+     */
+    long getApplied() {
+        return applied;
+    }
+
+    /**
+     * Updates dropped because a newer one for the same kill arrived within the frame, EDT only
+     */
+    long getCoalesced() {
+        return coalesced;
+    }
+
+    long getFlushes() {
+        return flushes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("received=%d, applied=%d, coalesced=%d, flushes=%d", getReceived(), applied, coalesced, flushes);
+    }
+}
@@ -0,0 +1,63 @@
+package com.steven10172.corptracker;
+
+import lombok.AllArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Time ranges offered by the overall header. Custom ranges are picked by the panel, they have
+ * no bounds of their own.
+ */
+@AllArgsConstructor
+enum KillRange {
+    ALL_TIME("All time"),
+    TODAY("Today"),
+    LAST_24_HOURS("Last 24 hours"),
+    LAST_7_DAYS("Last 7 days"),
+    LAST_30_DAYS("Last 30 days"),
+    CUSTOM("Custom...");
+
+    private final String name;
+
+    /**
+     * Start of the range as of now, null for no lower bound
+     */
+    Instant getStart(Instant now, ZoneId zone) {
+        switch (this) {
+            case TODAY:
+                return now.atZone(zone).toLocalDate().atStartOfDay(zone).toInstant();
+            case LAST_24_HOURS:
+                return now.minus(Duration.ofHours(24));
+            case LAST_7_DAYS:
+                return now.minus(Duration.ofDays(7));
+            case LAST_30_DAYS:
+                return now.minus(Duration.ofDays(30));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * End of the range as of now (exclusive), null for no upper bound
+     */
+    Instant getEnd(Instant now, ZoneId zone) {
+        switch (this) {
+            case TODAY:
+                return now.atZone(zone).toLocalDate().plusDays(1).atStartOfDay(zone).toInstant();
+            case LAST_24_HOURS:
+            case LAST_7_DAYS:
+            case LAST_30_DAYS:
+                // The kill logged this very millisecond is in range
+                return now.plusMillis(1);
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,64 @@
+package com.steven10172.corptracker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Drives a {@link KillLifecycle} from recorded events on a virtual clock, without a client.
+ * Expiry timers fire as the clock passes them, so hours of events replay as fast as they can be
+ * read. Kill ids come from a seeded generator so the same log always produces the same kills.
+ */
+class KillReplay {
+    private final VirtualKillTimers timers = new VirtualKillTimers();
+    private final KillLifecycle lifecycle;
+    private long events;
+
+    /**
+     * @param itemResolver builds the dropped items, recorded logs don't hold prices
+     */
+    KillReplay(long seed, PlayerDictionary dictionary, boolean showInProgress, BiFunction<String, Integer, BossTrackerItem> itemResolver,
+               KillLifecycle.Listener listener) {
+        final Random random = new Random(seed);
+        this.lifecycle = new KillLifecycle(dictionary, timers.getClock(), timers, itemResolver, () -> showInProgress,
+                () -> new UUID(random.nextLong(), random.nextLong()), listener);
+    }
+
+    /**
+     * Unknown items without a value, for when only the kills and participants matter
+     */
+    static BossTrackerItem unpricedItem(String name, int quantity) {
+        return new BossTrackerItem(-1, name, quantity, 0, 0);
+    }
+
+    void play(KillEvent event) {
+        timers.advanceTo(event.getTime());
+        lifecycle.handle(event);
+        events++;
+    }
+
+    /**
+     * Play every event of a {@link KillEventLog} recording, blank lines are skipped
+     */
+    void play(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isEmpty()) {
+                play(KillEventLog.parse(line));
+            }
+        }
+    }
+
+    /**
+     * Let every pending expiry run, as if the session had been left idle
+     */
+    void finish() {
+        timers.runAll();
+    }
+
+    long getEvents() {
+        return events;
+    }
+}
@@ -0,0 +1,265 @@
+package com.steven10172.corptracker;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Running totals of a set of kills, rolled up per hour and per day of kill time so the value of
+ * any time range is a sum over a handful of buckets instead of a scan over the kills.
+ *
+ * Buckets are aligned to UTC hours and days. The drops of the kills added one at a time are also
+ * kept by hour, as plain columns rather than kill objects, so a range starting or ending part way
+ * through an hour counts that hour's kills one by one. Archived kills only leave their totals
+ * behind, an hour holding any is counted whole when it is cut by the range.
+ */
+class KillRollups {
+    private static final long HOUR_MILLIS = 60 * 60 * 1000;
+    private static final int HOURS_PER_DAY = 24;
+
+    private final KillTotals total = new KillTotals();
+    private final Map<Long, KillTotals> hourly = new HashMap<>();
+    private final Map<Long, KillTotals> daily = new HashMap<>();
+    // The drops of each hour that were added one at a time and not archived since
+    private final Map<Long, HourDrops> hourDrops = new HashMap<>();
+
+    /**
+     * The drops of one hour's kills, a few dozen at most
+     */
+    private static final class HourDrops {
+        private static final int INITIAL_CAPACITY = 4;
+
+        private long[] times = new long[INITIAL_CAPACITY];
+        private int[] itemIds = new int[INITIAL_CAPACITY];
+        private int[] quantities = new int[INITIAL_CAPACITY];
+        private int[] gePrices = new int[INITIAL_CAPACITY];
+        private int[] haPrices = new int[INITIAL_CAPACITY];
+        @SuppressWarnings("unchecked")
+        private List<BossTrackerItem>[] extras = new List[INITIAL_CAPACITY];
+        private int size;
+
+        private void add(long time, BossTrackerItem item) {
+            add(time, item.getId(), item.getQuantity(), item.getGePrice(), item.getHaPrice(), item.getExtras());
+        }
+
+        private void add(long time, int itemId, int quantity, int gePrice, int haPrice, List<BossTrackerItem> extraItems) {
+            if (size == times.length) {
+                final int capacity = size * 2;
+                times = Arrays.copyOf(times, capacity);
+                itemIds = Arrays.copyOf(itemIds, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                gePrices = Arrays.copyOf(gePrices, capacity);
+                haPrices = Arrays.copyOf(haPrices, capacity);
+                extras = Arrays.copyOf(extras, capacity);
+            }
+            times[size] = time;
+            itemIds[size] = itemId;
+            quantities[size] = quantity;
+            gePrices[size] = gePrice;
+            haPrices[size] = haPrice;
+            extras[size] = extraItems;
+            size++;
+        }
+
+        /**
+         * Remove a drop, any of the same time and values will do as they count the same
+         */
+        private void remove(long time, BossTrackerItem item) {
+            for (int i = 0; i < size; i++) {
+                if (times[i] == time && itemIds[i] == item.getId() && quantities[i] == item.getQuantity()
+                        && gePrices[i] == item.getGePrice() && haPrices[i] == item.getHaPrice()) {
+                    final int last = --size;
+                    times[i] = times[last];
+                    itemIds[i] = itemIds[last];
+                    quantities[i] = quantities[last];
+                    gePrices[i] = gePrices[last];
+                    haPrices[i] = haPrices[last];
+                    extras[i] = extras[last];
+                    extras[last] = null;
+                    return;
+                }
+            }
+        }
+
+        private void addBetween(KillTotals totals, long fromMillis, long toMillis) {
+            for (int i = 0; i < size; i++) {
+                if (times[i] >= fromMillis && times[i] < toMillis) {
+                    totals.addDrop(itemIds[i], quantities[i], gePrices[i], haPrices[i], extras[i]);
+                }
+            }
+        }
+    }
+
+    void add(BossKillEvent kill) {
+        addArchived(kill);
+        hourDrops.computeIfAbsent(hourOf(kill), k -> new HourDrops()).add(kill.getTime().toEpochMilli(), kill.getItem());
+    }
+
+    void remove(BossKillEvent kill) {
+        removeArchived(kill);
+        archive(kill);
+    }
+
+    /**
+     * Count an archived kill, only its totals are kept
+     */
+    void addArchived(BossKillEvent kill) {
+        final long hour = hourOf(kill);
+        total.add(kill);
+        hourly.computeIfAbsent(hour, k -> new KillTotals()).add(kill);
+        daily.computeIfAbsent(Math.floorDiv(hour, HOURS_PER_DAY), k -> new KillTotals()).add(kill);
+    }
+
+    void removeArchived(BossKillEvent kill) {
+        final long hour = hourOf(kill);
+        total.remove(kill);
+        removeFromBucket(hourly, hour, kill);
+        removeFromBucket(daily, Math.floorDiv(hour, HOURS_PER_DAY), kill);
+    }
+
+    /**
+     * A counted kill was archived, it stays counted but its drop is let go of
+     */
+    void archive(BossKillEvent kill) {
+        final long hour = hourOf(kill);
+        final HourDrops drops = hourDrops.get(hour);
+        if (drops != null) {
+            drops.remove(kill.getTime().toEpochMilli(), kill.getItem());
+            if (drops.size == 0) {
+                hourDrops.remove(hour);
+            }
+        }
+    }
+
+    /**
+     * Number of kills whose drops are held to count partial hours
+     */
+    int getHeldDrops() {
+        int held = 0;
+        for (HourDrops drops : hourDrops.values()) {
+            held += drops.size;
+        }
+        return held;
+    }
+
+    /**
+     * Add the totals of an hour that were rolled up elsewhere, like an archive segment's summary
+     *
+     * @param hour hours since the epoch
+     */
+    void add(long hour, KillTotals totals) {
+        total.add(totals);
+        hourly.computeIfAbsent(hour, k -> new KillTotals()).add(totals);
+        daily.computeIfAbsent(Math.floorDiv(hour, HOURS_PER_DAY), k -> new KillTotals()).add(totals);
+    }
+
+    void add(KillRollups rollups) {
+        rollups.hourly.forEach(this::add);
+        rollups.hourDrops.forEach((hour, drops) -> {
+            final HourDrops held = hourDrops.computeIfAbsent(hour, k -> new HourDrops());
+            for (int i = 0; i < drops.size; i++) {
+                held.add(drops.times[i], drops.itemIds[i], drops.quantities[i], drops.gePrices[i], drops.haPrices[i], drops.extras[i]);
+            }
+        });
+    }
+
+    /**
+     * Every hour holding kills, with hours since the epoch
+     */
+    void forEachHour(BiConsumer<Long, KillTotals> consumer) {
+        hourly.forEach(consumer);
+    }
+
+    void reset() {
+        total.reset();
+        hourly.clear();
+        daily.clear();
+        hourDrops.clear();
+    }
+
+    /**
+     * Totals over every kill
+     */
+    KillTotals getTotal() {
+        return total;
+    }
+
+    /**
+     * Totals of the kills between two times (inclusive start, exclusive end)
+     */
+    KillTotals totalsBetween(Instant from, Instant to) {
+        final KillTotals totals = new KillTotals();
+        final long fromMillis = from.toEpochMilli();
+        final long toMillis = to.toEpochMilli();
+        if (fromMillis >= toMillis) {
+            return totals;
+        }
+
+        long hour = Math.floorDiv(fromMillis, HOUR_MILLIS);
+        final long endHour = Math.floorDiv(toMillis, HOUR_MILLIS);
+        if (hour == endHour) {
+            addPartialHour(totals, hour, fromMillis, toMillis);
+            return totals;
+        }
+        if (fromMillis != hour * HOUR_MILLIS) {
+            addPartialHour(totals, hour, fromMillis, toMillis);
+            hour++;
+        }
+        if (toMillis != endHour * HOUR_MILLIS) {
+            addPartialHour(totals, endHour, fromMillis, toMillis);
+        }
+
+        while (hour < endHour) {
+            final KillTotals bucket;
+            if (Math.floorMod(hour, HOURS_PER_DAY) == 0 && hour + HOURS_PER_DAY <= endHour) {
+                bucket = daily.get(hour / HOURS_PER_DAY);
+                hour += HOURS_PER_DAY;
+            } else {
+                bucket = hourly.get(hour);
+                hour++;
+            }
+
+            if (bucket != null) {
+                totals.add(bucket);
+            }
+        }
+
+        return totals;
+    }
+
+    /**
+     * Add the kills of an hour that fall in the range, or the whole hour when it holds archived kills
+     */
+    private void addPartialHour(KillTotals totals, long hour, long fromMillis, long toMillis) {
+        final KillTotals bucket = hourly.get(hour);
+        if (bucket == null) {
+            return;
+        }
+
+        final HourDrops drops = hourDrops.get(hour);
+        if (drops == null || drops.size != bucket.getCount()) {
+            totals.add(bucket);
+            return;
+        }
+        drops.addBetween(totals, fromMillis, toMillis);
+    }
+
+    private static long hourOf(BossKillEvent kill) {
+        return Math.floorDiv(kill.getTime().toEpochMilli(), HOUR_MILLIS);
+    }
+
+    private static void removeFromBucket(Map<Long, KillTotals> buckets, long key, BossKillEvent kill) {
+        final KillTotals bucket = buckets.get(key);
+        if (bucket == null) {
+            return;
+        }
+
+        bucket.remove(kill);
+        if (bucket.getCount() == 0) {
+            buckets.remove(key);
+        }
+    }
+}
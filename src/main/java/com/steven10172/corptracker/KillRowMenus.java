@@ -0,0 +1,76 @@
+package com.steven10172.corptracker;
+
+import javax.swing.JComponent;
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
+import javax.swing.SwingUtilities;
+import javax.swing.border.EmptyBorder;
+import java.awt.Component;
+
+/**
+ * The right click menus of the kill rows, one of each for the whole panel. Rows only point their
+ * labels at these, the kill and participant are looked up from the clicked label when an item is
+ * picked, so a row doesn't need menus of its own.
+ */
+class KillRowMenus {
+    private static final String PARTICIPANT_PROPERTY = "corpEventTracker.participant";
+
+    private final JPopupMenu killMenu = new JPopupMenu();
+    private final JPopupMenu participantMenu = new JPopupMenu();
+
+    KillRowMenus(final CorpEventTrackerPanel panel) {
+        final JMenuItem deleteKill = new JMenuItem("Delete Kill");
+        deleteKill.addActionListener(e -> {
+            final KillTrackerBox box = boxOf(killMenu.getInvoker());
+            if (box != null) {
+                panel.removeKill(box.getId());
+            }
+        });
+        killMenu.setBorder(new EmptyBorder(5, 5, 5, 5));
+        killMenu.add(deleteKill);
+
+        final JMenuItem removePlayer = new JMenuItem("Remove Player");
+        removePlayer.addActionListener(e -> {
+            final KillTrackerBox box = boxOf(participantMenu.getInvoker());
+            final String participant = participantOf(participantMenu.getInvoker());
+            if (box != null && participant != null) {
+                panel.removePlayerFromKill(box.getId(), participant);
+            }
+        });
+
+        final JMenuItem filterPlayer = new JMenuItem("Filter on Player");
+        filterPlayer.addActionListener(e -> {
+            final String participant = participantOf(participantMenu.getInvoker());
+            if (participant != null) {
+                panel.setFilter(participant);
+            }
+        });
+
+        participantMenu.setBorder(new EmptyBorder(5, 5, 5, 5));
+        participantMenu.add(removePlayer);
+        participantMenu.add(filterPlayer);
+    }
+
+    /**
+     * Give a kill row's title the kill menu
+     */
+    void attachKillMenu(JComponent title) {
+        title.setComponentPopupMenu(killMenu);
+    }
+
+    /**
+     * Give a participant label the participant menu, or point it at another participant
+     */
+    void attachParticipantMenu(JComponent label, String participant) {
+        label.putClientProperty(PARTICIPANT_PROPERTY, participant);
+        label.setComponentPopupMenu(participantMenu);
+    }
+
+    private static KillTrackerBox boxOf(Component invoker) {
+        return invoker == null ? null : (KillTrackerBox) SwingUtilities.getAncestorOfClass(KillTrackerBox.class, invoker);
+    }
+
+    private static String participantOf(Component invoker) {
+        return invoker instanceof JComponent ? (String) ((JComponent) invoker).getClientProperty(PARTICIPANT_PROPERTY) : null;
+    }
+}
@@ -0,0 +1,243 @@
+package com.steven10172.corptracker;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filters a {@link KillStore.Snapshot} off the EDT. Every query supersedes the one before it,
+ * a scan that has been superseded notices within {@link #CANCEL_CHECK_ROWS} rows and gives up.
+ *
+ * Matches are found newest first. The first {@link #PAGE_SIZE} are handed to the listener as
+ * soon as they are found, so the top of the list fills in before the scan is done.
+ *
+ * Archived kills aren't listed, only totalled. Once the snapshot is done the archive segments that
+ * can hold a match, going by their summaries, are read one at a time and the matches rolled up.
+ *
+ * {@link #submit} and {@link #cancel} are called on the EDT, and the listener is called there too.
+ */
+@Slf4j
+class KillSearch {
+    static final int PAGE_SIZE = 50;
+    private static final int CANCEL_CHECK_ROWS = 1024;
+
+    /**
+     * Tests snapshot rows against one query, not thread safe
+     */
+    static final class Matcher {
+        private final PlayerDictionary dictionary;
+        private final String query;
+        private final boolean[] players;
+        // Only a few dozen distinct items show up in the history
+        private final Map<String, Boolean> items = new HashMap<>();
+
+        /**
+         * @param query lowercase query, or null to match every kill
+         */
+        Matcher(PlayerDictionary dictionary, String query) {
+            this.dictionary = dictionary;
+            this.query = query;
+            this.players = query == null ? null : dictionary.matchNames(query);
+        }
+
+        boolean matches(KillStore.Snapshot snapshot, int row) {
+            if (query == null || matchesPlayer(snapshot.getOwnerId(row))) {
+                return true;
+            }
+            for (int participant : snapshot.getParticipantIds(row)) {
+                if (matchesPlayer(participant)) {
+                    return true;
+                }
+            }
+            return matchesItem(snapshot.getItemName(row)) || matchesExtras(snapshot.getExtraItems(row));
+        }
+
+        boolean matches(BossKillEvent kill) {
+            if (query == null || matchesPlayer(dictionary.getId(kill.getKillOwner()))) {
+                return true;
+            }
+            for (int participant : kill.getParticipantIds()) {
+                if (matchesPlayer(participant)) {
+                    return true;
+                }
+            }
+            return matchesItem(kill.getItem().getName()) || matchesExtras(kill.getItem().getExtras());
+        }
+
+        /**
+         * @return false when none of the segment's kills can match, going by its summary
+         */
+        boolean mayMatch(KillArchive.Segment segment) {
+            if (query == null) {
+                return true;
+            }
+            for (int player : segment.getPlayers()) {
+                if (matchesPlayer(player)) {
+                    return true;
+                }
+            }
+            for (String item : segment.getItems()) {
+                if (item.contains(query)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean matchesItem(String name) {
+            return items.computeIfAbsent(name, n -> n.toLowerCase().contains(query));
+        }
+
+        private boolean matchesExtras(List<BossTrackerItem> extras) {
+            for (BossTrackerItem extra : extras) {
+                if (matchesItem(extra.getName())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean matchesPlayer(int id) {
+            if (id < players.length) {
+                return players[id];
+            }
+            // Registered after the matcher was made, like the players of an archive segment read since
+            return dictionary.getName(id).toLowerCase().contains(query);
+        }
+    }
+
+    interface Listener {
+        /**
+         * The newest matches, more are still being looked for
+         */
+        void searchPage(List<BossKillEvent> kills);
+
+        /**
+         * Every match, newest first
+         *
+         * @param modCount the mod count of the searched snapshot
+         */
+        void searchComplete(int modCount, List<BossKillEvent> kills);
+
+        /**
+         * Totals of the archived matches, only called for an actual query and after {@link #searchComplete}
+         */
+        void searchArchiveComplete(KillRollups matches);
+    }
+
+    private final Executor executor;
+    private final PlayerDictionary dictionary;
+    private final KillArchive archive;
+    private final Listener listener;
+    private final AtomicLong generation = new AtomicLong();
+
+    KillSearch(Executor executor, PlayerDictionary dictionary, KillArchive archive, Listener listener) {
+        this.executor = executor;
+        this.dictionary = dictionary;
+        this.archive = archive;
+        this.listener = listener;
+    }
+
+    /**
+     * Start searching a snapshot, superseding any search still running
+     *
+     * @param query lowercase query, or null for every kill
+     */
+    void submit(KillStore.Snapshot snapshot, String query) {
+        final long searchGeneration = generation.incrementAndGet();
+        final List<KillArchive.Segment> segments = archive.getSegments();
+        executor.execute(() -> run(searchGeneration, snapshot, segments, query));
+    }
+
+    /**
+     * Only total the archived kills matching a query, superseding any search still running
+     *
+     * @param query lowercase query
+     */
+    void submitArchive(String query) {
+        final long searchGeneration = generation.incrementAndGet();
+        final List<KillArchive.Segment> segments = archive.getSegments();
+        executor.execute(() -> searchArchive(searchGeneration, segments, new Matcher(dictionary, query)));
+    }
+
+    /**
+     * Drop the running search, if any, its results will never be delivered
+     */
+    void cancel() {
+        generation.incrementAndGet();
+    }
+
+    private void run(long searchGeneration, KillStore.Snapshot snapshot, List<KillArchive.Segment> segments, String query) {
+        if (searchGeneration != generation.get()) {
+            return;
+        }
+
+        final int[] order = snapshot.getNewestFirst();
+        final Matcher matcher = new Matcher(dictionary, query);
+
+        final List<BossKillEvent> kills = new ArrayList<>();
+        for (int i = 0; i < order.length; i++) {
+            if ((i & (CANCEL_CHECK_ROWS - 1)) == 0 && searchGeneration != generation.get()) {
+                return;
+            }
+
+            final int row = order[i];
+            if (!matcher.matches(snapshot, row)) {
+                continue;
+            }
+
+            kills.add(snapshot.getKill(row));
+            if (kills.size() == PAGE_SIZE) {
+                final List<BossKillEvent> page = new ArrayList<>(kills);
+                deliver(searchGeneration, () -> listener.searchPage(page));
+            }
+        }
+
+        deliver(searchGeneration, () -> listener.searchComplete(snapshot.getModCount(), kills));
+        if (query != null) {
+            searchArchive(searchGeneration, segments, matcher);
+        }
+    }
+
+    private void searchArchive(long searchGeneration, List<KillArchive.Segment> segments, Matcher matcher) {
+        final KillRollups matches = new KillRollups();
+        for (KillArchive.Segment segment : segments) {
+            if (searchGeneration != generation.get()) {
+                return;
+            }
+            if (!matcher.mayMatch(segment)) {
+                continue;
+            }
+
+            try {
+                for (BossKillEvent kill : archive.read(segment)) {
+                    if (matcher.matches(kill)) {
+                        matches.addArchived(kill);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Unable to search kill archive segment", e);
+            }
+        }
+
+        deliver(searchGeneration, () -> listener.searchArchiveComplete(matches));
+    }
+
+    /**
+     * Hand a result to the listener on the EDT, unless the search was superseded in the meantime
+     */
+    private void deliver(long searchGeneration, Runnable delivery) {
+        SwingUtilities.invokeLater(() -> {
+            if (searchGeneration == generation.get()) {
+                delivery.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,201 @@
+package com.steven10172.corptracker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory substring search over item names, kill owners and participants.
+ *
+ * Every distinct name is lowercased once and broken into 1 to 3 character grams. The gram
+ * postings point at names rather than kills, since the same few dozen players and items show
+ * up in thousands of kills. Each name then keeps the kills it appears in. A query only
+ * verifies the names sharing its grams and only touches the kills of the names that matched.
+ */
+class KillSearchIndex {
+    private static final int MAX_GRAM_LENGTH = 3;
+
+    private static final class IndexedName {
+        private final String lowerCase;
+        private final Set<UUID> kills = new HashSet<>();
+
+        private IndexedName(String lowerCase) {
+            this.lowerCase = lowerCase;
+        }
+    }
+
+    private final Map<String, IndexedName> namesByRaw = new HashMap<>();
+    private final Map<String, IndexedName> namesByLowerCase = new HashMap<>();
+    private final Map<Long, List<IndexedName>> gramPostings = new HashMap<>();
+    private final Map<UUID, IndexedName[]> killNames = new HashMap<>();
+
+    /**
+     * Index (or re-index) a kill
+     */
+    void add(BossKillEvent kill) {
+        final UUID id = kill.getUuid();
+        remove(id);
+
+        final List<String> participants = kill.getParticipants();
+        final List<BossTrackerItem> extras = kill.getItem().getExtras();
+        final IndexedName[] names = new IndexedName[participants.size() + extras.size() + 2];
+        names[0] = indexName(kill.getItem().getName());
+        names[1] = indexName(kill.getKillOwner());
+        for (int i = 0; i < participants.size(); i++) {
+            names[i + 2] = indexName(participants.get(i));
+        }
+        for (int i = 0; i < extras.size(); i++) {
+            names[participants.size() + 2 + i] = indexName(extras.get(i).getName());
+        }
+
+        for (IndexedName name : names) {
+            name.kills.add(id);
+        }
+        killNames.put(id, names);
+    }
+
+    void remove(UUID id) {
+        final IndexedName[] names = killNames.remove(id);
+        if (names == null) {
+            return;
+        }
+
+        for (IndexedName name : names) {
+            name.kills.remove(id);
+        }
+    }
+
+    void clear() {
+        namesByRaw.clear();
+        namesByLowerCase.clear();
+        gramPostings.clear();
+        killNames.clear();
+    }
+
+    /**
+     * Kills with an item, owner or participant containing the (lowercase) query
+     */
+    Set<UUID> search(String query) {
+        if (query == null || query.isEmpty()) {
+            return Collections.unmodifiableSet(killNames.keySet());
+        }
+
+        final Set<UUID> result = new HashSet<>();
+        for (IndexedName name : matchingNames(query)) {
+            result.addAll(name.kills);
+        }
+        return result;
+    }
+
+    /**
+     * Whether an indexed kill has an item, owner or participant containing the (lowercase) query
+     */
+    boolean matches(UUID id, String query) {
+        if (query == null || query.isEmpty()) {
+            return true;
+        }
+
+        final IndexedName[] names = killNames.get(id);
+        if (names == null) {
+            return false;
+        }
+
+        for (IndexedName name : names) {
+            if (name.lowerCase.contains(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a single name contains the (lowercase) query, without lowercasing it again
+     */
+    boolean nameMatches(String rawName, String query) {
+        if (query == null || query.isEmpty()) {
+            return true;
+        }
+
+        final IndexedName name = namesByRaw.get(rawName);
+        final String lowerCase = name == null ? rawName.toLowerCase() : name.lowerCase;
+        return lowerCase.contains(query);
+    }
+
+    private Collection<IndexedName> matchingNames(String query) {
+        if (query.length() <= MAX_GRAM_LENGTH) {
+            // The gram itself is the answer, no verification needed
+            final List<IndexedName> names = gramPostings.get(packGram(query, 0, query.length()));
+            return names == null ? Collections.emptyList() : names;
+        }
+
+        // Start from the rarest trigram and verify the candidates against the full query
+        List<IndexedName> candidates = null;
+        for (int i = 0; i + MAX_GRAM_LENGTH <= query.length(); i++) {
+            final List<IndexedName> names = gramPostings.get(packGram(query, i, MAX_GRAM_LENGTH));
+            if (names == null) {
+                return Collections.emptyList();
+            }
+            if (candidates == null || names.size() < candidates.size()) {
+                candidates = names;
+            }
+        }
+
+        final List<IndexedName> matches = new ArrayList<>();
+        for (IndexedName name : candidates) {
+            if (name.lowerCase.contains(query)) {
+                matches.add(name);
+            }
+        }
+        return matches;
+    }
+
+    private IndexedName indexName(String rawName) {
+        IndexedName name = namesByRaw.get(rawName);
+        if (name != null) {
+            return name;
+        }
+
+        final String lowerCase = rawName.toLowerCase();
+        name = namesByLowerCase.get(lowerCase);
+        if (name == null) {
+            name = new IndexedName(lowerCase);
+            namesByLowerCase.put(lowerCase, name);
+            addGrams(name);
+        }
+        namesByRaw.put(rawName, name);
+
+        return name;
+    }
+
+    private void addGrams(IndexedName name) {
+        final String value = name.lowerCase;
+        final Set<Long> grams = new HashSet<>();
+
+        for (int start = 0; start < value.length(); start++) {
+            for (int length = 1; length <= MAX_GRAM_LENGTH && start + length <= value.length(); length++) {
+                grams.add(packGram(value, start, length));
+            }
+        }
+
+        for (Long gram : grams) {
+            gramPostings.computeIfAbsent(gram, k -> new ArrayList<>()).add(name);
+        }
+    }
+
+    /**
+     * Pack up to three chars into a long, the length is kept in the top bits so "a" and "a\0" differ
+     */
+    private static long packGram(String value, int start, int length) {
+        long gram = length;
+        for (int i = start; i < start + length; i++) {
+            gram = (gram << 16) | value.charAt(i);
+        }
+        return gram;
+    }
+}
@@ -0,0 +1,380 @@
+package com.steven10172.corptracker;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Column-oriented kill history. Every kill is a row across parallel primitive arrays, with a
+ * side index from kill UUID to row. Aggregates over the history are plain array scans instead
+ * of walking a graph of kill objects.
+ *
+ * Rows are not kept in any particular order, a removed row is filled by moving the last row into
+ * its place. {@link BossKillEvent}s handed out are rebuilt from the columns on every call.
+ *
+ * Not thread safe, owned by the panel on the EDT.
+ */
+class KillStore {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int SORT_ROW_BITS = 20;
+    private static final int SORT_ROW_MASK = (1 << SORT_ROW_BITS) - 1;
+
+    private final PlayerDictionary dictionary;
+    private final Map<UUID, Integer> rowsById = new HashMap<>();
+    private int size;
+    // Bumped on every change, tells whether a snapshot is still current
+    private int modCount;
+
+    private UUID[] ids = new UUID[INITIAL_CAPACITY];
+    private long[] times = new long[INITIAL_CAPACITY];
+    private int[] bossIds = new int[INITIAL_CAPACITY];
+    private int[] itemIds = new int[INITIAL_CAPACITY];
+    private String[] itemNames = new String[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private int[] gePrices = new int[INITIAL_CAPACITY];
+    private int[] haPrices = new int[INITIAL_CAPACITY];
+    // The rest of a drop of several items, the shared empty list otherwise
+    @SuppressWarnings("unchecked")
+    private List<BossTrackerItem>[] extraItems = new List[INITIAL_CAPACITY];
+    private int[] ownerIds = new int[INITIAL_CAPACITY];
+    private int[][] participantIds = new int[INITIAL_CAPACITY][];
+    private int[][] participantDamage = new int[INITIAL_CAPACITY][];
+    private boolean[] inProgress = new boolean[INITIAL_CAPACITY];
+
+    KillStore(PlayerDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    PlayerDictionary getDictionary() {
+        return dictionary;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(UUID id) {
+        return rowsById.containsKey(id);
+    }
+
+    /**
+     * Read-only copy of every column, safe to hand to another thread
+     */
+    static final class Snapshot {
+        private final PlayerDictionary dictionary;
+        private final int modCount;
+        private final int size;
+        private final UUID[] ids;
+        private final long[] times;
+        private final int[] bossIds;
+        private final int[] itemIds;
+        private final String[] itemNames;
+        private final int[] quantities;
+        private final int[] gePrices;
+        private final int[] haPrices;
+        private final List<BossTrackerItem>[] extraItems;
+        private final int[] ownerIds;
+        private final int[][] participantIds;
+        private final int[][] participantDamage;
+        private final boolean[] inProgress;
+        private volatile int[] newestFirst;
+
+        private Snapshot(KillStore store) {
+            dictionary = store.dictionary;
+            modCount = store.modCount;
+            size = store.size;
+            ids = Arrays.copyOf(store.ids, size);
+            times = Arrays.copyOf(store.times, size);
+            bossIds = Arrays.copyOf(store.bossIds, size);
+            itemIds = Arrays.copyOf(store.itemIds, size);
+            itemNames = Arrays.copyOf(store.itemNames, size);
+            quantities = Arrays.copyOf(store.quantities, size);
+            gePrices = Arrays.copyOf(store.gePrices, size);
+            haPrices = Arrays.copyOf(store.haPrices, size);
+            extraItems = Arrays.copyOf(store.extraItems, size);
+            ownerIds = Arrays.copyOf(store.ownerIds, size);
+            // The id and damage arrays themselves are never modified in place
+            participantIds = Arrays.copyOf(store.participantIds, size);
+            participantDamage = Arrays.copyOf(store.participantDamage, size);
+            inProgress = Arrays.copyOf(store.inProgress, size);
+        }
+
+        int getModCount() {
+            return modCount;
+        }
+
+        int size() {
+            return size;
+        }
+
+        String getItemName(int row) {
+            return itemNames[row];
+        }
+
+        List<BossTrackerItem> getExtraItems(int row) {
+            return extraItems[row];
+        }
+
+        int getOwnerId(int row) {
+            return ownerIds[row];
+        }
+
+        int[] getParticipantIds(int row) {
+            return participantIds[row];
+        }
+
+        boolean isInProgress(int row) {
+            return inProgress[row];
+        }
+
+        BossKillEvent getKill(int row) {
+            final BossTrackerItem item = new BossTrackerItem(itemIds[row], itemNames[row], quantities[row], gePrices[row], haPrices[row],
+                    extraItems[row]);
+            return new BossKillEvent(dictionary, ids[row], bossIds[row], item, dictionary.getName(ownerIds[row]),
+                    participantIds[row], participantDamage[row], Instant.ofEpochMilli(times[row]), inProgress[row]);
+        }
+
+        /**
+         * Rows ordered by kill time, newest first. Sorted on first use, by whichever thread asks.
+         */
+        int[] getNewestFirst() {
+            int[] order = newestFirst;
+            if (order == null) {
+                order = size <= SORT_ROW_MASK ? sortPacked() : sortBoxed();
+                newestFirst = order;
+            }
+            return order;
+        }
+
+        /**
+         * Sort (time, row) pairs packed into longs, kill times fit in the top 43 bits until the year 2248
+         */
+        private int[] sortPacked() {
+            final long[] keys = new long[size];
+            for (int row = 0; row < size; row++) {
+                keys[row] = (times[row] << SORT_ROW_BITS) | row;
+            }
+            Arrays.sort(keys);
+
+            final int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = (int) (keys[size - 1 - i] & SORT_ROW_MASK);
+            }
+            return order;
+        }
+
+        private int[] sortBoxed() {
+            final Integer[] rows = new Integer[size];
+            for (int row = 0; row < size; row++) {
+                rows[row] = row;
+            }
+            Arrays.sort(rows, (a, b) -> Long.compare(times[b], times[a]));
+
+            final int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = rows[i];
+            }
+            return order;
+        }
+    }
+
+    int getModCount() {
+        return modCount;
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Insert or overwrite a kill
+     *
+     * @return the kill previously stored under the same UUID, or null
+     */
+    BossKillEvent put(BossKillEvent kill) {
+        modCount++;
+        Integer row = rowsById.get(kill.getUuid());
+        BossKillEvent previous = null;
+
+        if (row == null) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowsById.put(kill.getUuid(), row);
+        } else {
+            previous = materialize(row);
+        }
+
+        final BossTrackerItem item = kill.getItem();
+        ids[row] = kill.getUuid();
+        times[row] = kill.getTime().toEpochMilli();
+        bossIds[row] = kill.getBossId();
+        itemIds[row] = item.getId();
+        itemNames[row] = item.getName();
+        quantities[row] = item.getQuantity();
+        gePrices[row] = item.getGePrice();
+        haPrices[row] = item.getHaPrice();
+        extraItems[row] = item.getExtras();
+        ownerIds[row] = dictionary.getId(kill.getKillOwner());
+        participantIds[row] = kill.getParticipantIds();
+        participantDamage[row] = kill.getParticipantDamage();
+        inProgress[row] = kill.isInProgress();
+
+        return previous;
+    }
+
+    BossKillEvent get(UUID id) {
+        final Integer row = rowsById.get(id);
+        return row == null ? null : materialize(row);
+    }
+
+    List<BossKillEvent> getAll(Collection<UUID> ids) {
+        final List<BossKillEvent> kills = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            final Integer row = rowsById.get(id);
+            if (row != null) {
+                kills.add(materialize(row));
+            }
+        }
+        return kills;
+    }
+
+    /**
+     * @return the removed kill, or null if there was no such kill
+     */
+    BossKillEvent remove(UUID id) {
+        final Integer row = rowsById.remove(id);
+        if (row == null) {
+            return null;
+        }
+        modCount++;
+
+        final BossKillEvent removed = materialize(row);
+        final int last = --size;
+        if (row != last) {
+            moveRow(last, row);
+            rowsById.put(ids[row], row);
+        }
+
+        // Let go of the references held by the now unused last row
+        ids[last] = null;
+        itemNames[last] = null;
+        extraItems[last] = null;
+        participantIds[last] = null;
+        participantDamage[last] = null;
+
+        return removed;
+    }
+
+    void clear() {
+        modCount++;
+        rowsById.clear();
+        Arrays.fill(ids, 0, size, null);
+        Arrays.fill(itemNames, 0, size, null);
+        Arrays.fill(extraItems, 0, size, null);
+        Arrays.fill(participantIds, 0, size, null);
+        Arrays.fill(participantDamage, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Totals of the completed kills between two times (inclusive start, exclusive end)
+     */
+    KillTotals totalsBetween(Instant from, Instant to) {
+        final long fromMillis = from.toEpochMilli();
+        final long toMillis = to.toEpochMilli();
+        final KillTotals totals = new KillTotals();
+
+        for (int row = 0; row < size; row++) {
+            final long time = times[row];
+            if (time >= fromMillis && time < toMillis && !inProgress[row]) {
+                totals.addDrop(itemIds[row], quantities[row], gePrices[row], haPrices[row], extraItems[row]);
+            }
+        }
+
+        return totals;
+    }
+
+    /**
+     * Number of completed kills per dropped item id
+     */
+    Map<Integer, Integer> countByItem() {
+        final Map<Integer, Integer> counts = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            if (!inProgress[row]) {
+                counts.merge(itemIds[row], 1, Integer::sum);
+                for (BossTrackerItem extra : extraItems[row]) {
+                    counts.merge(extra.getId(), 1, Integer::sum);
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Raise every participant's entry to the time of their latest completed kill. Ids past the
+     * end of the array are skipped.
+     */
+    void lastSeenByPlayer(long[] lastSeen) {
+        for (int row = 0; row < size; row++) {
+            if (inProgress[row]) {
+                continue;
+            }
+
+            final long time = times[row];
+            for (int id : participantIds[row]) {
+                if (id < lastSeen.length && time > lastSeen[id]) {
+                    lastSeen[id] = time;
+                }
+            }
+        }
+    }
+
+    private BossKillEvent materialize(int row) {
+        final BossTrackerItem item = new BossTrackerItem(itemIds[row], itemNames[row], quantities[row], gePrices[row], haPrices[row],
+                extraItems[row]);
+        return new BossKillEvent(dictionary, ids[row], bossIds[row], item, dictionary.getName(ownerIds[row]),
+                participantIds[row], participantDamage[row], Instant.ofEpochMilli(times[row]), inProgress[row]);
+    }
+
+    private void moveRow(int from, int to) {
+        ids[to] = ids[from];
+        times[to] = times[from];
+        bossIds[to] = bossIds[from];
+        itemIds[to] = itemIds[from];
+        itemNames[to] = itemNames[from];
+        quantities[to] = quantities[from];
+        gePrices[to] = gePrices[from];
+        haPrices[to] = haPrices[from];
+        extraItems[to] = extraItems[from];
+        ownerIds[to] = ownerIds[from];
+        participantIds[to] = participantIds[from];
+        participantDamage[to] = participantDamage[from];
+        inProgress[to] = inProgress[from];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+
+        final int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        times = Arrays.copyOf(times, newCapacity);
+        bossIds = Arrays.copyOf(bossIds, newCapacity);
+        itemIds = Arrays.copyOf(itemIds, newCapacity);
+        itemNames = Arrays.copyOf(itemNames, newCapacity);
+        quantities = Arrays.copyOf(quantities, newCapacity);
+        gePrices = Arrays.copyOf(gePrices, newCapacity);
+        haPrices = Arrays.copyOf(haPrices, newCapacity);
+        extraItems = Arrays.copyOf(extraItems, newCapacity);
+        ownerIds = Arrays.copyOf(ownerIds, newCapacity);
+        participantIds = Arrays.copyOf(participantIds, newCapacity);
+        participantDamage = Arrays.copyOf(participantDamage, newCapacity);
+        inProgress = Arrays.copyOf(inProgress, newCapacity);
+    }
+}
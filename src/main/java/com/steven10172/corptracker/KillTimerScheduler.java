@@ -0,0 +1,92 @@
+package com.steven10172.corptracker;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Kill lifecycle timers (in-progress kill expiry) on the shared scheduled executor, rather than a
+ * sleeping thread per timeout. Keeps counts of what was scheduled, fired and cancelled so leaks
+ * show up as a growing pending count.
+ *
+ * Due tasks are handed to the task executor (the client thread), a timer cancelled after it came
+ * due but before the task ran still counts as cancelled and never runs.
+ */
+class KillTimerScheduler implements KillTimers {
+    private final ScheduledExecutorService executor;
+    private final Executor taskExecutor;
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong fired = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    private final class Handle implements KillTimers.Handle {
+        private final Runnable task;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile ScheduledFuture<?> future;
+
+        private Handle(Runnable task) {
+            this.task = task;
+        }
+
+        private void fire() {
+            if (done.compareAndSet(false, true)) {
+                fired.incrementAndGet();
+                task.run();
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+
+            cancelled.incrementAndGet();
+            final ScheduledFuture<?> scheduledFuture = future;
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+            }
+            return true;
+        }
+    }
+
+    KillTimerScheduler(ScheduledExecutorService executor, Executor taskExecutor) {
+        this.executor = executor;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public KillTimers.Handle schedule(Runnable task, long delayMs) {
+        scheduled.incrementAndGet();
+        final Handle handle = new Handle(task);
+        handle.future = executor.schedule(() -> taskExecutor.execute(handle::fire), delayMs, TimeUnit.MILLISECONDS);
+        return handle;
+    }
+
+    long getScheduled() {
+        return scheduled.get();
+    }
+
+    long getFired() {
+        return fired.get();
+    }
+
+    long getCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Timers that have neither fired nor been cancelled
+     */
+    long getPending() {
+        return scheduled.get() - fired.get() - cancelled.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("scheduled=%d, fired=%d, cancelled=%d, pending=%d", getScheduled(), getFired(), getCancelled(), getPending());
+    }
+}
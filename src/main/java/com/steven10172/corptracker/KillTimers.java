@@ -0,0 +1,18 @@
+package com.steven10172.corptracker;
+
+/**
+ * Delayed tasks of the kill lifecycle, run live on the client or on a virtual clock when replaying
+ */
+interface KillTimers {
+    /**
+     * A scheduled timer that can be cancelled until it fires
+     */
+    interface Handle {
+        /**
+         * @return true if the timer had not fired yet
+         */
+        boolean cancel();
+    }
+
+    Handle schedule(Runnable task, long delayMs);
+}
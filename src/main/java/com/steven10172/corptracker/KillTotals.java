@@ -0,0 +1,159 @@
+package com.steven10172.corptracker;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Running count and value of a set of kills, kept up to date as kills come and go.
+ *
+ * The dropped quantity is also kept per item id, so the same kills can be valued at any price
+ * table with one multiply per distinct item rather than one per kill.
+ */
+@Getter
+@NoArgsConstructor
+class KillTotals {
+    private static final int INITIAL_ITEMS = 4;
+    private static final int[] NO_IDS = new int[0];
+    private static final long[] NO_VALUES = new long[0];
+
+    private long count;
+    private long gePrice;
+    private long haPrice;
+
+    // Sorted item ids, with the quantity and drop time GE value of each
+    @Getter(AccessLevel.NONE)
+    private int[] itemIds = NO_IDS;
+    @Getter(AccessLevel.NONE)
+    private long[] itemQuantities = NO_VALUES;
+    @Getter(AccessLevel.NONE)
+    private long[] itemGePrices = NO_VALUES;
+    @Getter(AccessLevel.NONE)
+    private int items;
+
+    void add(BossKillEvent kill) {
+        addKill(kill.getItem(), 1);
+    }
+
+    void add(KillTotals totals) {
+        count += totals.count;
+        gePrice += totals.gePrice;
+        haPrice += totals.haPrice;
+        for (int i = 0; i < totals.items; i++) {
+            addItem(totals.itemIds[i], totals.itemQuantities[i], totals.itemGePrices[i]);
+        }
+    }
+
+    void remove(BossKillEvent kill) {
+        addKill(kill.getItem(), -1);
+    }
+
+    /**
+     * Count one drop, given by its columns so a store scan doesn't build the kill
+     */
+    void addDrop(int itemId, int quantity, int unitGePrice, int unitHaPrice, List<BossTrackerItem> extras) {
+        count++;
+        addValue(itemId, quantity, unitGePrice, unitHaPrice, 1);
+        for (BossTrackerItem extra : extras) {
+            addValue(extra.getId(), extra.getQuantity(), extra.getGePrice(), extra.getHaPrice(), 1);
+        }
+    }
+
+    void reset() {
+        count = 0;
+        gePrice = 0;
+        haPrice = 0;
+        items = 0;
+    }
+
+    /**
+     * GE value of the kills at the given prices. Items the table doesn't know keep their drop time value.
+     */
+    long getGePrice(ItemPrices prices) {
+        long total = 0;
+        for (int i = 0; i < items; i++) {
+            total += prices.valueOf(itemIds[i], itemQuantities[i], itemGePrices[i]);
+        }
+        return total;
+    }
+
+    void write(DataOutputStream data) throws IOException {
+        data.writeLong(count);
+        data.writeLong(gePrice);
+        data.writeLong(haPrice);
+        data.writeInt(items);
+        for (int i = 0; i < items; i++) {
+            data.writeInt(itemIds[i]);
+            data.writeLong(itemQuantities[i]);
+            data.writeLong(itemGePrices[i]);
+        }
+    }
+
+    /**
+     * Read back totals written by {@link #write}
+     */
+    static KillTotals read(DataInputStream data) throws IOException {
+        final KillTotals totals = new KillTotals();
+        totals.count = data.readLong();
+        totals.gePrice = data.readLong();
+        totals.haPrice = data.readLong();
+        final int items = data.readInt();
+        for (int i = 0; i < items; i++) {
+            totals.addItem(data.readInt(), data.readLong(), data.readLong());
+        }
+        return totals;
+    }
+
+    /**
+     * Ids of every item dropped, sorted
+     */
+    int[] getItemIds() {
+        return Arrays.copyOf(itemIds, items);
+    }
+
+    /**
+     * The extras of a drop add to its value, not to the kill count
+     */
+    private void addKill(BossTrackerItem item, int sign) {
+        count += sign;
+        addValue(item.getId(), item.getQuantity(), item.getGePrice(), item.getHaPrice(), sign);
+        for (BossTrackerItem extra : item.getExtras()) {
+            addValue(extra.getId(), extra.getQuantity(), extra.getGePrice(), extra.getHaPrice(), sign);
+        }
+    }
+
+    private void addValue(int itemId, int quantity, int unitGePrice, int unitHaPrice, int sign) {
+        final long ge = sign * (long) unitGePrice * quantity;
+        gePrice += ge;
+        haPrice += sign * (long) unitHaPrice * quantity;
+        addItem(itemId, sign * (long) quantity, ge);
+    }
+
+    private void addItem(int id, long quantity, long ge) {
+        int index = Arrays.binarySearch(itemIds, 0, items, id);
+        if (index < 0) {
+            index = -index - 1;
+            if (items == itemIds.length) {
+                final int capacity = Math.max(INITIAL_ITEMS, items * 2);
+                itemIds = Arrays.copyOf(itemIds, capacity);
+                itemQuantities = Arrays.copyOf(itemQuantities, capacity);
+                itemGePrices = Arrays.copyOf(itemGePrices, capacity);
+            }
+            System.arraycopy(itemIds, index, itemIds, index + 1, items - index);
+            System.arraycopy(itemQuantities, index, itemQuantities, index + 1, items - index);
+            System.arraycopy(itemGePrices, index, itemGePrices, index + 1, items - index);
+            itemIds[index] = id;
+            itemQuantities[index] = 0;
+            itemGePrices[index] = 0;
+            items++;
+        }
+        itemQuantities[index] += quantity;
+        itemGePrices[index] += ge;
+    }
+}
@@ -8,9 +8,7 @@ import net.runelite.client.util.QuantityFormatter;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JLabel;
-import javax.swing.JMenuItem;
 import javax.swing.JPanel;
-import javax.swing.JPopupMenu;
 import javax.swing.border.EmptyBorder;
 import java.awt.BorderLayout;
 import java.awt.Color;
@@ -21,9 +19,11 @@ import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -32,32 +32,34 @@ import java.util.stream.Collectors;
 public class KillTrackerBox extends JPanel {
     private static final int TITLE_PADDING = 5;
 
+    private final JLabel titleLabel = new JLabel();
     private final JLabel subTitleLabel = new JLabel();
     private final JPanel logTitle = new JPanel();
     private final JLabel priceLabel = new JLabel();
     private final JPanel killList = new JPanel();
-    private final BossKillEvent bossKillEvent;
-    private final UUID id;
+    private final JPanel killContainer = new JPanel();
+    private final GridLayout participantGrid = new GridLayout(1, 2, 1, 1);
+    private final GridLayout noParticipantGrid = new GridLayout(1, 1, 1, 1);
+    // Reused between rebuilds, only ever grows to the largest kill shown in this box
+    private final List<JLabel> participantLabels = new ArrayList<>();
+    private JLabel noPlayerLabel;
     private final CorpEventTrackerPanel panel;
-    private final String searchString;
-
-    KillTrackerBox(final UUID id, final BossKillEvent bossKillEvent, final CorpEventTrackerPanel panel, final String searchString) {
-        this.id = id;
-        this.bossKillEvent = bossKillEvent;
+    private BossKillEvent bossKillEvent;
+    private UUID id;
+    private String searchString;
+    // The player list is only built while expanded, this marks it as out of date
+    private boolean killListStale;
+
+    KillTrackerBox(final UUID id, final BossKillEvent bossKillEvent, final CorpEventTrackerPanel panel, final String searchString,
+            final boolean collapsed) {
         this.panel = panel;
-        this.searchString = searchString;
 
         setLayout(new GridBagLayout());
         setBorder(new EmptyBorder(5, 0, 5, 0));
 
         logTitle.setLayout(new BoxLayout(logTitle, BoxLayout.X_AXIS));
         logTitle.setBorder(new EmptyBorder(7, 7, 7, 7));
-        logTitle.setBackground(this.bossKillEvent.isInProgress() ? ColorScheme.BRAND_ORANGE : ColorScheme.DARKER_GRAY_COLOR.darker());
-        final String killTime = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT).withZone(ZoneId.systemDefault()).format(bossKillEvent.getTime());
-        logTitle.setToolTipText(killTime);
 
-        JLabel titleLabel = new JLabel();
-        titleLabel.setText(bossKillEvent.getKillOwner()); // Who got the kill
         titleLabel.setFont(FontManager.getRunescapeSmallFont());
         titleLabel.setForeground(Color.WHITE);
 
@@ -66,11 +68,6 @@ public class KillTrackerBox extends JPanel {
         subTitleLabel.setFont(FontManager.getRunescapeSmallFont());
         subTitleLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
 
-        String itemName = bossKillEvent.getItem().getName();
-        String fullDropName = (bossKillEvent.getItem().getQuantity() == 1 ? itemName : String.format("%d x %s", bossKillEvent.getItem().getQuantity(), bossKillEvent.getItem().getName()));
-        subTitleLabel.setText(this.bossKillEvent.isInProgress() ? "" : fullDropName); // Item Name
-        subTitleLabel.setMinimumSize(new Dimension(1, subTitleLabel.getPreferredSize().height));
-
         logTitle.add(Box.createRigidArea(new Dimension(TITLE_PADDING, 0)));
         logTitle.add(subTitleLabel);
         logTitle.add(Box.createHorizontalGlue());
@@ -78,16 +75,10 @@ public class KillTrackerBox extends JPanel {
 
         priceLabel.setFont(FontManager.getRunescapeSmallFont());
         priceLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
-        priceLabel.setText("");
-        if (!this.bossKillEvent.isInProgress()) {
-            priceLabel.setText(QuantityFormatter.quantityToStackSize(bossKillEvent.getItem().getTotalGePrice()) + " gp"); // Short value
-            priceLabel.setToolTipText(QuantityFormatter.formatNumber(bossKillEvent.getItem().getTotalGePrice()) + " gp"); // Full value
-        }
         logTitle.add(priceLabel);
 
         killList.setLayout(new BorderLayout());
-
-        buildKillList();
+        killList.add(killContainer);
 
         // Collapse the player list when someone clicks the title
         logTitle.addMouseListener(new MouseAdapter() {
@@ -99,20 +90,13 @@ public class KillTrackerBox extends JPanel {
                     } else {
                         collapse();
                     }
+                    panel.killCollapseChanged(getId(), isCollapsed());
                 }
             }
         });
 
-        final JMenuItem deleteKill = new JMenuItem("Delete Kill");
-        deleteKill.addActionListener(e -> {
-            this.panel.removeKill(id);
-        });
-
-        // Create right click delete menu
-        final JPopupMenu popupMenu = new JPopupMenu();
-        popupMenu.setBorder(new EmptyBorder(5, 5, 5, 5));
-        popupMenu.add(deleteKill);
-        logTitle.setComponentPopupMenu(popupMenu);
+        // Right click delete menu, shared by every row
+        panel.getRowMenus().attachKillMenu(logTitle);
 
         GridBagConstraints constraints = new GridBagConstraints();
         constraints.fill = GridBagConstraints.HORIZONTAL;
@@ -124,76 +108,140 @@ public class KillTrackerBox extends JPanel {
 
         constraints.gridy++;
         add(killList, constraints);
+
+        if (collapsed) {
+            collapse();
+        }
+        update(id, bossKillEvent, searchString);
     }
 
-    private void buildKillList() {
-        boolean hasItemMatch = false;
-        boolean hasOwnerMatch = false;
+    /**
+     * Re-point this box at a (possibly different) kill and refresh its labels in place.
+     * The collapsed state is kept so in-progress updates don't fight the user.
+     */
+    void update(final UUID id, final BossKillEvent bossKillEvent, final String searchString) {
+        this.id = id;
+        this.bossKillEvent = bossKillEvent;
+        this.searchString = searchString;
+
+        logTitle.setBackground(bossKillEvent.isInProgress() ? ColorScheme.BRAND_ORANGE : ColorScheme.DARKER_GRAY_COLOR.darker());
+        final String killTime = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT).withZone(ZoneId.systemDefault()).format(bossKillEvent.getTime());
+        final BossDefinition boss = BossRegistry.forNpcId(bossKillEvent.getBossId());
+        logTitle.setToolTipText(boss == null ? killTime : boss.getName() + " - " + killTime);
+
+        titleLabel.setText(bossKillEvent.getKillOwner()); // Who got the kill
+
+        subTitleLabel.setText(bossKillEvent.isInProgress() ? "" : bossKillEvent.getItem().getDropName()); // Item Name
+        subTitleLabel.setMinimumSize(new Dimension(1, subTitleLabel.getPreferredSize().height));
 
-        if (this.searchString != null) {
-            hasItemMatch = this.bossKillEvent.getItem().getName().toLowerCase().contains(this.searchString);
-            hasOwnerMatch = this.bossKillEvent.getKillOwner().toLowerCase().contains(this.searchString);
+        priceLabel.setText("");
+        priceLabel.setToolTipText(null);
+        if (!bossKillEvent.isInProgress()) {
+            priceLabel.setText(QuantityFormatter.quantityToStackSize(bossKillEvent.getItem().getDropGePrice()) + " gp"); // Short value
+            priceLabel.setToolTipText(QuantityFormatter.formatNumber(bossKillEvent.getItem().getDropGePrice()) + " gp"); // Full value
         }
 
-        boolean hasMatch = hasItemMatch || hasOwnerMatch;
+        if (isCollapsed()) {
+            killListStale = true;
+        } else {
+            buildKillList();
+        }
+    }
+
+    /**
+     * @param collapseBefore from {@link CorpEventTrackerPanel#getCollapseBefore()}
+     * @return whether a row for the kill starts out collapsed
+     */
+    static boolean isCollapsedByDefault(BossKillEvent kill, Instant collapseBefore) {
+        return collapseBefore != null && !kill.isInProgress() && kill.getTime().isBefore(collapseBefore);
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    BossKillEvent getBossKillEvent() {
+        return bossKillEvent;
+    }
+
+    private void buildKillList() {
+        final KillSearchIndex searchIndex = this.panel.getSearchIndex();
+        boolean hasMatch = this.searchString == null
+                || searchIndex.nameMatches(this.bossKillEvent.getItem().getName(), this.searchString)
+                || this.bossKillEvent.getItem().getExtras().stream().anyMatch(extra -> searchIndex.nameMatches(extra.getName(), this.searchString))
+                || searchIndex.nameMatches(this.bossKillEvent.getKillOwner(), this.searchString);
 
         List<String> filteredParticipants = this.bossKillEvent
                 .getParticipants()
                 .stream()
                 .sorted()
-                .filter(p -> this.searchString == null || hasMatch || p.toLowerCase().contains(this.searchString))
+                .filter(p -> hasMatch || searchIndex.nameMatches(p, this.searchString))
                 .collect(Collectors.toList());
 
-        killList.removeAll();
-
-        final JPanel killContainer = new JPanel();
+        killListStale = false;
+        killContainer.removeAll();
         int participantCount = filteredParticipants.size();
+        final long totalDamage = this.bossKillEvent.getTotalDamage();
 
         if (participantCount > 0) {
             int rowCount = ((participantCount % 2 == 0) ? 0 : 1) + participantCount / 2;
-            killContainer.setLayout(new GridLayout(rowCount, 2, 1, 1));
+            participantGrid.setRows(rowCount);
+            killContainer.setLayout(participantGrid);
 
-            filteredParticipants.forEach(participant -> {
-                final JLabel playerLabel = new JLabel();
+            for (int i = 0; i < participantCount; i++) {
+                final String participant = filteredParticipants.get(i);
+                final JLabel playerLabel = participantLabel(i);
                 playerLabel.setText(participant);
-                playerLabel.setFont(FontManager.getRunescapeSmallFont());
-                playerLabel.setForeground(Color.WHITE);
-                playerLabel.setBorder(new EmptyBorder(2, 7, 2, 0));
-
-                // Add menu to allow removing of a player
-                final JMenuItem removePlayer = new JMenuItem("Remove Player");
-                removePlayer.addActionListener(e -> {
-                    this.panel.removePlayerFromKill(id, participant);
-                });
-
-                final JMenuItem filterPlayer = new JMenuItem("Filter on Player");
-                filterPlayer.addActionListener(e -> {
-                    this.panel.setFilter(participant);
-                });
-
-                // Create right click delete menu
-                final JPopupMenu popupMenu = new JPopupMenu();
-                popupMenu.setBorder(new EmptyBorder(5, 5, 5, 5));
-                popupMenu.add(removePlayer);
-                popupMenu.add(filterPlayer);
-                playerLabel.setComponentPopupMenu(popupMenu);
+                playerLabel.setToolTipText(null);
+                if (totalDamage > 0) {
+                    // Share of the damage seen on the boss. Only our own hits are known, everyone
+                    // else's hits were split evenly between the other attackers.
+                    final int damage = this.bossKillEvent.getDamage(participant);
+                    final long share = Math.round(damage * 100.0 / totalDamage);
+                    if (participant.equals(this.panel.getLocalPlayer())) {
+                        playerLabel.setText(String.format("%s (%d%%)", participant, share));
+                        playerLabel.setToolTipText(QuantityFormatter.formatNumber(damage) + " damage");
+                    } else {
+                        playerLabel.setText(String.format("%s (~%d%%)", participant, share));
+                        playerLabel.setToolTipText("About " + QuantityFormatter.formatNumber(damage)
+                                + " damage, estimated from hits split evenly between the other attackers");
+                    }
+                }
+
+                // Menu to allow removing of a player, shared by every label
+                this.panel.getRowMenus().attachParticipantMenu(playerLabel, participant);
 
                 killContainer.add(playerLabel);
-            });
+            }
         } else {
-            killContainer.setLayout(new GridLayout(1, 1, 1, 1));
-            final JLabel noPlayerLabel = new JLabel();
-            noPlayerLabel.setText("@@  No Participants Identified  @@");
-            noPlayerLabel.setFont(FontManager.getRunescapeFont());
-            noPlayerLabel.setForeground(Color.WHITE);
-            noPlayerLabel.setBorder(new EmptyBorder(2, 10, 2, 0));
+            killContainer.setLayout(noParticipantGrid);
+            if (noPlayerLabel == null) {
+                noPlayerLabel = new JLabel();
+                noPlayerLabel.setText("@@  No Participants Identified  @@");
+                noPlayerLabel.setFont(FontManager.getRunescapeFont());
+                noPlayerLabel.setForeground(Color.WHITE);
+                noPlayerLabel.setBorder(new EmptyBorder(2, 10, 2, 0));
+            }
             killContainer.add(noPlayerLabel);
         }
 
-        killList.add(killContainer);
+        killList.revalidate();
         killList.repaint();
     }
 
+    private JLabel participantLabel(int index) {
+        if (index < participantLabels.size()) {
+            return participantLabels.get(index);
+        }
+
+        final JLabel playerLabel = new JLabel();
+        playerLabel.setFont(FontManager.getRunescapeSmallFont());
+        playerLabel.setForeground(Color.WHITE);
+        playerLabel.setBorder(new EmptyBorder(2, 7, 2, 0));
+        participantLabels.add(playerLabel);
+        return playerLabel;
+    }
+
     void collapse() {
         log.info("Collapsing");
         if (!isCollapsed())
@@ -207,6 +255,9 @@ public class KillTrackerBox extends JPanel {
         log.info("Expanding");
         if (isCollapsed())
         {
+            if (killListStale) {
+                buildKillList();
+            }
             killList.setVisible(true);
             applyDimmer(true, logTitle);
         }
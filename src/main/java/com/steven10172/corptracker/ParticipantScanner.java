@@ -0,0 +1,74 @@
+package com.steven10172.corptracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds players attacking the boss, driven by game ticks.
+ *
+ * While someone is attacking the boss the players are scanned every tick. Once a scan finds
+ * nobody attacking, the interval doubles up to {@link #MAX_IDLE_INTERVAL_TICKS}, and it drops
+ * straight back to every tick as soon as an attacker shows up again.
+ */
+class ParticipantScanner {
+    static final int MAX_IDLE_INTERVAL_TICKS = 8;
+
+    private int interval = 1;
+    private int ticksUntilScan = 0;
+
+    /**
+     * Scan on the next tick, e.g. when the boss spawns or someone starts attacking it
+     */
+    void reset() {
+        interval = 1;
+        ticksUntilScan = 0;
+    }
+
+    /**
+     * @return true when the next {@link #tick()} will ask for a scan
+     */
+    boolean isDue() {
+        return ticksUntilScan <= 1;
+    }
+
+    /**
+     * Called once per game tick
+     *
+     * @return true when a scan is due
+     */
+    boolean tick() {
+        return --ticksUntilScan <= 0;
+    }
+
+    /**
+     * Add every player interacting with the target NPC to the participants
+     *
+     * @return the players that were not participants yet, usually empty
+     */
+    List<String> scan(List<KillEvent.Interaction> interactions, int npcIndex, Set<String> participants) {
+        List<String> added = null;
+        boolean attacked = false;
+
+        for (KillEvent.Interaction interaction : interactions) {
+            if (interaction.getNpcIndex() != npcIndex) {
+                continue;
+            }
+
+            attacked = true;
+            final String name = interaction.getPlayer();
+            if (name != null && participants.add(name)) {
+                if (added == null) {
+                    added = new ArrayList<>();
+                }
+                added.add(name);
+            }
+        }
+
+        interval = attacked ? 1 : Math.min(interval * 2, MAX_IDLE_INTERVAL_TICKS);
+        ticksUntilScan = interval;
+
+        return added == null ? Collections.emptyList() : added;
+    }
+}
@@ -0,0 +1,99 @@
+package com.steven10172.corptracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps player names to small stable ids so kills can share one copy of each name.
+ * Names are matched case-insensitively, the first spelling seen is the one displayed.
+ *
+ * The plugin owns one dictionary for its lifetime and hands it to everything that stores or
+ * resolves ids. Ids are only meaningful to the dictionary that issued them.
+ */
+final class PlayerDictionary {
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final Map<String, Integer> idsByLowerCase = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<String> lowerCaseNames = new ArrayList<>();
+
+    synchronized int getId(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        final String lowerCase = name.toLowerCase();
+        id = idsByLowerCase.get(lowerCase);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            lowerCaseNames.add(lowerCase);
+            idsByLowerCase.put(lowerCase, id);
+        }
+        idsByName.put(name, id);
+
+        return id;
+    }
+
+    /**
+     * @return the id of a known name, or -1 without registering it
+     */
+    synchronized int findId(String name) {
+        Integer id = idsByName.get(name);
+        if (id == null) {
+            id = idsByLowerCase.get(name.toLowerCase());
+        }
+        return id == null ? -1 : id;
+    }
+
+    synchronized String getName(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Which ids have a name containing the (lowercase) query, indexed by id
+     */
+    synchronized boolean[] matchNames(String query) {
+        final boolean[] matches = new boolean[lowerCaseNames.size()];
+        for (int id = 0; id < matches.length; id++) {
+            matches[id] = lowerCaseNames.get(id).contains(query);
+        }
+        return matches;
+    }
+
+    synchronized int size() {
+        return names.size();
+    }
+
+    /**
+     * Sorted, de-duplicated ids for a set of names
+     */
+    int[] encode(Collection<String> participants) {
+        final int[] ids = new int[participants.size()];
+        int count = 0;
+        for (String participant : participants) {
+            ids[count++] = getId(participant);
+        }
+
+        Arrays.sort(ids);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || ids[unique - 1] != ids[i]) {
+                ids[unique++] = ids[i];
+            }
+        }
+        return unique == ids.length ? ids : Arrays.copyOf(ids, unique);
+    }
+
+    synchronized List<String> decode(int[] ids) {
+        final List<String> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(names.get(id));
+        }
+        return result;
+    }
+}
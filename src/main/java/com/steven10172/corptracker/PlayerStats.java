@@ -0,0 +1,174 @@
+package com.steven10172.corptracker;
+
+import java.util.Arrays;
+
+/**
+ * Per-player attendance and loot numbers over the completed kills, kept in arrays indexed by
+ * {@link PlayerDictionary} id. Adding or removing a kill only touches its owner and participants.
+ *
+ * A player's split of a kill is the drop's GE value divided by the number of participants.
+ * Last seen can't be rolled back when the latest kill of a player goes away, so it is
+ * recomputed from the {@link KillStore} the next time it is read. Kills moved to the
+ * {@link KillArchive} stay counted, with their last seen times kept aside for that recount.
+ *
+ * Not thread safe, owned by the panel on the EDT.
+ */
+class PlayerStats {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final KillStore killStore;
+
+    private int[] attended = new int[INITIAL_CAPACITY];
+    private int[] owned = new int[INITIAL_CAPACITY];
+    private long[] splitValue = new long[INITIAL_CAPACITY];
+    private long[] lastSeen = new long[INITIAL_CAPACITY];
+    // Latest archived kill of each player, the store no longer has those
+    private long[] archivedLastSeen = new long[INITIAL_CAPACITY];
+    private boolean lastSeenStale;
+
+    PlayerStats(KillStore killStore) {
+        this.killStore = killStore;
+    }
+
+    void add(BossKillEvent kill) {
+        if (kill.isInProgress()) {
+            return;
+        }
+
+        final int[] participants = kill.getParticipantIds();
+        final long split = split(kill);
+        final long time = kill.getTime().toEpochMilli();
+        final int owner = kill.getDictionary().getId(kill.getKillOwner());
+        ensureCapacity(Math.max(owner, participants.length == 0 ? 0 : participants[participants.length - 1]) + 1);
+
+        owned[owner]++;
+        for (int id : participants) {
+            attended[id]++;
+            splitValue[id] += split;
+            if (time > lastSeen[id]) {
+                lastSeen[id] = time;
+            }
+        }
+    }
+
+    void remove(BossKillEvent kill) {
+        if (kill.isInProgress()) {
+            return;
+        }
+
+        final int[] participants = kill.getParticipantIds();
+        final long split = split(kill);
+        final long time = kill.getTime().toEpochMilli();
+
+        owned[kill.getDictionary().getId(kill.getKillOwner())]--;
+        for (int id : participants) {
+            attended[id]--;
+            splitValue[id] -= split;
+            if (time >= lastSeen[id]) {
+                lastSeenStale = true;
+            }
+        }
+    }
+
+    /**
+     * Add a player's numbers over kills that were counted elsewhere, like an archive segment's summary
+     */
+    void addPlayer(int id, int killsAttended, int killsOwned, long totalSplitValue, long lastSeenTime) {
+        ensureCapacity(id + 1);
+        attended[id] += killsAttended;
+        owned[id] += killsOwned;
+        splitValue[id] += totalSplitValue;
+        lastSeen[id] = Math.max(lastSeen[id], lastSeenTime);
+        archivedLastSeen[id] = Math.max(archivedLastSeen[id], lastSeenTime);
+    }
+
+    void add(PlayerStats stats) {
+        ensureCapacity(stats.attended.length);
+        for (int id = 0; id < stats.attended.length; id++) {
+            attended[id] += stats.attended[id];
+            owned[id] += stats.owned[id];
+            splitValue[id] += stats.splitValue[id];
+            lastSeen[id] = Math.max(lastSeen[id], stats.lastSeen[id]);
+            archivedLastSeen[id] = Math.max(archivedLastSeen[id], stats.archivedLastSeen[id]);
+        }
+    }
+
+    /**
+     * A counted kill was moved out of the store into the archive, it stays counted
+     */
+    void archive(BossKillEvent kill) {
+        final long time = kill.getTime().toEpochMilli();
+        for (int id : kill.getParticipantIds()) {
+            archivedLastSeen[id] = Math.max(archivedLastSeen[id], time);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(attended, 0);
+        Arrays.fill(owned, 0);
+        Arrays.fill(splitValue, 0);
+        Arrays.fill(lastSeen, 0);
+        Arrays.fill(archivedLastSeen, 0);
+        lastSeenStale = false;
+    }
+
+    /**
+     * Dictionary ids of every player that attended or owned at least one kill
+     */
+    int[] getPlayers() {
+        final int[] players = new int[attended.length];
+        int count = 0;
+        for (int id = 0; id < attended.length; id++) {
+            if (attended[id] > 0 || owned[id] > 0) {
+                players[count++] = id;
+            }
+        }
+        return Arrays.copyOf(players, count);
+    }
+
+    int getKillsAttended(int id) {
+        return attended[id];
+    }
+
+    int getKillsOwned(int id) {
+        return owned[id];
+    }
+
+    long getTotalSplitValue(int id) {
+        return splitValue[id];
+    }
+
+    long getAverageSplitValue(int id) {
+        return attended[id] == 0 ? 0 : splitValue[id] / attended[id];
+    }
+
+    /**
+     * @return epoch millis of the player's latest kill, 0 if they never attended one
+     */
+    long getLastSeen(int id) {
+        if (lastSeenStale) {
+            System.arraycopy(archivedLastSeen, 0, lastSeen, 0, lastSeen.length);
+            killStore.lastSeenByPlayer(lastSeen);
+            lastSeenStale = false;
+        }
+        return lastSeen[id];
+    }
+
+    private static long split(BossKillEvent kill) {
+        final int participants = kill.getParticipantCount();
+        return participants == 0 ? 0 : kill.getItem().getDropGePrice() / participants;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= attended.length) {
+            return;
+        }
+
+        final int newCapacity = Math.max(capacity, attended.length * 2);
+        attended = Arrays.copyOf(attended, newCapacity);
+        owned = Arrays.copyOf(owned, newCapacity);
+        splitValue = Arrays.copyOf(splitValue, newCapacity);
+        lastSeen = Arrays.copyOf(lastSeen, newCapacity);
+        archivedLastSeen = Arrays.copyOf(archivedLastSeen, newCapacity);
+    }
+}
@@ -0,0 +1,146 @@
+package com.steven10172.corptracker;
+
+import net.runelite.client.ui.ColorScheme;
+import net.runelite.client.ui.FontManager;
+import net.runelite.client.util.QuantityFormatter;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTable;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.SwingConstants;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableRowSorter;
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.event.MouseEvent;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.Collections;
+
+/**
+ * One table row per player out of {@link PlayerStats}. The table only renders the visible rows,
+ * so opening it costs the same on a 50k kill history as on an empty one.
+ */
+class PlayerStatsView extends JPanel {
+    private static final int PLAYER_COLUMN = 0;
+    private static final int KILLS_COLUMN = 1;
+    private static final int SPLIT_COLUMN = 2;
+    private static final String[] COLUMN_NAMES = {"Player", "Kills", "Split"};
+
+    private final PlayerStats stats;
+    private final PlayerDictionary dictionary;
+    private final StatsTableModel model = new StatsTableModel();
+    private final JTable table = new JTable(model) {
+        @Override
+        public String getToolTipText(MouseEvent event) {
+            final int row = rowAtPoint(event.getPoint());
+            return row < 0 ? null : tooltip(model.players[convertRowIndexToModel(row)]);
+        }
+    };
+
+    PlayerStatsView(PlayerStats stats, PlayerDictionary dictionary) {
+        super(new BorderLayout());
+        this.stats = stats;
+        this.dictionary = dictionary;
+
+        table.setFont(FontManager.getRunescapeSmallFont());
+        table.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+        table.setGridColor(ColorScheme.DARK_GRAY_COLOR);
+        table.setFillsViewportHeight(true);
+        table.setRowSelectionAllowed(false);
+        final StatsCellRenderer renderer = new StatsCellRenderer();
+        table.setDefaultRenderer(String.class, renderer);
+        table.setDefaultRenderer(Integer.class, renderer);
+        table.setDefaultRenderer(Long.class, renderer);
+        table.getColumnModel().getColumn(PLAYER_COLUMN).setPreferredWidth(110);
+
+        final TableRowSorter<StatsTableModel> sorter = new TableRowSorter<>(model);
+        sorter.setSortKeys(Collections.singletonList(new RowSorter.SortKey(SPLIT_COLUMN, SortOrder.DESCENDING)));
+        table.setRowSorter(sorter);
+
+        // The table isn't the view of its own scroll pane, so the header has to be added by hand
+        add(table.getTableHeader(), BorderLayout.NORTH);
+        add(table, BorderLayout.CENTER);
+    }
+
+    /**
+     * Re-read the player list, call after kills changed while the view is showing
+     */
+    void refresh() {
+        model.players = stats.getPlayers();
+        model.fireTableDataChanged();
+    }
+
+    private String tooltip(int id) {
+        final StringBuilder tooltip = new StringBuilder("<html>")
+                .append("Kills owned: ").append(stats.getKillsOwned(id))
+                .append("<br>Average split: ").append(QuantityFormatter.formatNumber(stats.getAverageSplitValue(id))).append(" gp")
+                .append("<br>Total split: ").append(QuantityFormatter.formatNumber(stats.getTotalSplitValue(id))).append(" gp");
+
+        final long lastSeen = stats.getLastSeen(id);
+        if (lastSeen > 0) {
+            tooltip.append("<br>Last seen: ").append(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT)
+                    .withZone(ZoneId.systemDefault()).format(Instant.ofEpochMilli(lastSeen)));
+        }
+        return tooltip.append("</html>").toString();
+    }
+
+    private class StatsTableModel extends AbstractTableModel {
+        private int[] players = new int[0];
+
+        @Override
+        public int getRowCount() {
+            return players.length;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            switch (column) {
+                case KILLS_COLUMN:
+                    return Integer.class;
+                case SPLIT_COLUMN:
+                    return Long.class;
+                default:
+                    return String.class;
+            }
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            final int id = players[row];
+            switch (column) {
+                case KILLS_COLUMN:
+                    return stats.getKillsAttended(id);
+                case SPLIT_COLUMN:
+                    return stats.getTotalSplitValue(id);
+                default:
+                    return dictionary.getName(id);
+            }
+        }
+    }
+
+    private static class StatsCellRenderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+            final Object text = value instanceof Long ? QuantityFormatter.quantityToStackSize((Long) value) : value;
+            final JLabel label = (JLabel) super.getTableCellRendererComponent(table, text, false, false, row, column);
+            label.setHorizontalAlignment(column == PLAYER_COLUMN ? SwingConstants.LEFT : SwingConstants.RIGHT);
+            return label;
+        }
+    }
+}
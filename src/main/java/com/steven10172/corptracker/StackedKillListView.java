@@ -0,0 +1,124 @@
+package com.steven10172.corptracker;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps one {@link KillTrackerBox} per kill stacked in a single panel. Rows are kept
+ * keyed by UUID so single kill changes only touch their own row.
+ */
+class StackedKillListView extends JPanel implements KillListView {
+    private final Map<UUID, KillTrackerBox> killBoxes = new HashMap<>();
+    private final GridBagConstraints killConstraints = new GridBagConstraints();
+    private final CorpEventTrackerPanel panel;
+
+    StackedKillListView(final CorpEventTrackerPanel panel) {
+        super(new GridBagLayout());
+        this.panel = panel;
+
+        // Rows are stacked in component order so a kill can be inserted at any index
+        killConstraints.fill = GridBagConstraints.HORIZONTAL;
+        killConstraints.weightx = 1;
+        killConstraints.gridx = 0;
+        killConstraints.gridy = GridBagConstraints.RELATIVE;
+    }
+
+    @Override
+    public JComponent getComponent() {
+        return this;
+    }
+
+    @Override
+    public void setKills(List<BossKillEvent> kills, String searchString) {
+        final Map<UUID, KillTrackerBox> previousBoxes = new HashMap<>(killBoxes);
+        killBoxes.clear();
+        removeAll();
+
+        final Instant collapseBefore = panel.getCollapseBefore();
+        for (BossKillEvent bossKillEvent : kills) {
+            UUID id = bossKillEvent.getUuid();
+            KillTrackerBox kill = previousBoxes.get(id);
+            if (kill == null) {
+                kill = new KillTrackerBox(id, bossKillEvent, panel, searchString,
+                        KillTrackerBox.isCollapsedByDefault(bossKillEvent, collapseBefore));
+            } else {
+                kill.update(id, bossKillEvent, searchString);
+            }
+            killBoxes.put(id, kill);
+            add(kill, killConstraints);
+        }
+
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Rows only move when the kill time changed (in-progress kills are re-stamped on every update).
+     */
+    @Override
+    public void updateKill(BossKillEvent bossKill, String searchString) {
+        final UUID id = bossKill.getUuid();
+        KillTrackerBox box = killBoxes.get(id);
+
+        if (box == null) {
+            box = new KillTrackerBox(id, bossKill, panel, searchString,
+                    KillTrackerBox.isCollapsedByDefault(bossKill, panel.getCollapseBefore()));
+            killBoxes.put(id, box);
+        } else {
+            final boolean moved = !box.getBossKillEvent().getTime().equals(bossKill.getTime());
+            box.update(id, bossKill, searchString);
+            if (moved) {
+                remove(box);
+            }
+        }
+
+        if (box.getParent() != this) {
+            add(box, killConstraints, findInsertIndex(bossKill.getTime()));
+        }
+
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    public void removeKill(UUID id) {
+        KillTrackerBox box = killBoxes.remove(id);
+        if (box != null) {
+            remove(box);
+            revalidate();
+            repaint();
+        }
+    }
+
+    @Override
+    public void killCollapseChanged(UUID id, boolean collapsed) {
+        // Rows are always materialized, the layout picks up the new size on its own
+    }
+
+    /**
+     * Binary search the rendered rows (newest first) for where a kill at the given time belongs.
+     */
+    private int findInsertIndex(Instant time) {
+        int low = 0;
+        int high = getComponentCount();
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            KillTrackerBox box = (KillTrackerBox) getComponent(mid);
+            if (box.getBossKillEvent().getTime().compareTo(time) >= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+}
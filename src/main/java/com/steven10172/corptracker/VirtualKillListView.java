@@ -0,0 +1,435 @@
+package com.steven10172.corptracker;
+
+import net.runelite.client.ui.PluginPanel;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeListener;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Windowed kill list that only materializes {@link KillTrackerBox} rows inside the scroll viewport.
+ * Rows that scroll out of view are recycled for the rows scrolling in.
+ *
+ * Row offsets come from estimated heights (collapsed title, plus a line per two participants when
+ * expanded) kept in a Fenwick tree. Once a row has been rendered its measured height replaces the
+ * estimate. Finding the first visible row and changing a row's height are O(log n), so scrolling
+ * and layout only cost as much as the rows on screen.
+ *
+ * Rows sit in the middle of a larger slot array, with empty zero height slots on both sides. A new
+ * kill at the top or a paged in kill at the bottom takes the next free slot, an O(log n) update.
+ * Inserting or removing anywhere else shifts the rows after it and rebuilds the tree in O(n), as
+ * does running out of free slots on that side.
+ */
+class VirtualKillListView extends JPanel implements KillListView {
+    private static final int COLLAPSED_HEIGHT_ESTIMATE = 40;
+    private static final int PARTICIPANT_ROW_HEIGHT_ESTIMATE = 18;
+
+    private final CorpEventTrackerPanel panel;
+    private final ChangeListener viewportListener = e -> layoutVisibleRows();
+
+    // Newest first, same order as the stacked list, in slots [head, head + rowCount)
+    private BossKillEvent[] slots = new BossKillEvent[16];
+    private int head = 8;
+    private int rowCount;
+    private final Map<UUID, BossKillEvent> rowsById = new HashMap<>();
+    // Rows the user collapsed (true) or expanded (false), the rest follow the collapse cutoff
+    private final Map<UUID, Boolean> collapseToggles = new HashMap<>();
+    private final Map<UUID, Integer> measuredHeights = new HashMap<>();
+
+    private final Map<UUID, KillTrackerBox> visibleBoxes = new HashMap<>();
+    private final Deque<KillTrackerBox> recycledBoxes = new ArrayDeque<>();
+
+    // Row heights by slot, zero for empty slots, and their Fenwick tree
+    private int[] heights = new int[16];
+    private int[] heightTree = new int[17];
+    private int totalHeight = 0;
+    private String searchString;
+    private Instant collapseBefore;
+    private JViewport viewport;
+
+    VirtualKillListView(final CorpEventTrackerPanel panel) {
+        super(null);
+        this.panel = panel;
+    }
+
+    @Override
+    public JComponent getComponent() {
+        return this;
+    }
+
+    @Override
+    public void setKills(List<BossKillEvent> kills, String searchString) {
+        this.searchString = searchString;
+        this.collapseBefore = panel.getCollapseBefore();
+        rowsById.clear();
+        for (BossKillEvent kill : kills) {
+            rowsById.put(kill.getUuid(), kill);
+        }
+        collapseToggles.keySet().retainAll(rowsById.keySet());
+
+        // The participant filter changes with the search, so old rows and measurements are useless
+        measuredHeights.clear();
+        for (KillTrackerBox box : visibleBoxes.values()) {
+            box.setVisible(false);
+            recycledBoxes.push(box);
+        }
+        visibleBoxes.clear();
+
+        rebuildHeights(kills);
+    }
+
+    @Override
+    public void updateKill(BossKillEvent kill, String searchString) {
+        this.searchString = searchString;
+        final UUID id = kill.getUuid();
+        final BossKillEvent previous = rowsById.put(id, kill);
+        measuredHeights.remove(id);
+
+        if (previous != null) {
+            int row = findRow(previous);
+            if (previous.getTime().equals(kill.getTime())) {
+                // Same place in the list, only the height may change
+                slots[head + row] = kill;
+                setRowHeight(row, estimateHeight(kill));
+                revalidate();
+                repaint();
+                return;
+            }
+            removeRow(row);
+        }
+
+        insertRow(findInsertIndex(kill.getTime()), kill, estimateHeight(kill));
+    }
+
+    @Override
+    public void removeKill(UUID id) {
+        final BossKillEvent previous = rowsById.remove(id);
+        if (previous == null) {
+            return;
+        }
+
+        removeRow(findRow(previous));
+        collapseToggles.remove(id);
+        measuredHeights.remove(id);
+    }
+
+    @Override
+    public void killCollapseChanged(UUID id, boolean collapsed) {
+        collapseToggles.put(id, collapsed);
+        measuredHeights.remove(id);
+
+        BossKillEvent kill = rowsById.get(id);
+        if (kill != null) {
+            int row = findRow(kill);
+            setRowHeight(row, estimateHeight(kill));
+        }
+
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(PluginPanel.PANEL_WIDTH, totalHeight);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, this);
+        if (viewport != null) {
+            viewport.addChangeListener(viewportListener);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        if (viewport != null) {
+            viewport.removeChangeListener(viewportListener);
+            viewport = null;
+        }
+        super.removeNotify();
+    }
+
+    @Override
+    public void doLayout() {
+        layoutVisibleRows();
+    }
+
+    /**
+     * Materialize the rows intersecting the visible rectangle and recycle everything else.
+     */
+    private void layoutVisibleRows() {
+        final Rectangle visible = getVisibleRect();
+        final int width = getWidth();
+        final Map<UUID, KillTrackerBox> previouslyVisible = new HashMap<>(visibleBoxes);
+        visibleBoxes.clear();
+
+        boolean resized = false;
+        int row = rowAtOffset(visible.y);
+        int y = offsetOfRow(row);
+
+        while (row < rowCount && y < visible.y + visible.height) {
+            final BossKillEvent kill = slots[head + row];
+            final UUID id = kill.getUuid();
+
+            KillTrackerBox box = previouslyVisible.remove(id);
+            if (box == null) {
+                box = obtainBox(kill);
+            } else if (box.getBossKillEvent() != kill) {
+                box.update(id, kill, searchString);
+            }
+            visibleBoxes.put(id, box);
+
+            int height = box.getPreferredSize().height;
+            if (height != heights[head + row]) {
+                measuredHeights.put(id, height);
+                setRowHeight(row, height);
+                resized = true;
+            }
+
+            box.setBounds(0, y, width, height);
+            box.setVisible(true);
+            box.validate();
+
+            y += height;
+            row++;
+        }
+
+        for (KillTrackerBox box : previouslyVisible.values()) {
+            box.setVisible(false);
+            recycledBoxes.push(box);
+        }
+
+        if (resized) {
+            // The estimate was off, let the scroll pane pick up the corrected total height
+            revalidate();
+        }
+        repaint();
+    }
+
+    private KillTrackerBox obtainBox(BossKillEvent kill) {
+        KillTrackerBox box = recycledBoxes.poll();
+        if (box == null) {
+            box = new KillTrackerBox(kill.getUuid(), kill, panel, searchString, isCollapsed(kill));
+            add(box);
+        } else {
+            // Collapse first so a recycled box doesn't build a player list it won't show
+            if (isCollapsed(kill)) {
+                box.collapse();
+            }
+            box.update(kill.getUuid(), kill, searchString);
+            if (!isCollapsed(kill)) {
+                box.expand();
+            }
+        }
+
+        return box;
+    }
+
+    private int estimateHeight(BossKillEvent kill) {
+        Integer measured = measuredHeights.get(kill.getUuid());
+        if (measured != null) {
+            return measured;
+        }
+
+        if (isCollapsed(kill)) {
+            return COLLAPSED_HEIGHT_ESTIMATE;
+        }
+
+        int participantRows = Math.max(1, (kill.getParticipantCount() + 1) / 2);
+        return COLLAPSED_HEIGHT_ESTIMATE + participantRows * PARTICIPANT_ROW_HEIGHT_ESTIMATE;
+    }
+
+    private boolean isCollapsed(BossKillEvent kill) {
+        final Boolean toggled = collapseToggles.get(kill.getUuid());
+        return toggled != null ? toggled : KillTrackerBox.isCollapsedByDefault(kill, collapseBefore);
+    }
+
+    private void rebuildHeights(List<BossKillEvent> kills) {
+        rowCount = kills.size();
+        final int capacity = Math.max(16, rowCount * 2);
+        slots = new BossKillEvent[capacity];
+        heights = new int[capacity];
+        head = (capacity - rowCount) / 2;
+        for (int row = 0; row < rowCount; row++) {
+            final BossKillEvent kill = kills.get(row);
+            slots[head + row] = kill;
+            heights[head + row] = estimateHeight(kill);
+        }
+
+        rebuildHeightTree();
+    }
+
+    private void insertRow(int row, BossKillEvent kill, int height) {
+        if (rowCount == slots.length || (row == 0 && head == 0) || (row == rowCount && head + rowCount == slots.length)) {
+            // Out of free slots on that side, start over with room on both
+            recenter(Math.max(16, (rowCount + 1) * 2));
+        }
+
+        if (row == 0 && head > 0) {
+            head--;
+        } else if (row < rowCount) {
+            // Make room in the middle by moving the shorter side out a slot
+            if (head > 0 && (row < rowCount / 2 || head + rowCount == slots.length)) {
+                System.arraycopy(slots, head, slots, head - 1, row);
+                System.arraycopy(heights, head, heights, head - 1, row);
+                head--;
+            } else {
+                System.arraycopy(slots, head + row, slots, head + row + 1, rowCount - row);
+                System.arraycopy(heights, head + row, heights, head + row + 1, rowCount - row);
+            }
+            slots[head + row] = kill;
+            heights[head + row] = height;
+            rowCount++;
+            rebuildHeightTree();
+            return;
+        }
+
+        slots[head + row] = kill;
+        rowCount++;
+        setRowHeight(row, height);
+        revalidate();
+        repaint();
+    }
+
+    private void removeRow(int row) {
+        if (row == 0 || row == rowCount - 1) {
+            setRowHeight(row, 0);
+            slots[head + row] = null;
+            if (row == 0) {
+                head++;
+            }
+            rowCount--;
+            revalidate();
+            repaint();
+            return;
+        }
+
+        System.arraycopy(slots, head + row + 1, slots, head + row, rowCount - row - 1);
+        System.arraycopy(heights, head + row + 1, heights, head + row, rowCount - row - 1);
+        rowCount--;
+        slots[head + rowCount] = null;
+        heights[head + rowCount] = 0;
+        rebuildHeightTree();
+    }
+
+    private void recenter(int capacity) {
+        final BossKillEvent[] newSlots = new BossKillEvent[capacity];
+        final int[] newHeights = new int[capacity];
+        final int newHead = (capacity - rowCount) / 2;
+        System.arraycopy(slots, head, newSlots, newHead, rowCount);
+        System.arraycopy(heights, head, newHeights, newHead, rowCount);
+        slots = newSlots;
+        heights = newHeights;
+        head = newHead;
+        rebuildHeightTree();
+    }
+
+    /**
+     * Linear Fenwick construction, for when rows shift
+     */
+    private void rebuildHeightTree() {
+        final int size = heights.length;
+        if (heightTree.length != size + 1) {
+            heightTree = new int[size + 1];
+        } else {
+            Arrays.fill(heightTree, 0);
+        }
+
+        totalHeight = 0;
+        for (int node = 1; node <= size; node++) {
+            totalHeight += heights[node - 1];
+            heightTree[node] += heights[node - 1];
+            int parent = node + (node & -node);
+            if (parent <= size) {
+                heightTree[parent] += heightTree[node];
+            }
+        }
+
+        revalidate();
+        repaint();
+    }
+
+    private void setRowHeight(int row, int height) {
+        final int slot = head + row;
+        final int delta = height - heights[slot];
+        heights[slot] = height;
+        totalHeight += delta;
+
+        for (int node = slot + 1; node < heightTree.length; node += node & -node) {
+            heightTree[node] += delta;
+        }
+    }
+
+    /**
+     * Sum of the heights of every row before the given one
+     */
+    int offsetOfRow(int row) {
+        int offset = 0;
+        for (int node = head + row; node > 0; node -= node & -node) {
+            offset += heightTree[node];
+        }
+        return offset;
+    }
+
+    /**
+     * Index of the row containing the pixel offset, or the row count when past the end
+     */
+    int rowAtOffset(int offset) {
+        int slot = 0;
+        int remaining = offset;
+
+        // The empty slots before the head have no height, so the search never stops short of it
+        for (int step = Integer.highestOneBit(heights.length); step > 0; step >>= 1) {
+            int node = slot + step;
+            if (node <= heights.length && heightTree[node] <= remaining) {
+                slot = node;
+                remaining -= heightTree[node];
+            }
+        }
+
+        return Math.max(0, Math.min(rowCount, slot - head));
+    }
+
+    private int findRow(BossKillEvent kill) {
+        int row = findInsertIndex(kill.getTime());
+
+        // Kills sharing a timestamp sit just before the insert point
+        while (--row >= 0) {
+            if (slots[head + row].getUuid().equals(kill.getUuid())) {
+                return row;
+            }
+        }
+
+        throw new IllegalStateException("Kill is not in the list: " + kill.getUuid());
+    }
+
+    private int findInsertIndex(Instant time) {
+        int low = 0;
+        int high = rowCount;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (slots[head + mid].getTime().compareTo(time) >= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+}
@@ -0,0 +1,115 @@
+package com.steven10172.corptracker;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.PriorityQueue;
+
+/**
+ * Kill lifecycle timers on a virtual clock, for replaying recorded events. Nothing runs on its
+ * own, timers fire in due order as the clock is advanced past them.
+ */
+class VirtualKillTimers implements KillTimers {
+    private final PriorityQueue<Timer> timers = new PriorityQueue<>();
+    private final VirtualClock clock = new VirtualClock(ZoneOffset.UTC);
+    private long nextSequence;
+    private long now;
+
+    private static final class Timer implements KillTimers.Handle, Comparable<Timer> {
+        private final long due;
+        private final long sequence;
+        private final Runnable task;
+        private boolean done;
+
+        private Timer(long due, long sequence, Runnable task) {
+            this.due = due;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (done) {
+                return false;
+            }
+            done = true;
+            return true;
+        }
+
+        @Override
+        public int compareTo(Timer other) {
+            final int byDue = Long.compare(due, other.due);
+            return byDue != 0 ? byDue : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Reads the virtual time, in any zone
+     */
+    private final class VirtualClock extends Clock {
+        private final ZoneId zone;
+
+        private VirtualClock(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return zone.equals(this.zone) ? this : new VirtualClock(zone);
+        }
+
+        @Override
+        public long millis() {
+            return now;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(now);
+        }
+    }
+
+    /**
+     * The virtual time, only moves forward through {@link #advanceTo(long)}
+     */
+    Clock getClock() {
+        return clock;
+    }
+
+    @Override
+    public KillTimers.Handle schedule(Runnable task, long delayMs) {
+        final Timer timer = new Timer(now + delayMs, nextSequence++, task);
+        timers.add(timer);
+        return timer;
+    }
+
+    /**
+     * Move the clock forward, firing every timer due on the way with the clock set to its due time
+     */
+    void advanceTo(long millis) {
+        while (!timers.isEmpty() && timers.peek().due <= millis) {
+            final Timer timer = timers.poll();
+            if (!timer.done) {
+                timer.done = true;
+                now = Math.max(now, timer.due);
+                timer.task.run();
+            }
+        }
+        now = Math.max(now, millis);
+    }
+
+    /**
+     * Fire every remaining timer, including ones scheduled by the timers themselves
+     */
+    void runAll() {
+        while (!timers.isEmpty()) {
+            advanceTo(timers.peek().due);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.steven10172.corptracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class BossRegistryTest
+{
+	private static final BossDefinition GRAARDOR = BossRegistry.forName("General Graardor");
+	private static final int CORP = BossRegistry.CORPOREAL_BEAST.getBossId();
+	private static final int CORP_INDEX = 5;
+	private static final int GRAARDOR_INDEX = 9;
+
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+	private final List<BossKillEvent> completed = new ArrayList<>();
+	private final List<UUID> expired = new ArrayList<>();
+	private final KillReplay replay = new KillReplay(1, dictionary, true, KillReplay::unpricedItem, new KillLifecycle.Listener()
+	{
+		@Override
+		public void killUpdated(BossKillEvent kill)
+		{
+			if (!kill.isInProgress())
+			{
+				completed.add(kill);
+			}
+		}
+
+		@Override
+		public void killExpired(UUID id)
+		{
+			expired.add(id);
+		}
+	});
+
+	@Test
+	public void everyNpcIdFindsItsBoss()
+	{
+		for (BossDefinition boss : BossRegistry.BOSSES)
+		{
+			for (int npcId : boss.getNpcIds())
+			{
+				assertSame(boss, BossRegistry.forNpcId(npcId));
+			}
+			assertSame(boss, BossRegistry.forName(boss.getName().toUpperCase()));
+		}
+
+		assertNull(BossRegistry.forNpcId(-1));
+		assertNull(BossRegistry.forNpcId(0));
+		assertNull(BossRegistry.forNpcId(BossRegistry.MAX_NPC_ID + 1));
+		assertNull(BossRegistry.forName("Vorkath"));
+	}
+
+	@Test
+	public void bossesFoughtAtOnceKeepTheirOwnKills()
+	{
+		final int graardor = GRAARDOR.getNpcIds()[1];
+		replay.play(new KillEvent.NpcSpawned(1_000L, CORP_INDEX, CORP));
+		replay.play(new KillEvent.NpcSpawned(1_000L, GRAARDOR_INDEX, graardor));
+		replay.play(new KillEvent.Interacting(2_000L, "Alice", CORP_INDEX, CORP));
+		replay.play(new KillEvent.Interacting(2_000L, "Bob", GRAARDOR_INDEX, graardor));
+		replay.play(new KillEvent.Tick(2_400L, Arrays.asList(
+			new KillEvent.Interaction("Alice", CORP_INDEX), new KillEvent.Interaction("Carol", CORP_INDEX), new KillEvent.Interaction("Dave", GRAARDOR_INDEX))));
+		replay.play(new KillEvent.Damage(3_000L, CORP_INDEX, CORP, 1, "Alice", 40));
+		// Hits on a boss NPC that isn't the spawned one are ignored
+		replay.play(new KillEvent.Damage(3_000L, CORP_INDEX, graardor, 3, "Erin", 40));
+		replay.play(new KillEvent.Damage(3_600L, GRAARDOR_INDEX, graardor, 2, "Bob", 25));
+
+		// The drop goes to the boss fought last
+		replay.play(new KillEvent.ChatMessage(30_000L, "<col=005f00>Bob received a drop: Bandos chestplate</col>", "Bob"));
+		replay.play(new KillEvent.NpcDespawned(30_600L, GRAARDOR_INDEX, graardor, true));
+		replay.play(new KillEvent.Damage(31_000L, CORP_INDEX, CORP, 1, "Alice", 60));
+		replay.play(new KillEvent.ChatMessage(60_000L, "<col=005f00>Alice received a drop: Spirit shield</col>", "Alice"));
+		replay.play(new KillEvent.NpcDespawned(60_600L, CORP_INDEX, CORP, true));
+		replay.finish();
+
+		assertEquals(2, completed.size());
+		final BossKillEvent bandos = completed.get(0);
+		assertEquals(GRAARDOR.getBossId(), bandos.getBossId());
+		assertEquals("Bandos chestplate", bandos.getItem().getName());
+		assertEquals(new HashSet<>(Arrays.asList("Bob", "Dave")), new HashSet<>(bandos.getParticipants()));
+		assertEquals(25, bandos.getDamage("Bob"));
+
+		final BossKillEvent corp = completed.get(1);
+		assertEquals(CORP, corp.getBossId());
+		assertEquals("Spirit shield", corp.getItem().getName());
+		assertEquals(new HashSet<>(Arrays.asList("Alice", "Carol")), new HashSet<>(corp.getParticipants()));
+		assertEquals(100, corp.getDamage("Alice"));
+		assertFalse(corp.getUuid().equals(bandos.getUuid()));
+		assertEquals(Collections.emptyList(), expired);
+	}
+
+	@Test
+	public void eachBossExpiresOnItsOwnRespawnTime()
+	{
+		final int graardor = GRAARDOR.getBossId();
+		replay.play(new KillEvent.NpcSpawned(1_000L, CORP_INDEX, CORP));
+		replay.play(new KillEvent.NpcSpawned(1_000L, GRAARDOR_INDEX, graardor));
+		replay.play(new KillEvent.Interacting(2_000L, "Alice", CORP_INDEX, CORP));
+		replay.play(new KillEvent.Interacting(2_000L, "Bob", GRAARDOR_INDEX, graardor));
+		replay.play(new KillEvent.NpcDespawned(10_000L, CORP_INDEX, CORP, false));
+		replay.play(new KillEvent.NpcDespawned(10_000L, GRAARDOR_INDEX, graardor, false));
+
+		final long corpDue = 10_000L + BossRegistry.CORPOREAL_BEAST.getRespawnMillis() - 2_000L;
+		final long graardorDue = 10_000L + GRAARDOR.getRespawnMillis() - 2_000L;
+		replay.play(new KillEvent.Tick(corpDue, Collections.emptyList()));
+		assertEquals(1, expired.size());
+		replay.play(new KillEvent.Tick(graardorDue - 1, Collections.emptyList()));
+		assertEquals(1, expired.size());
+		replay.play(new KillEvent.Tick(graardorDue, Collections.emptyList()));
+		assertEquals(2, expired.size());
+		assertEquals(Collections.emptyList(), completed);
+	}
+}
@@ -0,0 +1,94 @@
+package com.steven10172.corptracker;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+
+public class CorpEventTrackerPanelTest
+{
+	private static final int HOT_KILLS = 10;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+	private final KillStore store = new KillStore(dictionary);
+	private KillJournal journal;
+	private KillArchive archive;
+	private CorpEventTrackerPanel panel;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		journal = new KillJournal(folder.newFile("kills.journal"), dictionary);
+		archive = new KillArchive(folder.newFolder("archive"), dictionary);
+		final CorpEventTrackerConfig config = new CorpEventTrackerConfig()
+		{
+			@Override
+			public int hotKills()
+			{
+				return HOT_KILLS;
+			}
+		};
+		panel = new CorpEventTrackerPanel(null, config, store, journal, archive, MoreExecutors.newDirectExecutorService());
+
+		final CompletableFuture<KillArchive.Totals> loaded = new CompletableFuture<>();
+		archive.load(loaded::complete);
+		panel.loadArchive(loaded.get(5, TimeUnit.SECONDS));
+	}
+
+	@After
+	public void tearDown()
+	{
+		panel.close();
+		journal.close();
+		archive.close();
+	}
+
+	@Test
+	public void sealedKillsLeaveOnlyTheirTotals()
+	{
+		final int count = 3 * KillArchive.SEGMENT_SIZE + HOT_KILLS + 5;
+		final List<BossKillEvent> kills = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+		{
+			kills.add(kill(i * 60_000L, "Alice", "Player " + i % 7));
+		}
+		panel.loadKills(kills);
+
+		assertEquals(3, archive.getSegments().size());
+		assertEquals(HOT_KILLS + 5, store.size());
+		final KillRollups totals = panel.getOverallTotals();
+		assertEquals(count, totals.getTotal().getCount());
+		assertEquals(count * 100L, totals.getTotal().getGePrice());
+		// Only the kills still in memory keep a drop, the sealed ones are down to hourly numbers
+		assertEquals(store.size(), totals.getHeldDrops());
+
+		// Another segment's worth of new kills seals one more
+		for (int i = 0; i < KillArchive.SEGMENT_SIZE; i++)
+		{
+			panel.updateRecord(kill((count + i) * 60_000L, "Bob"));
+		}
+		assertEquals(4, archive.getSegments().size());
+		assertEquals(count + KillArchive.SEGMENT_SIZE, totals.getTotal().getCount());
+		assertEquals(store.size(), totals.getHeldDrops());
+	}
+
+	private BossKillEvent kill(long time, String... participants)
+	{
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), new BossTrackerItem(1, "Spirit shield", 1, 100, 50),
+			participants[0], Arrays.asList(participants), Instant.ofEpochMilli(time));
+	}
+}
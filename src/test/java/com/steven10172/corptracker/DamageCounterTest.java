@@ -0,0 +1,107 @@
+package com.steven10172.corptracker;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DamageCounterTest
+{
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+	private final DamageCounter counter = new DamageCounter();
+
+	@Test
+	public void hitsAddUpBySlot()
+	{
+		counter.add(3, "Alice", 10);
+		counter.add(7, "Bob", 5);
+		counter.add(3, "Alice", 20);
+
+		final BossKillEvent kill = counter.applyTo(kill("Alice", "Bob"));
+		assertEquals(30, kill.getDamage("Alice"));
+		assertEquals(5, kill.getDamage("Bob"));
+		assertEquals(35, kill.getTotalDamage());
+	}
+
+	@Test
+	public void reusedSlotMovesTheOldPlayerAside()
+	{
+		counter.add(3, "Alice", 10);
+		counter.add(3, "Bob", 4);
+		counter.add(3, "Alice", 6);
+		counter.add(3, "Bob", 1);
+
+		// Both left the slot and came back, their damage from before is kept aside by name
+		final BossKillEvent kill = counter.applyTo(kill("Alice", "Bob"));
+		assertEquals(16, kill.getDamage("Alice"));
+		assertEquals(5, kill.getDamage("Bob"));
+	}
+
+	@Test
+	public void slotsOutOfRangeAndNamelessHitsAreIgnored()
+	{
+		counter.add(-1, "Alice", 10);
+		counter.add(2048, "Alice", 10);
+		counter.add(0, null, 10);
+		assertTrue(counter.isEmpty());
+	}
+
+	@Test
+	public void evenSplitHandsTheRemainderToTheFirstAttackers()
+	{
+		assertEquals(Arrays.asList(4, 3, 3), shares(10, 3));
+		assertEquals(Arrays.asList(1, 1, 0, 0), shares(2, 4));
+		assertEquals(Arrays.asList(7), shares(7, 1));
+
+		for (int amount = 1; amount < 100; amount++)
+		{
+			for (int attackers = 1; attackers < 12; attackers++)
+			{
+				int total = 0;
+				for (int attacker = 0; attacker < attackers; attacker++)
+				{
+					total += DamageCounter.evenShare(amount, attackers, attacker);
+				}
+				assertEquals(amount, total);
+			}
+		}
+	}
+
+	@Test
+	public void applyToLeavesAKillWithoutDamageAlone()
+	{
+		final BossKillEvent kill = kill("Alice");
+		assertSame(kill, counter.applyTo(kill));
+
+		counter.add(0, "Alice", 10);
+		assertFalse(counter.isEmpty());
+		counter.clear();
+		assertTrue(counter.isEmpty());
+		assertSame(kill, counter.applyTo(kill));
+
+		// The slot is free again after a clear
+		counter.add(0, "Bob", 3);
+		assertEquals(3, counter.applyTo(kill("Bob")).getDamage("Bob"));
+	}
+
+	private static List<Integer> shares(int amount, int attackers)
+	{
+		final Integer[] shares = new Integer[attackers];
+		for (int attacker = 0; attacker < attackers; attacker++)
+		{
+			shares[attacker] = DamageCounter.evenShare(amount, attackers, attacker);
+		}
+		return Arrays.asList(shares);
+	}
+
+	private BossKillEvent kill(String... participants)
+	{
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), new BossTrackerItem(1, "Spirit shield", 1, 100, 50),
+			participants[0], Arrays.asList(participants), Instant.ofEpochMilli(1_000L));
+	}
+}
@@ -0,0 +1,89 @@
+package com.steven10172.corptracker;
+
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DropMessageParserTest
+{
+	private final DropMessageParser parser = new DropMessageParser();
+
+	@Test
+	public void nonDropMessagesAreRejected()
+	{
+		assertNull(parser.parse("You feel a strange power draining your stats."));
+		assertNull(parser.parse("<col=005f00>Your Corporeal Beast kill count is: 12.</col>"));
+		assertNull(parser.parse("<col=005f00>Prized received a drop: </col>"));
+		assertNull(parser.parse("<col=ef1020>Valuable drop: Spirit shield</col>"));
+		assertNull(parser.parse(""));
+	}
+
+	@Test
+	public void singleItem()
+	{
+		assertDrop(parser.parse("<col=005f00>Prized received a drop: Spectral sigil</col>"), "Prized",
+			new DropMessageParser.DroppedItem("Spectral sigil", 1));
+	}
+
+	@Test
+	public void quantityWithThousandsSeparator()
+	{
+		assertDrop(parser.parse("<col=005f00>Prized received a drop: 1,200 x Pure essence</col>"), "Prized",
+			new DropMessageParser.DroppedItem("Pure essence", 1200));
+		assertDrop(parser.parse("<col=005f00>Some Player received a drop: 1,234,567 x Coins</col>"), "Some Player",
+			new DropMessageParser.DroppedItem("Coins", 1234567));
+	}
+
+	@Test
+	public void multiItemDrop()
+	{
+		assertDrop(parser.parse("<col=005f00>Prized received a drop: 1,200 x Pure essence, Uncut diamond, 2 x Uncut ruby</col>"), "Prized",
+			new DropMessageParser.DroppedItem("Pure essence", 1200),
+			new DropMessageParser.DroppedItem("Uncut diamond", 1),
+			new DropMessageParser.DroppedItem("Uncut ruby", 2));
+	}
+
+	@Test
+	public void gemTableDrop()
+	{
+		assertDrop(parser.parse("<col=005f00>Prized received a drop: 2 x Uncut ruby, Uncut diamond</col>"), "Prized",
+			new DropMessageParser.DroppedItem("Uncut ruby", 2),
+			new DropMessageParser.DroppedItem("Uncut diamond", 1));
+	}
+
+	@Test
+	public void itemNameEndingInParentheses()
+	{
+		assertDrop(parser.parse("<col=005f00>Prized received a drop: 175 x Onyx bolts (e)</col>"), "Prized",
+			new DropMessageParser.DroppedItem("Onyx bolts (e)", 175));
+	}
+
+	@Test
+	public void valuableDrop()
+	{
+		assertDrop(parser.parse("<col=ef1020>Valuable drop: 250 x Runite bolts (95,250 coins)</col>"), null,
+			new DropMessageParser.DroppedItem("Runite bolts", 250));
+		assertDrop(parser.parse("<col=ef1020>Valuable drop: Elysian sigil (1,290,000 coins)</col>"), null,
+			new DropMessageParser.DroppedItem("Elysian sigil", 1));
+	}
+
+	@Test
+	public void valuableDropWithSuffixedItem()
+	{
+		assertDrop(parser.parse("<col=ef1020>Valuable drop: 1,175 x Onyx bolts (e) (11,396,325 coins)</col>"), null,
+			new DropMessageParser.DroppedItem("Onyx bolts (e)", 1175));
+	}
+
+	@Test
+	public void leadingNumberWithoutQuantityIsPartOfTheName()
+	{
+		assertDrop(parser.parse("<col=005f00>Prized received a drop: 3rd age amulet</col>"), "Prized",
+			new DropMessageParser.DroppedItem("3rd age amulet", 1));
+	}
+
+	private static void assertDrop(DropMessageParser.Drop drop, String player, DropMessageParser.DroppedItem... items)
+	{
+		assertEquals(new DropMessageParser.Drop(player, Arrays.asList(items)), drop);
+	}
+}
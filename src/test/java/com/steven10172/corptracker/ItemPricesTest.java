@@ -0,0 +1,69 @@
+package com.steven10172.corptracker;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import net.runelite.api.ItemID;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class ItemPricesTest
+{
+	@Test
+	public void pricesAreFoundByIdAcrossTheTable()
+	{
+		final int[] ids = new int[500];
+		for (int i = 0; i < ids.length; i++)
+		{
+			ids[i] = i * 3 + 1;
+		}
+		final ItemPrices prices = ItemPrices.lookup(ids, id -> id * 10);
+
+		assertEquals(ids.length, prices.size());
+		for (int id : ids)
+		{
+			assertEquals(id * 10L * 7, prices.valueOf(id, 7, -1));
+		}
+		// Between, before and after the ids in the table
+		assertEquals(-1, prices.valueOf(2, 7, -1));
+		assertEquals(-1, prices.valueOf(0, 7, -1));
+		assertEquals(-1, prices.valueOf(ids[ids.length - 1] + 1, 7, -1));
+	}
+
+	@Test
+	public void unpricedAndUnknownItemsAreLeftOut()
+	{
+		final List<Integer> looked = new ArrayList<>();
+		final ItemPrices prices = ItemPrices.lookup(new int[]{-1, ItemID.COINS_995, 1617, 4151}, id ->
+		{
+			looked.add(id);
+			return id == 1617 ? 2_000 : 0;
+		});
+
+		// Neither the unknown id nor coins are looked up, coins are always worth 1
+		assertEquals(Arrays.asList(1617, 4151), looked);
+		assertEquals(2, prices.size());
+		assertEquals(30_000, prices.valueOf(ItemID.COINS_995, 30_000, 0));
+		assertEquals(4_000, prices.valueOf(1617, 2, 0));
+		assertEquals(55, prices.valueOf(4151, 1, 55));
+		assertEquals(55, prices.valueOf(-1, 1, 55));
+	}
+
+	@Test
+	public void totalsAreValuedAtTheTablePrices()
+	{
+		final PlayerDictionary dictionary = new PlayerDictionary();
+		final KillTotals totals = new KillTotals();
+		totals.add(new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(),
+			new BossTrackerItem(1617, "Uncut diamond", 2, 1_000, 0).withExtras(Collections.singletonList(new BossTrackerItem(1619, "Uncut ruby", 3, 500, 0))),
+			"Alice", Collections.singletonList("Alice"), Instant.ofEpochMilli(1_000L)));
+
+		final ItemPrices prices = ItemPrices.lookup(new int[]{1617, 1619}, id -> id == 1617 ? 1_500 : 0);
+		// The ruby has no current price, so it keeps the value it dropped at
+		assertEquals(2 * 1_500 + 3 * 500, totals.getGePrice(prices));
+		assertEquals(2 * 1_000 + 3 * 500, totals.getGePrice());
+	}
+}
@@ -0,0 +1,131 @@
+package com.steven10172.corptracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.api.ItemID;
+import net.runelite.http.api.item.ItemPrice;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class ItemResolverTest
+{
+	private final List<String> searches = new ArrayList<>();
+	private final Map<String, ItemPrice> catalog = new HashMap<>();
+	private final Map<Integer, Integer> gePrices = new HashMap<>();
+	private final ItemResolver resolver = new ItemResolver(new ItemResolver.ItemSource()
+	{
+		@Override
+		public List<ItemPrice> search(String name)
+		{
+			searches.add(name);
+			final ItemPrice item = catalog.get(name);
+			return item == null ? Collections.emptyList() : Collections.singletonList(item);
+		}
+
+		@Override
+		public int getGePrice(int id)
+		{
+			return gePrices.get(id);
+		}
+
+		@Override
+		public int getStorePrice(int id)
+		{
+			return 1000;
+		}
+	});
+
+	@Test
+	public void namesAreSearchedForOnce()
+	{
+		sells(1, "Spirit shield", 50_000);
+
+		final BossTrackerItem drop = resolver.toDrop("Spirit shield", 2);
+		assertEquals(1, drop.getId());
+		assertEquals("Spirit shield", drop.getName());
+		assertEquals(2, drop.getQuantity());
+		assertEquals(50_000, drop.getGePrice());
+		assertEquals(600, drop.getHaPrice());
+
+		assertEquals(1, resolver.toDrop("spirit SHIELD", 1).getId());
+		assertEquals(Collections.singletonList("spirit shield"), searches);
+	}
+
+	@Test
+	public void coinsAreNeverSearchedFor()
+	{
+		final BossTrackerItem coins = resolver.toDrop("Coins", 30_000);
+		assertEquals(ItemID.COINS_995, coins.getId());
+		assertEquals(1, coins.getGePrice());
+
+		resolver.refreshPrices();
+		assertEquals(1, resolver.toDrop("Coins", 1).getGePrice());
+		assertEquals(Collections.emptyList(), searches);
+	}
+
+	@Test
+	public void missesAreCachedUntilThePricesRefresh()
+	{
+		final BossTrackerItem unknown = resolver.toDrop("Jar of spirits", 1);
+		assertEquals(-1, unknown.getId());
+		assertEquals("Jar of spirits", unknown.getName());
+		assertEquals(0, unknown.getGePrice());
+		resolver.toDrop("Jar of spirits", 1);
+		assertEquals(1, searches.size());
+
+		// The prices hadn't loaded yet, the refresh lets the name be searched for again
+		sells(2, "Jar of spirits", 900);
+		resolver.refreshPrices();
+		assertEquals(2, resolver.toDrop("Jar of spirits", 1).getId());
+		assertEquals(2, searches.size());
+	}
+
+	@Test
+	public void refreshUpdatesTheGePrices()
+	{
+		sells(1, "Spirit shield", 50_000);
+		resolver.toDrop("Spirit shield", 1);
+
+		gePrices.put(1, 48_000);
+		resolver.refreshPrices();
+		assertEquals(48_000, resolver.toDrop("Spirit shield", 1).getGePrice());
+		assertEquals(1, searches.size());
+	}
+
+	@Test
+	public void onlyAnExactNameMatches()
+	{
+		sells(3, "Uncut diamond", 2_000);
+		catalog.put("diamond", catalog.get("uncut diamond"));
+
+		assertEquals(-1, resolver.toDrop("Diamond", 1).getId());
+	}
+
+	private void sells(int id, String name, int price)
+	{
+		catalog.put(name.toLowerCase(), new ItemPrice()
+		{
+			@Override
+			public int getId()
+			{
+				return id;
+			}
+
+			@Override
+			public String getName()
+			{
+				return name;
+			}
+
+			@Override
+			public int getPrice()
+			{
+				return price;
+			}
+		});
+		gePrices.put(id, price);
+	}
+}
@@ -0,0 +1,182 @@
+package com.steven10172.corptracker;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KillArchiveTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+	private File directory;
+
+	@Before
+	public void setUp()
+	{
+		directory = folder.getRoot();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void sealIsRefusedBeforeLoad()
+	{
+		final KillArchive archive = new KillArchive(directory, dictionary);
+		archive.seal(Collections.singletonList(kill(1_000L, "Alice")), () -> { });
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void rewriteIsRefusedBeforeLoad() throws Exception
+	{
+		final KillArchive archive = new KillArchive(directory, dictionary);
+		archive.delete(kill(1_000L, "Alice"));
+	}
+
+	@Test
+	public void sealedKillsLoadBack() throws Exception
+	{
+		final List<BossKillEvent> kills = Arrays.asList(kill(1_000L, "Alice", "Bob"), kill(2_000L, "Alice"), kill(3_000L, "Carol"));
+		KillArchive archive = new KillArchive(directory, dictionary);
+		assertEquals(0, load(archive).getCount());
+		final boolean[] written = new boolean[2];
+		archive.seal(kills.subList(0, 2), () -> written[0] = true);
+		archive.seal(kills.subList(2, 3), () -> written[1] = true);
+		// Readable before the files are written
+		assertEquals(3, archive.size());
+		archive.close();
+		assertTrue(written[0] && written[1]);
+
+		archive = new KillArchive(directory, dictionary);
+		final KillArchive.Totals totals = load(archive);
+		assertEquals(3, totals.getCount());
+		assertEquals(3, totals.getRollups().getTotal().getCount());
+		assertEquals(2, totals.getPlayers().getKillsAttended(dictionary.getId("Alice")));
+		assertEquals(1, totals.getPlayers().getKillsOwned(dictionary.getId("Carol")));
+
+		assertEquals(2, archive.getSegments().size());
+		assertEquals(1, archive.getSegments().get(0).getCount());
+		assertEquals(ids(kills), ids(readAll(archive.oldestFirst())));
+		assertEquals(new HashSet<>(ids(kills.subList(1, 3))), archive.findArchived(Arrays.asList(kills.get(1), kills.get(2), kill(2_500L, "Dave"))));
+		archive.close();
+	}
+
+	@Test
+	public void newSegmentsAreNumberedAfterUnreadableOnes() throws Exception
+	{
+		final File unreadable = new File(directory, "segment-000004.gz");
+		Files.write(unreadable.toPath(), "not a segment".getBytes(StandardCharsets.UTF_8));
+
+		final KillArchive archive = new KillArchive(directory, dictionary);
+		assertEquals(0, load(archive).getCount());
+		archive.seal(Collections.singletonList(kill(1_000L, "Alice")), () -> { });
+		archive.close();
+
+		assertEquals("not a segment", new String(Files.readAllBytes(unreadable.toPath()), StandardCharsets.UTF_8));
+		assertTrue(new File(directory, "segment-000005.gz").exists());
+	}
+
+	@Test
+	public void updateAndDeleteRewriteTheSegment() throws Exception
+	{
+		final List<BossKillEvent> kills = Arrays.asList(kill(1_000L, "Alice", "Bob"), kill(2_000L, "Alice"), kill(3_000L, "Carol"));
+		KillArchive archive = new KillArchive(directory, dictionary);
+		load(archive);
+		archive.seal(kills, () -> { });
+
+		final BossKillEvent updated = kills.get(0).withoutParticipant("Bob");
+		final BossKillEvent previous = archive.update(Collections.singletonList(updated)).get(updated.getUuid());
+		assertEquals(Arrays.asList("Alice", "Bob"), previous.getParticipants());
+		assertEquals(kills.get(1).getUuid(), archive.delete(kills.get(1)).getUuid());
+		assertNull(archive.delete(kill(1_500L, "Dave")));
+		archive.close();
+		assertEquals(1, directory.list().length);
+
+		archive = new KillArchive(directory, dictionary);
+		assertEquals(2, load(archive).getCount());
+		final List<BossKillEvent> loaded = readAll(archive.oldestFirst());
+		assertEquals(Arrays.asList(updated.getUuid(), kills.get(2).getUuid()), ids(loaded));
+		assertEquals(Collections.singletonList("Alice"), loaded.get(0).getParticipants());
+		archive.close();
+	}
+
+	@Test
+	public void loadRecoversFromAnInterruptedRewrite() throws Exception
+	{
+		final List<BossKillEvent> kills = Arrays.asList(kill(1_000L, "Alice"), kill(2_000L, "Bob"), kill(3_000L, "Carol"));
+		KillArchive archive = new KillArchive(directory, dictionary);
+		load(archive);
+		archive.seal(kills, () -> { });
+		archive.close();
+		final File original = new File(directory, "segment-000000.gz");
+		final byte[] originalBytes = Files.readAllBytes(original.toPath());
+
+		archive = new KillArchive(directory, dictionary);
+		load(archive);
+		archive.delete(kills.get(1));
+		archive.close();
+		assertFalse(original.exists());
+
+		// The client went away after the rewrite, before the replaced file was deleted, and mid way through a seal
+		Files.write(original.toPath(), originalBytes);
+		final File torn = new File(directory, "segment-000002.gz.tmp");
+		Files.write(torn.toPath(), new byte[]{1, 2, 3});
+
+		archive = new KillArchive(directory, dictionary);
+		final KillArchive.Totals totals = load(archive);
+		assertEquals(2, totals.getCount());
+		assertEquals(0, totals.getPlayers().getKillsAttended(dictionary.getId("Bob")));
+		assertEquals(Arrays.asList(kills.get(0).getUuid(), kills.get(2).getUuid()), ids(readAll(archive.oldestFirst())));
+		archive.close();
+		assertFalse(original.exists());
+		assertFalse(torn.exists());
+		assertArrayEquals(new String[]{"segment-000001.gz"}, directory.list());
+	}
+
+	private static KillArchive.Totals load(KillArchive archive) throws Exception
+	{
+		final CompletableFuture<KillArchive.Totals> loaded = new CompletableFuture<>();
+		archive.load(loaded::complete);
+		return loaded.get(5, TimeUnit.SECONDS);
+	}
+
+	private static List<BossKillEvent> readAll(KillMerger.Source source) throws Exception
+	{
+		final List<BossKillEvent> kills = new ArrayList<>();
+		for (BossKillEvent kill = source.next(); kill != null; kill = source.next())
+		{
+			kills.add(kill);
+		}
+		return kills;
+	}
+
+	private static List<UUID> ids(List<BossKillEvent> kills)
+	{
+		final List<UUID> ids = new ArrayList<>();
+		kills.forEach(kill -> ids.add(kill.getUuid()));
+		return ids;
+	}
+
+	private BossKillEvent kill(long time, String... participants)
+	{
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), new BossTrackerItem(1, "Spirit shield", 1, 100, 50),
+			participants[0], Arrays.asList(participants), Instant.ofEpochMilli(time));
+	}
+}
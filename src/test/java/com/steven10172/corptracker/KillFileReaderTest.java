@@ -0,0 +1,182 @@
+package com.steven10172.corptracker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KillFileReaderTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+
+	@Test
+	public void csvExportReadsBackWithExtras() throws Exception
+	{
+		final List<BossKillEvent> kills = Arrays.asList(kill(1_000L, "Alice", "Bob"), gemDrop(2_000L), kill(3_000L, "Carol, \"the\" third"));
+		final List<BossKillEvent> read = readAll(export(KillExporter.Format.CSV, kills));
+
+		assertSameKills(kills, read);
+		// CSV rows carry no id, each row gets one from its text
+		assertEquals(ids(read), ids(readAll(export(KillExporter.Format.CSV, kills))));
+	}
+
+	@Test
+	public void jsonExportReadsBackWithExtrasAndDamage() throws Exception
+	{
+		final List<BossKillEvent> kills = Arrays.asList(
+			kill(1_000L, "Alice", "Bob").withDamage(Arrays.asList("Alice", "Bob"), new int[]{300, 700}), gemDrop(2_000L));
+		final List<BossKillEvent> read = readAll(export(KillExporter.Format.JSON, kills));
+
+		assertSameKills(kills, read);
+		assertEquals(ids(kills), ids(read));
+		assertEquals(700, read.get(0).getDamage("Bob"));
+	}
+
+	@Test
+	public void singleItemCsvFromBeforeExtrasIsRead() throws Exception
+	{
+		final File file = write(KillExporter.CSV_HEADER_SINGLE_ITEM,
+			"1970-01-01T00:00:01Z,Corporeal Beast,Spirit shield,1,1,100,50,Alice,Alice;Bob",
+			"",
+			"1970-01-01T00:00:02Z,Corporeal Beast,Holy elixir,2,1,200,100,Bob,Bob");
+
+		final List<BossKillEvent> read = readAll(file);
+		assertEquals(2, read.size());
+		assertEquals(Arrays.asList("Alice", "Bob"), read.get(0).getParticipants());
+		assertEquals(Collections.emptyList(), read.get(1).getItem().getExtras());
+		assertEquals(200, read.get(1).getItem().getGePrice());
+	}
+
+	@Test
+	public void killsOutOfOrderAreRefused() throws Exception
+	{
+		final File file = write(KillExporter.CSV_HEADER,
+			"1970-01-01T00:00:02Z,Corporeal Beast,Spirit shield,1,1,100,50,Alice,Alice,",
+			"1970-01-01T00:00:01Z,Corporeal Beast,Spirit shield,1,1,100,50,Bob,Bob,");
+
+		try (KillFileReader reader = new KillFileReader(file, dictionary))
+		{
+			reader.next();
+			reader.next();
+			fail("older kill accepted");
+		}
+		catch (IOException e)
+		{
+			assertTrue(e.getMessage(), e.getMessage().contains("line 3"));
+		}
+	}
+
+	@Test
+	public void badRowNamesItsLine() throws Exception
+	{
+		final File file = write(KillExporter.CSV_HEADER, "1970-01-01T00:00:02Z,Corporeal Beast,Spirit shield");
+
+		try (KillFileReader reader = new KillFileReader(file, dictionary))
+		{
+			reader.next();
+			fail("short row accepted");
+		}
+		catch (IOException e)
+		{
+			assertTrue(e.getMessage(), e.getMessage().contains("line 2"));
+		}
+	}
+
+	@Test
+	public void emptyFileHasNoKills() throws Exception
+	{
+		try (KillFileReader reader = new KillFileReader(write(), dictionary))
+		{
+			assertNull(reader.next());
+		}
+	}
+
+	private File export(KillExporter.Format format, List<BossKillEvent> kills) throws IOException
+	{
+		final File file = folder.newFile();
+		final Iterator<BossKillEvent> it = kills.iterator();
+		final int written = new KillExporter(format, dictionary).export(() -> it.hasNext() ? it.next() : null, null, file, done -> { });
+		assertEquals(kills.size(), written);
+		return file;
+	}
+
+	private File write(String... lines) throws IOException
+	{
+		final File file = folder.newFile();
+		Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+		return file;
+	}
+
+	private List<BossKillEvent> readAll(File file) throws IOException
+	{
+		final List<BossKillEvent> kills = new ArrayList<>();
+		try (KillFileReader reader = new KillFileReader(file, dictionary))
+		{
+			for (BossKillEvent kill = reader.next(); kill != null; kill = reader.next())
+			{
+				kills.add(kill);
+			}
+		}
+		return kills;
+	}
+
+	private static void assertSameKills(List<BossKillEvent> expected, List<BossKillEvent> actual)
+	{
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++)
+		{
+			final BossKillEvent want = expected.get(i);
+			final BossKillEvent got = actual.get(i);
+			assertEquals(want.getTime(), got.getTime());
+			assertEquals(want.getBossId(), got.getBossId());
+			assertEquals(want.getKillOwner(), got.getKillOwner());
+			assertEquals(want.getParticipants(), got.getParticipants());
+			assertEquals(want.getItem().getDropName(), got.getItem().getDropName());
+			assertEquals(want.getItem().getDropGePrice(), got.getItem().getDropGePrice());
+			assertEquals(want.getItem().getExtras().size(), got.getItem().getExtras().size());
+			for (int j = 0; j < want.getItem().getExtras().size(); j++)
+			{
+				assertEquals(want.getItem().getExtras().get(j).getId(), got.getItem().getExtras().get(j).getId());
+				assertEquals(want.getItem().getExtras().get(j).getHaPrice(), got.getItem().getExtras().get(j).getHaPrice());
+			}
+		}
+	}
+
+	private static List<UUID> ids(List<BossKillEvent> kills)
+	{
+		final List<UUID> ids = new ArrayList<>();
+		kills.forEach(kill -> ids.add(kill.getUuid()));
+		return ids;
+	}
+
+	private BossKillEvent gemDrop(long time)
+	{
+		final BossTrackerItem item = new BossTrackerItem(1623, "Uncut sapphire", 3, 40, 10).withExtras(Arrays.asList(
+			new BossTrackerItem(1619, "Uncut ruby", 2, 100, 60), new BossTrackerItem(1617, "Uncut diamond", 1, 200, 120)));
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), item, "Alice",
+			Arrays.asList("Alice", "Bob"), Instant.ofEpochMilli(time));
+	}
+
+	private BossKillEvent kill(long time, String... participants)
+	{
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), new BossTrackerItem(1, "Spirit shield", 1, 100, 50),
+			participants[0], Arrays.asList(participants), Instant.ofEpochMilli(time));
+	}
+}
@@ -0,0 +1,213 @@
+package com.steven10172.corptracker;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class KillJournalTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+
+	@Test
+	public void replaysKillsAndEdits() throws Exception
+	{
+		final File file = new File(folder.getRoot(), "kills.journal");
+		final BossKillEvent first = kill("Spirit shield", 1_000L, "Alice", "Bob");
+		final BossKillEvent second = kill("Holy elixir", 2_000L, "Alice", "Carol");
+		final BossKillEvent third = kill("Death rune", 3_000L, "Bob");
+
+		KillJournal journal = new KillJournal(file, dictionary);
+		assertTrue(load(journal).isEmpty());
+		journal.appendKill(first);
+		journal.appendKill(second);
+		journal.appendKill(third);
+		journal.appendPlayerRemoval(second.getUuid(), "Carol");
+		journal.appendKillDeletion(third.getUuid());
+		journal.close();
+
+		journal = new KillJournal(file, dictionary);
+		final List<BossKillEvent> kills = new ArrayList<>(load(journal));
+		journal.close();
+
+		assertEquals(2, kills.size());
+		assertEquals(first.getUuid(), kills.get(0).getUuid());
+		assertEquals(Arrays.asList("Alice", "Bob"), kills.get(0).getParticipants());
+		assertEquals(second.getUuid(), kills.get(1).getUuid());
+		assertEquals(Arrays.asList("Alice"), kills.get(1).getParticipants());
+	}
+
+	@Test
+	public void multiItemDropIsOneKill() throws Exception
+	{
+		final File file = new File(folder.getRoot(), "kills.journal");
+		final BossTrackerItem drop = new BossTrackerItem(1619, "Uncut ruby", 2, 800, 120)
+			.withExtras(Arrays.asList(new BossTrackerItem(1617, "Uncut diamond", 1, 2400, 300)));
+		final BossKillEvent kill = new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), drop,
+			"Alice", Arrays.asList("Alice", "Bob"), Instant.ofEpochMilli(1_000L)).withDamage(Arrays.asList("Alice", "Bob"), new int[]{300, 700});
+
+		KillJournal journal = new KillJournal(file, dictionary);
+		load(journal);
+		journal.appendKill(kill);
+		journal.close();
+
+		journal = new KillJournal(file, dictionary);
+		final Collection<BossKillEvent> kills = load(journal);
+		journal.close();
+
+		assertEquals(1, kills.size());
+		final BossKillEvent loaded = kills.iterator().next();
+		assertEquals("2 x Uncut ruby, Uncut diamond", loaded.getItem().getDropName());
+		assertEquals(2 * 800 + 2400, loaded.getItem().getDropGePrice());
+		assertEquals(700, loaded.getDamage("Bob"));
+	}
+
+	@Test
+	public void unreadableJournalIsMovedAsideAndKillsKeepBeingSaved() throws Exception
+	{
+		final File file = new File(folder.getRoot(), "kills.journal");
+		Files.write(file.toPath(), "definitely not a kill journal".getBytes(StandardCharsets.UTF_8));
+
+		KillJournal journal = new KillJournal(file, dictionary);
+		assertTrue(load(journal).isEmpty());
+
+		final File[] aside = folder.getRoot().listFiles((dir, name) -> name.startsWith("kills.journal.unreadable-"));
+		assertNotNull(aside);
+		assertEquals(1, aside.length);
+		assertEquals("definitely not a kill journal", new String(Files.readAllBytes(aside[0].toPath()), StandardCharsets.UTF_8));
+
+		final BossKillEvent kill = kill("Spectral sigil", 5_000L, "Alice");
+		journal.appendKill(kill);
+		journal.close();
+
+		journal = new KillJournal(file, dictionary);
+		final Collection<BossKillEvent> kills = load(journal);
+		journal.close();
+
+		assertEquals(1, kills.size());
+		assertEquals(kill.getUuid(), kills.iterator().next().getUuid());
+	}
+
+	@Test
+	public void tornRecordIsCutOff() throws Exception
+	{
+		final File file = new File(folder.getRoot(), "kills.journal");
+		final BossKillEvent kill = kill("Arcane sigil", 1_000L, "Alice");
+
+		KillJournal journal = new KillJournal(file, dictionary);
+		load(journal);
+		journal.appendKill(kill);
+		journal.close();
+
+		final byte[] bytes = Files.readAllBytes(file.toPath());
+		final byte[] torn = Arrays.copyOf(bytes, bytes.length + 7);
+		torn[bytes.length + 3] = 100;
+		Files.write(file.toPath(), torn);
+
+		journal = new KillJournal(file, dictionary);
+		final Collection<BossKillEvent> kills = load(journal);
+		journal.close();
+
+		assertEquals(1, kills.size());
+		assertEquals(bytes.length, file.length());
+		assertEquals(1, folder.getRoot().list().length);
+	}
+
+	@Test
+	public void deadRecordsAreCompactedAway() throws Exception
+	{
+		final File file = new File(folder.getRoot(), "kills.journal");
+		final List<BossKillEvent> kept = new ArrayList<>();
+
+		KillJournal journal = new KillJournal(file, dictionary);
+		load(journal);
+		for (int i = 0; i < 600; i++)
+		{
+			final BossKillEvent kill = kill("Spirit shield", i * 1_000L, "Alice");
+			journal.appendKill(kill);
+			if (i % 6 == 0)
+			{
+				kept.add(kill);
+			}
+			else
+			{
+				// Two dead records each, 1000 in all against 100 live kills
+				journal.appendKillDeletion(kill.getUuid());
+			}
+		}
+		journal.close();
+
+		final File expected = new File(folder.getRoot(), "expected.journal");
+		journal = new KillJournal(expected, dictionary);
+		load(journal);
+		kept.forEach(journal::appendKill);
+		journal.close();
+
+		assertEquals(expected.length(), file.length());
+		assertEquals(2, folder.getRoot().list().length);
+
+		journal = new KillJournal(file, dictionary);
+		final List<BossKillEvent> kills = new ArrayList<>(load(journal));
+		journal.close();
+
+		assertEquals(kept.size(), kills.size());
+		for (int i = 0; i < kept.size(); i++)
+		{
+			assertEquals(kept.get(i).getUuid(), kills.get(i).getUuid());
+		}
+	}
+
+	@Test
+	public void overwrittenKillsCountAsDead() throws Exception
+	{
+		final File file = new File(folder.getRoot(), "kills.journal");
+		final BossKillEvent kill = kill("Spirit shield", 1_000L, "Alice", "Bob", "Carol");
+
+		KillJournal journal = new KillJournal(file, dictionary);
+		load(journal);
+		journal.appendKill(kill);
+		// Only overwrites, so the journal compacts down to a single record
+		for (int i = 0; i < 1000; i++)
+		{
+			journal.appendKill(kill, true);
+		}
+		journal.close();
+
+		final File expected = new File(folder.getRoot(), "expected.journal");
+		journal = new KillJournal(expected, dictionary);
+		load(journal);
+		journal.appendKill(kill);
+		journal.close();
+
+		assertEquals(expected.length(), file.length());
+	}
+
+	private static Collection<BossKillEvent> load(KillJournal journal) throws Exception
+	{
+		final CompletableFuture<Collection<BossKillEvent>> loaded = new CompletableFuture<>();
+		journal.load(loaded::complete);
+		return loaded.get(5, TimeUnit.SECONDS);
+	}
+
+	private BossKillEvent kill(String item, long time, String... participants)
+	{
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), new BossTrackerItem(1, item, 1, 100, 50),
+			participants[0], Arrays.asList(participants), Instant.ofEpochMilli(time));
+	}
+}
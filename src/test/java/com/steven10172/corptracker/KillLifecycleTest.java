@@ -0,0 +1,132 @@
+package com.steven10172.corptracker;
+
+import java.time.Clock;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KillLifecycleTest
+{
+	private static final int CORP = BossRegistry.CORPOREAL_BEAST.getNpcIds()[0];
+	private static final int NPC_INDEX = 5;
+
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+	private final List<BossKillEvent> updated = new ArrayList<>();
+	private final List<UUID> expired = new ArrayList<>();
+	private final KillLifecycle.Listener listener = new KillLifecycle.Listener()
+	{
+		@Override
+		public void killUpdated(BossKillEvent kill)
+		{
+			updated.add(kill);
+		}
+
+		@Override
+		public void killExpired(UUID id)
+		{
+			expired.add(id);
+		}
+	};
+
+	@Test
+	public void spawnInteractDropDespawnRecordsOneKill()
+	{
+		final KillReplay replay = new KillReplay(1, dictionary, true, KillReplay::unpricedItem, listener);
+		replay.play(new KillEvent.NpcSpawned(1_000L, NPC_INDEX, CORP));
+		replay.play(new KillEvent.Interacting(2_000L, "Alice", NPC_INDEX, CORP));
+		replay.play(new KillEvent.Damage(3_000L, NPC_INDEX, CORP, 2, "Bob", 40));
+		replay.play(new KillEvent.ChatMessage(60_000L, "<col=005f00>Alice received a drop: 2 x Uncut ruby, Uncut diamond</col>", "Bob"));
+		replay.play(new KillEvent.NpcDespawned(60_600L, NPC_INDEX, CORP, true));
+		replay.finish();
+
+		assertTrue(updated.size() > 1);
+		final UUID id = updated.get(0).getUuid();
+		for (BossKillEvent kill : updated.subList(0, updated.size() - 1))
+		{
+			assertEquals(id, kill.getUuid());
+			assertTrue(kill.isInProgress());
+		}
+
+		final BossKillEvent kill = updated.get(updated.size() - 1);
+		assertEquals(id, kill.getUuid());
+		assertFalse(kill.isInProgress());
+		assertEquals("Alice", kill.getKillOwner());
+		assertEquals(new HashSet<>(Arrays.asList("Alice", "Bob")), new HashSet<>(kill.getParticipants()));
+		assertEquals(60_000L, kill.getTime().toEpochMilli());
+		assertEquals("2 x Uncut ruby, Uncut diamond", kill.getItem().getDropName());
+		assertEquals(Collections.emptyList(), expired);
+	}
+
+	@Test
+	public void despawnWithoutDropExpiresBeforeTheRespawn()
+	{
+		final KillReplay replay = new KillReplay(1, dictionary, true, KillReplay::unpricedItem, listener);
+		replay.play(new KillEvent.NpcSpawned(1_000L, NPC_INDEX, CORP));
+		replay.play(new KillEvent.Interacting(2_000L, "Alice", NPC_INDEX, CORP));
+		replay.play(new KillEvent.NpcDespawned(10_000L, NPC_INDEX, CORP, false));
+
+		final long due = 10_000L + BossRegistry.CORPOREAL_BEAST.getRespawnMillis() - 2_000L;
+		replay.play(new KillEvent.Tick(due - 1, Collections.emptyList()));
+		assertEquals(Collections.emptyList(), expired);
+
+		replay.play(new KillEvent.Tick(due, Collections.emptyList()));
+		assertEquals(Collections.singletonList(updated.get(0).getUuid()), expired);
+		for (BossKillEvent kill : updated)
+		{
+			assertTrue(kill.isInProgress());
+		}
+	}
+
+	@Test
+	public void deadBossWithoutDropExpiresAfterASecond()
+	{
+		final KillReplay replay = new KillReplay(1, dictionary, false, KillReplay::unpricedItem, listener);
+		replay.play(new KillEvent.NpcSpawned(1_000L, NPC_INDEX, CORP));
+		replay.play(new KillEvent.Interacting(2_000L, "Alice", NPC_INDEX, CORP));
+		replay.play(new KillEvent.NpcDespawned(10_000L, NPC_INDEX, CORP, true));
+		replay.play(new KillEvent.Tick(10_999L, Collections.emptyList()));
+		assertEquals(Collections.emptyList(), expired);
+
+		replay.play(new KillEvent.Tick(11_000L, Collections.emptyList()));
+		assertEquals(1, expired.size());
+		// In progress kills are not shown, nothing but the expiry is reported
+		assertEquals(Collections.emptyList(), updated);
+	}
+
+	@Test
+	public void respawnBeforeTheExpiryKeepsTheKill()
+	{
+		final KillReplay replay = new KillReplay(1, dictionary, true, KillReplay::unpricedItem, listener);
+		replay.play(new KillEvent.NpcSpawned(1_000L, NPC_INDEX, CORP));
+		replay.play(new KillEvent.Interacting(2_000L, "Alice", NPC_INDEX, CORP));
+		replay.play(new KillEvent.NpcDespawned(10_000L, NPC_INDEX, CORP, false));
+		replay.play(new KillEvent.NpcSpawned(20_000L, NPC_INDEX + 1, CORP));
+		replay.play(new KillEvent.ChatMessage(40_000L, "<col=005f00>Alice received a drop: Spirit shield</col>", "Alice"));
+		replay.finish();
+
+		assertEquals(Collections.emptyList(), expired);
+		final BossKillEvent kill = updated.get(updated.size() - 1);
+		assertEquals(updated.get(0).getUuid(), kill.getUuid());
+		assertFalse(kill.isInProgress());
+	}
+
+	@Test
+	public void clockInAnotherZoneReadsTheVirtualTime()
+	{
+		final VirtualKillTimers timers = new VirtualKillTimers();
+		final Clock clock = timers.getClock().withZone(ZoneId.of("Asia/Kolkata"));
+		assertEquals(ZoneId.of("Asia/Kolkata"), clock.getZone());
+		timers.advanceTo(90_000L);
+		assertEquals(90_000L, clock.millis());
+		assertEquals(90_000L, clock.instant().toEpochMilli());
+		assertEquals(timers.getClock(), timers.getClock().withZone(timers.getClock().getZone()));
+	}
+}
@@ -0,0 +1,135 @@
+package com.steven10172.corptracker;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class KillMergerTest
+{
+	private static final long WINDOW = 5_000L;
+
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+	private final List<BossKillEvent> changes = new ArrayList<>();
+
+	@Test
+	public void importedKillWithinTheWindowAddsItsParticipants() throws Exception
+	{
+		final BossKillEvent local = kill(1_000L, "Spirit shield", "Alice");
+		final KillMerger.Stats stats = merge(source(local), source(kill(3_000L, "Spirit shield", "Alice", "Bob")));
+
+		assertEquals(1, changes.size());
+		assertEquals(local.getUuid(), changes.get(0).getUuid());
+		assertEquals(Arrays.asList("Alice", "Bob"), changes.get(0).getParticipants());
+		assertEquals(1, stats.getImported());
+		assertEquals(1, stats.getMerged());
+		assertEquals(1, stats.getUpdated());
+		assertEquals(0, stats.getAdded());
+	}
+
+	@Test
+	public void killOutsideTheWindowIsANewKill() throws Exception
+	{
+		final BossKillEvent imported = kill(6_001L, "Spirit shield", "Alice", "Bob");
+		final KillMerger.Stats stats = merge(source(kill(1_000L, "Spirit shield", "Alice")), source(imported));
+
+		assertEquals(Collections.singletonList(imported.getUuid()), ids(changes));
+		assertEquals(0, stats.getMerged());
+		assertEquals(1, stats.getAdded());
+	}
+
+	@Test
+	public void localKillKeepsItsIdWhenTheImportCameFirst() throws Exception
+	{
+		final BossKillEvent local = kill(4_000L, "Elysian sigil", "Alice");
+		merge(source(local), source(kill(1_000L, "elysian sigil", "alice", "Bob")));
+
+		assertEquals(1, changes.size());
+		assertEquals(local.getUuid(), changes.get(0).getUuid());
+		assertEquals(Arrays.asList("Alice", "Bob"), changes.get(0).getParticipants());
+	}
+
+	@Test
+	public void importAddingNobodyChangesNothing() throws Exception
+	{
+		final KillMerger.Stats stats = merge(source(kill(1_000L, "Spirit shield", "Alice", "Bob")),
+			source(kill(1_500L, "Spirit shield", "Alice")));
+
+		assertEquals(Collections.emptyList(), changes);
+		assertEquals(1, stats.getMerged());
+		assertEquals(0, stats.getUpdated());
+	}
+
+	@Test
+	public void sameIdMatchesWhateverTheDrop() throws Exception
+	{
+		final BossKillEvent local = kill(1_000L, "Spirit shield", "Alice");
+		final BossKillEvent imported = new BossKillEvent(dictionary, local.getUuid(), local.getBossId(), new BossTrackerItem(2, "Holy elixir", 1, 0, 0),
+			"Carol", Collections.singletonList("Carol"), Instant.ofEpochMilli(2_000L));
+		merge(source(local), source(imported));
+
+		assertEquals(1, changes.size());
+		assertEquals(Arrays.asList("Alice", "Carol"), changes.get(0).getParticipants());
+	}
+
+	@Test
+	public void killsOfOneFileNeverMergeWithEachOther() throws Exception
+	{
+		final BossKillEvent first = kill(1_000L, "Uncut ruby", "Alice");
+		final BossKillEvent second = kill(2_000L, "Uncut ruby", "Alice");
+		final BossKillEvent other = kill(2_500L, "Uncut ruby", "Alice", "Bob");
+		final KillMerger.Stats stats = merge(source(), source(first, second), source(other));
+
+		// The other file's kill joins the latest kill it could be
+		assertEquals(Arrays.asList(first.getUuid(), second.getUuid()), ids(changes));
+		assertEquals(Arrays.asList("Alice", "Bob"), changes.get(1).getParticipants());
+		assertEquals(3, stats.getImported());
+		assertEquals(1, stats.getMerged());
+		assertEquals(2, stats.getAdded());
+	}
+
+	@Test
+	public void interleaveMergesOnKillTime() throws Exception
+	{
+		final BossKillEvent a = kill(1_000L, "Spirit shield", "Alice");
+		final BossKillEvent b = kill(2_000L, "Spirit shield", "Alice");
+		final BossKillEvent c = kill(3_000L, "Spirit shield", "Alice");
+		final KillMerger.Source both = KillMerger.interleave(source(a, c), source(b));
+
+		final List<BossKillEvent> kills = new ArrayList<>();
+		for (BossKillEvent kill = both.next(); kill != null; kill = both.next())
+		{
+			kills.add(kill);
+		}
+		assertEquals(Arrays.asList(a.getUuid(), b.getUuid(), c.getUuid()), ids(kills));
+	}
+
+	private KillMerger.Stats merge(KillMerger.Source local, KillMerger.Source... imports) throws Exception
+	{
+		return new KillMerger(WINDOW).merge(local, Arrays.asList(imports), changes::add);
+	}
+
+	private static KillMerger.Source source(BossKillEvent... kills)
+	{
+		final Iterator<BossKillEvent> it = Arrays.asList(kills).iterator();
+		return () -> it.hasNext() ? it.next() : null;
+	}
+
+	private static List<UUID> ids(List<BossKillEvent> kills)
+	{
+		final List<UUID> ids = new ArrayList<>();
+		kills.forEach(kill -> ids.add(kill.getUuid()));
+		return ids;
+	}
+
+	private BossKillEvent kill(long time, String item, String... participants)
+	{
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), new BossTrackerItem(1, item, 1, 100, 50),
+			participants[0], Arrays.asList(participants), Instant.ofEpochMilli(time));
+	}
+}
@@ -0,0 +1,143 @@
+package com.steven10172.corptracker;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class KillPublisherTest
+{
+	private static final int THREADS = 8;
+	private static final int KILLS_PER_THREAD = 50;
+	private static final int UPDATES_PER_KILL = 20;
+
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+	// Only touched on the EDT
+	private final Map<UUID, BossKillEvent> shown = new HashMap<>();
+	private final AtomicBoolean offEdt = new AtomicBoolean();
+
+	@Test
+	public void concurrentUpdatesAreAllAccountedForAndAppliedOnTheEdt() throws Exception
+	{
+		final KillPublisher publisher = new KillPublisher(kill ->
+		{
+			checkEdt();
+			shown.put(kill.getUuid(), kill);
+		}, id ->
+		{
+			checkEdt();
+			shown.remove(id);
+		});
+
+		// Built up front, the dictionary belongs to the client thread
+		final List<List<List<BossKillEvent>>> work = new ArrayList<>();
+		final Map<UUID, BossKillEvent> expected = new HashMap<>();
+		for (int t = 0; t < THREADS; t++)
+		{
+			final List<List<BossKillEvent>> kills = new ArrayList<>();
+			for (int k = 0; k < KILLS_PER_THREAD; k++)
+			{
+				final UUID id = UUID.randomUUID();
+				final List<BossKillEvent> updates = new ArrayList<>();
+				for (int u = 0; u < UPDATES_PER_KILL; u++)
+				{
+					updates.add(kill(id, "Player " + t, u));
+				}
+				kills.add(updates);
+				if (k % 5 != 0)
+				{
+					expected.put(id, updates.get(UPDATES_PER_KILL - 1));
+				}
+			}
+			work.add(kills);
+		}
+
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Thread> threads = new ArrayList<>();
+		for (List<List<BossKillEvent>> kills : work)
+		{
+			final Thread thread = new Thread(() ->
+			{
+				try
+				{
+					start.await();
+				}
+				catch (InterruptedException e)
+				{
+					return;
+				}
+				// Interleave the kills so the bursts hold updates of many of them
+				for (int u = 0; u < UPDATES_PER_KILL; u++)
+				{
+					for (List<BossKillEvent> updates : kills)
+					{
+						publisher.killUpdated(updates.get(u));
+					}
+				}
+				for (int k = 0; k < kills.size(); k += 5)
+				{
+					publisher.killExpired(kills.get(k).get(0).getUuid());
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		start.countDown();
+		for (Thread thread : threads)
+		{
+			thread.join(TimeUnit.SECONDS.toMillis(10));
+			assertFalse(thread.isAlive());
+		}
+
+		final long received = (long) THREADS * KILLS_PER_THREAD * UPDATES_PER_KILL + THREADS * (KILLS_PER_THREAD / 5);
+		assertEquals(received, publisher.getReceived());
+
+		final long[] counts = new long[2];
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		do
+		{
+			Thread.sleep(10);
+			SwingUtilities.invokeAndWait(() ->
+			{
+				counts[0] = publisher.getApplied();
+				counts[1] = publisher.getCoalesced();
+			});
+		}
+		while (counts[0] + counts[1] < received && System.nanoTime() < deadline);
+
+		assertEquals(received, counts[0] + counts[1]);
+		assertFalse("a kill was applied off the EDT", offEdt.get());
+		SwingUtilities.invokeAndWait(() ->
+		{
+			assertEquals(expected.keySet(), shown.keySet());
+			expected.forEach((id, kill) -> assertSame(kill, shown.get(id)));
+		});
+		assertTrue(publisher.getFlushes() > 0);
+	}
+
+	private void checkEdt()
+	{
+		if (!SwingUtilities.isEventDispatchThread())
+		{
+			offEdt.set(true);
+		}
+	}
+
+	private BossKillEvent kill(UUID id, String player, int update)
+	{
+		return new BossKillEvent(dictionary, id, BossRegistry.CORPOREAL_BEAST.getBossId(), BossTrackerItem.generateFakeItem(),
+			player, Collections.singletonList(player), Instant.ofEpochMilli(update));
+	}
+}
@@ -0,0 +1,140 @@
+package com.steven10172.corptracker;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.UUID;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class KillRollupsTest
+{
+	private static final long HOUR_MILLIS = 60 * 60 * 1000;
+
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+
+	@Test
+	public void partialFirstAndLastHoursAreCountedExactly()
+	{
+		final KillRollups rollups = new KillRollups();
+		rollups.add(kill("2026-10-17T10:10:00Z", 1));
+		rollups.add(kill("2026-10-17T10:50:00Z", 10));
+		rollups.add(kill("2026-10-17T11:30:00Z", 100));
+		rollups.add(kill("2026-10-17T13:20:00Z", 1000));
+
+		final KillTotals totals = between(rollups, "2026-10-17T10:30:00Z", "2026-10-17T13:00:00Z");
+		assertEquals(2, totals.getCount());
+		assertEquals(110, totals.getGePrice());
+
+		assertEquals(1110, between(rollups, "2026-10-17T10:50:00Z", "2026-10-17T13:20:00.001Z").getGePrice());
+		// Start inclusive, end exclusive
+		assertEquals(0, between(rollups, "2026-10-17T10:11:00Z", "2026-10-17T10:50:00Z").getCount());
+		assertEquals(1, between(rollups, "2026-10-17T10:00:00Z", "2026-10-17T10:30:00Z").getCount());
+		assertEquals(0, between(rollups, "2026-10-17T12:00:00Z", "2026-10-17T10:00:00Z").getCount());
+	}
+
+	@Test
+	public void wholeDaysAndHoursAddUp()
+	{
+		final KillRollups rollups = new KillRollups();
+		for (long hour = 0; hour < 24 * 5; hour++)
+		{
+			rollups.add(kill(Instant.parse("2026-10-10T00:15:00Z").plusMillis(hour * HOUR_MILLIS), 1));
+		}
+
+		assertEquals(24 * 5, rollups.getTotal().getCount());
+		assertEquals(24 * 3, between(rollups, "2026-10-11T00:00:00Z", "2026-10-14T00:00:00Z").getCount());
+		assertEquals(24 * 3 + 2, between(rollups, "2026-10-10T23:00:00Z", "2026-10-14T00:15:00.001Z").getCount());
+		assertEquals(24 * 3 - 1, between(rollups, "2026-10-10T23:20:00Z", "2026-10-13T23:10:00Z").getCount());
+	}
+
+	@Test
+	public void todayInAHalfHourZone()
+	{
+		final ZoneId kolkata = ZoneId.of("Asia/Kolkata");
+		final KillRollups rollups = new KillRollups();
+		// Local midnight of the 18th is 18:30 UTC on the 17th
+		rollups.add(kill("2026-10-17T18:20:00Z", 1));
+		rollups.add(kill("2026-10-17T18:40:00Z", 10));
+		rollups.add(kill("2026-10-18T05:00:00Z", 100));
+
+		final Instant now = Instant.parse("2026-10-18T06:00:00Z");
+		assertEquals(Instant.parse("2026-10-17T18:30:00Z"), KillRange.TODAY.getStart(now, kolkata));
+		assertEquals(Instant.parse("2026-10-18T18:30:00Z"), KillRange.TODAY.getEnd(now, kolkata));
+		assertEquals(110, rollups.totalsBetween(KillRange.TODAY.getStart(now, kolkata), KillRange.TODAY.getEnd(now, kolkata)).getGePrice());
+	}
+
+	@Test
+	public void removedAndMergedKillsStayExact()
+	{
+		final BossKillEvent removed = kill("2026-10-17T10:40:00Z", 10);
+		final KillRollups rollups = new KillRollups();
+		rollups.add(kill("2026-10-17T10:10:00Z", 1));
+		rollups.add(removed);
+		rollups.remove(removed);
+
+		final KillRollups other = new KillRollups();
+		other.add(kill("2026-10-17T10:50:00Z", 100));
+		rollups.add(other);
+
+		assertEquals(2, rollups.getTotal().getCount());
+		assertEquals(100, between(rollups, "2026-10-17T10:30:00Z", "2026-10-17T12:00:00Z").getGePrice());
+	}
+
+	@Test
+	public void hoursWithOnlyTotalsAreCountedWhole()
+	{
+		final KillRollups summary = new KillRollups();
+		summary.add(kill("2026-10-17T10:10:00Z", 1));
+		summary.add(kill("2026-10-17T10:50:00Z", 10));
+
+		final KillRollups rollups = new KillRollups();
+		summary.forEachHour(rollups::add);
+		assertEquals(11, between(rollups, "2026-10-17T10:30:00Z", "2026-10-17T12:00:00Z").getGePrice());
+
+		// A kill added one at a time doesn't make the rest of the hour exact
+		rollups.add(kill("2026-10-17T10:55:00Z", 100));
+		assertEquals(111, between(rollups, "2026-10-17T10:30:00Z", "2026-10-17T12:00:00Z").getGePrice());
+	}
+
+	@Test
+	public void archivedKillsOnlyLeaveTheirTotals()
+	{
+		final BossKillEvent early = kill("2026-10-17T10:10:00Z", 1);
+		final BossKillEvent late = kill("2026-10-17T10:50:00Z", 10);
+		final KillRollups rollups = new KillRollups();
+		rollups.add(early);
+		rollups.add(late);
+		rollups.add(kill("2026-10-17T11:10:00Z", 100));
+		assertEquals(3, rollups.getHeldDrops());
+		assertEquals(10, between(rollups, "2026-10-17T10:30:00Z", "2026-10-17T11:00:00Z").getGePrice());
+
+		rollups.archive(early);
+		rollups.archive(late);
+		assertEquals(1, rollups.getHeldDrops());
+		assertEquals(111, rollups.getTotal().getGePrice());
+		// The hour is no longer known kill by kill
+		assertEquals(11, between(rollups, "2026-10-17T10:30:00Z", "2026-10-17T11:00:00Z").getGePrice());
+
+		rollups.removeArchived(early);
+		rollups.addArchived(kill("2026-10-17T11:20:00Z", 1000));
+		assertEquals(1, rollups.getHeldDrops());
+		assertEquals(1110, rollups.getTotal().getGePrice());
+	}
+
+	private static KillTotals between(KillRollups rollups, String from, String to)
+	{
+		return rollups.totalsBetween(Instant.parse(from), Instant.parse(to));
+	}
+
+	private BossKillEvent kill(String time, int value)
+	{
+		return kill(Instant.parse(time), value);
+	}
+
+	private BossKillEvent kill(Instant time, int value)
+	{
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), new BossTrackerItem(1, "Spirit shield", 1, value, 0),
+			"Alice", Collections.singletonList("Alice"), time);
+	}
+}
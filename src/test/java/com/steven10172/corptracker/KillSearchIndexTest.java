@@ -0,0 +1,115 @@
+package com.steven10172.corptracker;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.UUID;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KillSearchIndexTest
+{
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+	private final KillSearchIndex index = new KillSearchIndex();
+
+	@Test
+	public void shortQueriesAreAnsweredByTheirGram()
+	{
+		final BossKillEvent alice = kill("Spirit shield", "Alice", "Bob");
+		final BossKillEvent malcolm = kill("Holy elixir", "Malcolm");
+		index.add(alice);
+		index.add(malcolm);
+
+		assertEquals(ids(alice, malcolm), index.search("al"));
+		assertEquals(ids(alice, malcolm), index.search("l"));
+		assertEquals(ids(alice), index.search("bob"));
+		assertEquals(ids(malcolm), index.search("xir"));
+		assertEquals(ids(), index.search("q"));
+	}
+
+	@Test
+	public void longQueriesAreVerifiedAgainstTheWholeName()
+	{
+		final BossKillEvent kill = kill("Spirit shield", "abcxbcd");
+		index.add(kill);
+
+		assertEquals(ids(kill), index.search("spirit sh"));
+		assertEquals(ids(kill), index.search("xbcd"));
+		// Both trigrams are in the name, just not next to each other
+		assertEquals(ids(), index.search("abcd"));
+		assertEquals(ids(), index.search("spirit shields"));
+	}
+
+	@Test
+	public void gramsOfDifferentLengthsNeverCollide()
+	{
+		final BossKillEvent kill = kill("a", "\u03a9");
+		index.add(kill);
+
+		assertEquals(ids(kill), index.search("a"));
+		assertEquals(ids(kill), index.search("\u03c9"));
+		// Would pack to the same bits as "a" if the length weren't kept
+		assertEquals(ids(), index.search("\u0000a"));
+		assertEquals(ids(), index.search("\u0000\u0000a"));
+	}
+
+	@Test
+	public void extrasAreSearchable()
+	{
+		final BossKillEvent kill = new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(),
+			new BossTrackerItem(1623, "Uncut sapphire", 1, 40, 10).withExtras(Collections.singletonList(new BossTrackerItem(1617, "Uncut diamond", 1, 200, 120))),
+			"Alice", Collections.singletonList("Alice"), Instant.ofEpochMilli(1_000L));
+		index.add(kill);
+
+		assertEquals(ids(kill), index.search("diamond"));
+		assertTrue(index.matches(kill.getUuid(), "diam"));
+	}
+
+	@Test
+	public void reindexingAndRemovingDropOldNames()
+	{
+		final BossKillEvent kill = kill("Spirit shield", "Alice", "Bob");
+		index.add(kill);
+		index.add(kill.withoutParticipant("Bob"));
+
+		assertEquals(ids(), index.search("bob"));
+		assertFalse(index.matches(kill.getUuid(), "bob"));
+		assertTrue(index.matches(kill.getUuid(), "alic"));
+		assertEquals(ids(kill), index.search(null));
+
+		index.remove(kill.getUuid());
+		assertEquals(ids(), index.search("alice"));
+		assertEquals(ids(), index.search(""));
+		assertFalse(index.matches(kill.getUuid(), "alice"));
+	}
+
+	@Test
+	public void nameMatchesWithoutTheName()
+	{
+		index.add(kill("Spirit shield", "Alice"));
+
+		assertTrue(index.nameMatches("Alice", "lic"));
+		assertTrue(index.nameMatches("Never Indexed", "never"));
+		assertFalse(index.nameMatches("Alice", "bob"));
+		assertTrue(index.nameMatches("Alice", null));
+	}
+
+	private static HashSet<UUID> ids(BossKillEvent... kills)
+	{
+		final HashSet<UUID> ids = new HashSet<>();
+		for (BossKillEvent kill : kills)
+		{
+			ids.add(kill.getUuid());
+		}
+		return ids;
+	}
+
+	private BossKillEvent kill(String item, String... participants)
+	{
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), new BossTrackerItem(1, item, 1, 100, 50),
+			participants[0], Arrays.asList(participants), Instant.ofEpochMilli(1_000L));
+	}
+}
@@ -0,0 +1,172 @@
+package com.steven10172.corptracker;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+
+public class KillSearchTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+	private final KillStore store = new KillStore(dictionary);
+	// Runs the searches only when asked, so a test decides when each one gets to scan
+	private final List<Runnable> queued = new ArrayList<>();
+	// What reached the listener, in order, only ever touched on the EDT
+	private final List<String> delivered = new ArrayList<>();
+	private final List<KillRollups> archiveTotals = new ArrayList<>();
+	private KillArchive archive;
+	private KillSearch search;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		archive = new KillArchive(folder.getRoot(), dictionary);
+		final CompletableFuture<KillArchive.Totals> loaded = new CompletableFuture<>();
+		archive.load(loaded::complete);
+		loaded.get(5, TimeUnit.SECONDS);
+
+		search = new KillSearch(queued::add, dictionary, archive, new KillSearch.Listener()
+		{
+			@Override
+			public void searchPage(List<BossKillEvent> kills)
+			{
+				delivered.add("page " + describe(kills));
+			}
+
+			@Override
+			public void searchComplete(int modCount, List<BossKillEvent> kills)
+			{
+				delivered.add("complete " + describe(kills));
+			}
+
+			@Override
+			public void searchArchiveComplete(KillRollups matches)
+			{
+				delivered.add("archive " + matches.getTotal().getCount());
+				archiveTotals.add(matches);
+			}
+		});
+	}
+
+	@After
+	public void tearDown()
+	{
+		archive.close();
+	}
+
+	@Test
+	public void supersededSearchNeverReachesTheListener() throws Exception
+	{
+		store.put(kill(1_000L, "Alice"));
+		store.put(kill(2_000L, "Bob"));
+		final KillStore.Snapshot snapshot = store.snapshot();
+
+		// On the EDT, so the first search's results are still waiting to be delivered when the second is submitted
+		SwingUtilities.invokeAndWait(() ->
+		{
+			search.submit(snapshot, "alice");
+			runQueued();
+			search.submit(snapshot, "bob");
+		});
+		runQueued();
+		flushEdt();
+		// A search that never got to run is dropped before scanning anything
+		search.submit(snapshot, "alice");
+		search.submit(snapshot, null);
+		runQueued();
+		flushEdt();
+
+		assertEquals(Arrays.asList("complete Bob", "archive 0", "complete Bob,Alice"), delivered);
+	}
+
+	@Test
+	public void firstPageArrivesBeforeTheSearchCompletes() throws Exception
+	{
+		for (int i = 0; i < KillSearch.PAGE_SIZE + 10; i++)
+		{
+			store.put(kill(i * 1_000L, "Alice", "Bob"));
+		}
+		store.put(kill(1_000_000L, "Carol"));
+
+		search.submit(store.snapshot(), "alice");
+		runQueued();
+		flushEdt();
+
+		assertEquals(3, delivered.size());
+		assertEquals("page " + KillSearch.PAGE_SIZE, delivered.get(0));
+		assertEquals("complete " + (KillSearch.PAGE_SIZE + 10), delivered.get(1));
+		assertEquals("archive 0", delivered.get(2));
+	}
+
+	@Test
+	public void archiveIsOnlyTotalledForAQuery() throws Exception
+	{
+		store.put(kill(10_000L, "Alice"));
+		archive.seal(Arrays.asList(kill(1_000L, "Alice", "Bob"), kill(2_000L, "Carol"), kill(3_000L, "Bob")), () -> { });
+
+		search.submit(store.snapshot(), null);
+		runQueued();
+		flushEdt();
+		assertEquals(Arrays.asList("complete Alice"), delivered);
+
+		delivered.clear();
+		search.submit(store.snapshot(), "bob");
+		runQueued();
+		flushEdt();
+		assertEquals(Arrays.asList("complete ", "archive 2"), delivered);
+		assertEquals(200, archiveTotals.get(0).getTotal().getGePrice());
+
+		delivered.clear();
+		search.submitArchive("carol");
+		runQueued();
+		flushEdt();
+		assertEquals(Arrays.asList("archive 1"), delivered);
+	}
+
+	private void runQueued()
+	{
+		while (!queued.isEmpty())
+		{
+			queued.remove(0).run();
+		}
+	}
+
+	private static void flushEdt() throws Exception
+	{
+		SwingUtilities.invokeAndWait(() -> { });
+	}
+
+	/**
+	 * The owners of up to two kills, or just how many there were
+	 */
+	private static String describe(List<BossKillEvent> kills)
+	{
+		if (kills.size() > 2)
+		{
+			return String.valueOf(kills.size());
+		}
+
+		final List<String> owners = new ArrayList<>();
+		kills.forEach(kill -> owners.add(kill.getKillOwner()));
+		return String.join(",", owners);
+	}
+
+	private BossKillEvent kill(long time, String... participants)
+	{
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), new BossTrackerItem(1, "Spirit shield", 1, 100, 50),
+			participants[0], Arrays.asList(participants), Instant.ofEpochMilli(time));
+	}
+}
@@ -0,0 +1,150 @@
+package com.steven10172.corptracker;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KillStoreTest
+{
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+	private final KillStore store = new KillStore(dictionary);
+
+	@Test
+	public void putOverwritesByUuid()
+	{
+		final BossKillEvent kill = kill(1_000L, "Alice", "Bob");
+		assertNull(store.put(kill));
+		assertEquals(1, store.size());
+
+		final BossKillEvent updated = kill.withoutParticipant("Bob");
+		assertSameKill(kill, store.put(updated));
+		assertEquals(1, store.size());
+		assertSameKill(updated, store.get(kill.getUuid()));
+	}
+
+	@Test
+	public void removeMovesTheLastRowIntoTheGap()
+	{
+		final List<BossKillEvent> kills = new ArrayList<>();
+		// Past the initial capacity, so the columns grow too
+		for (int i = 0; i < 200; i++)
+		{
+			final BossKillEvent kill = kill(i * 1_000L, "Player " + i, "Player " + (i + 1)).withDamage(
+				Arrays.asList("Player " + i, "Player " + (i + 1)), new int[]{i, i + 1});
+			kills.add(kill);
+			store.put(kill);
+		}
+
+		for (int i = 0; i < kills.size(); i += 2)
+		{
+			assertSameKill(kills.get(i), store.remove(kills.get(i).getUuid()));
+		}
+		assertNull(store.remove(kills.get(0).getUuid()));
+		assertNull(store.remove(UUID.randomUUID()));
+		assertEquals(100, store.size());
+
+		for (int i = 0; i < kills.size(); i++)
+		{
+			final UUID id = kills.get(i).getUuid();
+			if (i % 2 == 0)
+			{
+				assertFalse(store.contains(id));
+				assertNull(store.get(id));
+			}
+			else
+			{
+				assertSameKill(kills.get(i), store.get(id));
+				assertEquals(i + 1, store.get(id).getDamage("Player " + (i + 1)));
+			}
+		}
+
+		// The last row itself
+		assertSameKill(kills.get(199), store.remove(kills.get(199).getUuid()));
+		assertEquals(99, store.size());
+		assertSameKill(kills.get(197), store.get(kills.get(197).getUuid()));
+	}
+
+	@Test
+	public void snapshotIsNotChangedByLaterEdits()
+	{
+		final BossKillEvent first = kill(3_000L, "Alice");
+		final BossKillEvent second = kill(1_000L, "Bob");
+		final BossKillEvent third = kill(2_000L, "Carol");
+		store.put(first);
+		store.put(second);
+		store.put(third);
+
+		final KillStore.Snapshot snapshot = store.snapshot();
+		assertEquals(store.getModCount(), snapshot.getModCount());
+		store.remove(first.getUuid());
+		store.put(kill(4_000L, "Dave"));
+		store.put(second.withoutParticipant("Bob"));
+		assertNotEquals(store.getModCount(), snapshot.getModCount());
+
+		assertEquals(3, snapshot.size());
+		final int[] order = snapshot.getNewestFirst();
+		assertSameKill(first, snapshot.getKill(order[0]));
+		assertSameKill(third, snapshot.getKill(order[1]));
+		assertSameKill(second, snapshot.getKill(order[2]));
+		assertArrayEquals(new int[]{dictionary.getId("Bob")}, snapshot.getParticipantIds(order[2]));
+	}
+
+	@Test
+	public void totalsSkipInProgressKillsAndCountExtras()
+	{
+		final BossTrackerItem ruby = new BossTrackerItem(2, "Uncut ruby", 2, 10, 5);
+		store.put(kill(1_000L, "Alice"));
+		store.put(new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(),
+			new BossTrackerItem(1, "Spirit shield", 1, 100, 50).withExtras(Collections.singletonList(ruby)), "Bob",
+			Collections.singletonList("Bob"), Instant.ofEpochMilli(2_000L)));
+		store.put(kill(3_000L, "Carol").withInProgress(true));
+
+		final KillTotals totals = store.totalsBetween(Instant.ofEpochMilli(1_000L), Instant.ofEpochMilli(3_001L));
+		assertEquals(2, totals.getCount());
+		assertEquals(220, totals.getGePrice());
+		assertEquals(110, totals.getHaPrice());
+		assertEquals(1, store.totalsBetween(Instant.ofEpochMilli(1_500L), Instant.ofEpochMilli(2_001L)).getCount());
+
+		assertEquals(Integer.valueOf(2), store.countByItem().get(1));
+		assertEquals(Integer.valueOf(1), store.countByItem().get(2));
+	}
+
+	@Test
+	public void clearEmptiesTheStore()
+	{
+		final BossKillEvent kill = kill(1_000L, "Alice");
+		store.put(kill);
+		store.clear();
+		assertEquals(0, store.size());
+		assertNull(store.get(kill.getUuid()));
+		assertNull(store.put(kill));
+		assertTrue(store.contains(kill.getUuid()));
+	}
+
+	private static void assertSameKill(BossKillEvent expected, BossKillEvent actual)
+	{
+		assertEquals(expected.getUuid(), actual.getUuid());
+		assertEquals(expected.getTime(), actual.getTime());
+		assertEquals(expected.getKillOwner(), actual.getKillOwner());
+		assertEquals(expected.getParticipants(), actual.getParticipants());
+		assertEquals(expected.getItem().getName(), actual.getItem().getName());
+		assertEquals(expected.isInProgress(), actual.isInProgress());
+		assertEquals(expected.getTotalDamage(), actual.getTotalDamage());
+	}
+
+	private BossKillEvent kill(long time, String... participants)
+	{
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), new BossTrackerItem(1, "Spirit shield", 1, 100, 50),
+			participants[0], Arrays.asList(participants), Instant.ofEpochMilli(time));
+	}
+}
@@ -0,0 +1,93 @@
+package com.steven10172.corptracker;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class KillTimerSchedulerTest
+{
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+	// Stands in for the client thread, due tasks wait here until the test runs them
+	private final BlockingQueue<Runnable> clientThread = new LinkedBlockingQueue<>();
+	private final KillTimerScheduler scheduler = new KillTimerScheduler(executor, clientThread::add);
+	private int runs;
+
+	@After
+	public void tearDown()
+	{
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void dueTimerFiresOnTheTaskExecutor() throws Exception
+	{
+		final KillTimers.Handle handle = scheduler.schedule(() -> runs++, 0);
+		assertCounts(1, 0, 0, 1);
+
+		nextDue().run();
+		assertEquals(1, runs);
+		assertCounts(1, 1, 0, 0);
+		assertFalse(handle.cancel());
+		assertCounts(1, 1, 0, 0);
+	}
+
+	@Test
+	public void cancelledTimerNeverComesDue() throws Exception
+	{
+		final KillTimers.Handle handle = scheduler.schedule(() -> runs++, 50);
+		assertTrue(handle.cancel());
+		assertFalse(handle.cancel());
+		assertCounts(1, 0, 1, 0);
+
+		Thread.sleep(200);
+		assertTrue(clientThread.isEmpty());
+		assertEquals(0, runs);
+	}
+
+	@Test
+	public void timerCancelledAfterComingDueDoesNotRun() throws Exception
+	{
+		final KillTimers.Handle handle = scheduler.schedule(() -> runs++, 0);
+		final Runnable due = nextDue();
+		assertTrue(handle.cancel());
+
+		due.run();
+		assertEquals(0, runs);
+		assertCounts(1, 0, 1, 0);
+	}
+
+	@Test
+	public void pendingCountsTimersStillWaiting() throws Exception
+	{
+		scheduler.schedule(() -> runs++, TimeUnit.HOURS.toMillis(1));
+		scheduler.schedule(() -> runs++, 0);
+		nextDue().run();
+		scheduler.schedule(() -> runs++, TimeUnit.HOURS.toMillis(1)).cancel();
+
+		assertCounts(3, 1, 1, 1);
+		assertEquals("scheduled=3, fired=1, cancelled=1, pending=1", scheduler.toString());
+	}
+
+	private Runnable nextDue() throws InterruptedException
+	{
+		final Runnable due = clientThread.poll(5, TimeUnit.SECONDS);
+		assertNotNull(due);
+		return due;
+	}
+
+	private void assertCounts(long scheduled, long fired, long cancelled, long pending)
+	{
+		assertEquals(scheduled, scheduler.getScheduled());
+		assertEquals(fired, scheduler.getFired());
+		assertEquals(cancelled, scheduler.getCancelled());
+		assertEquals(pending, scheduler.getPending());
+	}
+}
@@ -0,0 +1,121 @@
+package com.steven10172.corptracker;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PlayerStatsTest
+{
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+	private final KillStore store = new KillStore(dictionary);
+	private final PlayerStats stats = new PlayerStats(store);
+
+	@Test
+	public void attendanceOwnershipAndSplit()
+	{
+		put(kill(1_000L, 300, "Alice", "Bob", "Carol"));
+		put(kill(2_000L, 100, "Bob", "Alice"));
+		put(kill(3_000L, 900, "Carol").withInProgress(true));
+
+		final int alice = dictionary.getId("Alice");
+		final int bob = dictionary.getId("Bob");
+		final int carol = dictionary.getId("Carol");
+		assertArrayEquals(new int[]{alice, bob, carol}, stats.getPlayers());
+		assertEquals(2, stats.getKillsAttended(alice));
+		assertEquals(1, stats.getKillsOwned(alice));
+		assertEquals(1, stats.getKillsOwned(bob));
+		assertEquals(0, stats.getKillsOwned(carol));
+		assertEquals(150, stats.getTotalSplitValue(alice));
+		assertEquals(75, stats.getAverageSplitValue(bob));
+		assertEquals(100, stats.getTotalSplitValue(carol));
+		assertEquals(2_000L, stats.getLastSeen(alice));
+		assertEquals(1_000L, stats.getLastSeen(carol));
+	}
+
+	@Test
+	public void splitIncludesTheExtrasOfADrop()
+	{
+		final BossTrackerItem item = new BossTrackerItem(1, "Uncut diamond", 1, 100, 0)
+			.withExtras(Collections.singletonList(new BossTrackerItem(2, "Uncut ruby", 2, 50, 0)));
+		put(new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), item, "Alice",
+			Arrays.asList("Alice", "Bob"), Instant.ofEpochMilli(1_000L)));
+
+		assertEquals(100, stats.getTotalSplitValue(dictionary.getId("Bob")));
+	}
+
+	@Test
+	public void removingTheLatestKillRecountsLastSeen()
+	{
+		put(kill(1_000L, 100, "Alice", "Bob"));
+		final BossKillEvent latest = kill(2_000L, 100, "Alice");
+		put(latest);
+		final int alice = dictionary.getId("Alice");
+		assertEquals(2_000L, stats.getLastSeen(alice));
+
+		remove(latest);
+		assertEquals(1, stats.getKillsAttended(alice));
+		assertEquals(50, stats.getTotalSplitValue(alice));
+		assertEquals(1_000L, stats.getLastSeen(alice));
+	}
+
+	@Test
+	public void archivedKillsStayCounted()
+	{
+		final BossKillEvent archived = kill(3_000L, 100, "Alice");
+		final BossKillEvent removed = kill(4_000L, 100, "Alice");
+		put(kill(1_000L, 100, "Alice"));
+		put(archived);
+		put(removed);
+
+		// Moved out of the store into the archive, then a later kill is deleted
+		store.remove(archived.getUuid());
+		stats.archive(archived);
+		remove(removed);
+
+		final int alice = dictionary.getId("Alice");
+		assertEquals(2, stats.getKillsAttended(alice));
+		assertEquals(3_000L, stats.getLastSeen(alice));
+	}
+
+	@Test
+	public void summariesAddUp()
+	{
+		final int alice = dictionary.getId("Alice");
+		final int bob = dictionary.getId("Bob");
+		final PlayerStats archived = new PlayerStats(null);
+		archived.addPlayer(alice, 10, 4, 1_000L, 5_000L);
+		archived.addPlayer(bob, 2, 0, 300L, 9_000L);
+
+		put(kill(6_000L, 100, "Alice"));
+		stats.add(archived);
+
+		assertEquals(11, stats.getKillsAttended(alice));
+		assertEquals(5, stats.getKillsOwned(alice));
+		assertEquals(1_100L, stats.getTotalSplitValue(alice));
+		assertEquals(100L, stats.getAverageSplitValue(alice));
+		assertEquals(6_000L, stats.getLastSeen(alice));
+		assertEquals(9_000L, stats.getLastSeen(bob));
+	}
+
+	private void put(BossKillEvent kill)
+	{
+		store.put(kill);
+		stats.add(kill);
+	}
+
+	private void remove(BossKillEvent kill)
+	{
+		store.remove(kill.getUuid());
+		stats.remove(kill);
+	}
+
+	private BossKillEvent kill(long time, int value, String... participants)
+	{
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), new BossTrackerItem(1, "Spirit shield", 1, value, 0),
+			participants[0], Arrays.asList(participants), Instant.ofEpochMilli(time));
+	}
+}
@@ -0,0 +1,212 @@
+package com.steven10172.corptracker;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+
+public class VirtualKillListViewTest
+{
+	// Same as the view's estimates, every row stays expanded and is never laid out
+	private static final int COLLAPSED_HEIGHT = 40;
+	private static final int PARTICIPANT_ROW_HEIGHT = 18;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final PlayerDictionary dictionary = new PlayerDictionary();
+	private final Random random = new Random(7);
+	// What the view should hold, newest first
+	private final List<BossKillEvent> rows = new ArrayList<>();
+	private KillJournal journal;
+	private KillArchive archive;
+	private CorpEventTrackerPanel panel;
+	private VirtualKillListView view;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		journal = new KillJournal(folder.newFile("kills.journal"), dictionary);
+		archive = new KillArchive(folder.newFolder("archive"), dictionary);
+		final CorpEventTrackerConfig config = new CorpEventTrackerConfig()
+		{
+			@Override
+			public int collapseAfterHours()
+			{
+				return 0;
+			}
+		};
+		panel = new CorpEventTrackerPanel(null, config, new KillStore(dictionary), journal, archive, MoreExecutors.newDirectExecutorService());
+		view = new VirtualKillListView(panel);
+	}
+
+	@After
+	public void tearDown()
+	{
+		panel.close();
+		journal.close();
+		archive.close();
+	}
+
+	@Test
+	public void rowsAddedAtTheEndsTakeThePadding()
+	{
+		setKills(10, 100_000L);
+
+		// Past the free slots on both sides, so the rows get recentered too
+		for (int i = 1; i <= 40; i++)
+		{
+			add(kill(100_000L + i * 1_000L));
+			add(kill(100_000L - 10 * 1_000L - i * 1_000L));
+			assertOffsetsMatch();
+		}
+
+		for (int i = 0; i < 30; i++)
+		{
+			remove(rows.get(0));
+			remove(rows.get(rows.size() - 1));
+			assertOffsetsMatch();
+		}
+	}
+
+	@Test
+	public void rowsAddedAndRemovedInTheMiddleShiftTheRest()
+	{
+		setKills(30, 1_000_000L);
+
+		for (int i = 0; i < 40; i++)
+		{
+			final BossKillEvent between = rows.get(1 + random.nextInt(rows.size() - 2));
+			add(kill(between.getTime().toEpochMilli() - 1 - random.nextInt(999)));
+			assertOffsetsMatch();
+
+			remove(rows.get(1 + random.nextInt(rows.size() - 2)));
+			assertOffsetsMatch();
+		}
+	}
+
+	@Test
+	public void updatesMoveAndResizeRows()
+	{
+		setKills(20, 1_000_000L);
+
+		for (int i = 0; i < 40; i++)
+		{
+			final int row = random.nextInt(rows.size());
+			final BossKillEvent kill = rows.get(row);
+			if (i % 2 == 0)
+			{
+				// Same time, only the number of participant lines changes
+				final BossKillEvent updated = new BossKillEvent(dictionary, kill.getUuid(), kill.getBossId(), kill.getItem(), kill.getKillOwner(),
+					participants(1 + random.nextInt(12)), kill.getTime());
+				rows.set(row, updated);
+				view.updateKill(updated, null);
+			}
+			else
+			{
+				rows.remove(row);
+				add(new BossKillEvent(dictionary, kill.getUuid(), kill.getBossId(), kill.getItem(), kill.getKillOwner(),
+					kill.getParticipants(), Instant.ofEpochMilli(random.nextInt(2_000_000))));
+			}
+			assertOffsetsMatch();
+		}
+	}
+
+	@Test
+	public void emptyListAndRemovingEveryRow()
+	{
+		setKills(0, 0L);
+		assertOffsetsMatch();
+
+		add(kill(5_000L));
+		add(kill(6_000L));
+		add(kill(4_000L));
+		assertOffsetsMatch();
+
+		while (!rows.isEmpty())
+		{
+			remove(rows.get(rows.size() / 2));
+			assertOffsetsMatch();
+		}
+		add(kill(1_000L));
+		assertOffsetsMatch();
+	}
+
+	/**
+	 * Offsets of the view's Fenwick tree against a plain prefix sum over the expected rows, and the
+	 * row found at every offset, the empty slots around the rows included
+	 */
+	private void assertOffsetsMatch()
+	{
+		int offset = 0;
+		for (int row = 0; row < rows.size(); row++)
+		{
+			assertEquals("offset of row " + row, offset, view.offsetOfRow(row));
+			final int height = height(rows.get(row));
+			assertEquals(row, view.rowAtOffset(offset));
+			assertEquals(row, view.rowAtOffset(offset + height / 2));
+			assertEquals(row, view.rowAtOffset(offset + height - 1));
+			offset += height;
+		}
+
+		assertEquals(offset, view.offsetOfRow(rows.size()));
+		assertEquals(offset, view.getPreferredSize().height);
+		assertEquals(rows.size(), view.rowAtOffset(offset));
+		assertEquals(rows.size(), view.rowAtOffset(offset + 10_000));
+		assertEquals(0, view.rowAtOffset(0));
+	}
+
+	private void setKills(int count, long newest)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			rows.add(kill(newest - i * 1_000L));
+		}
+		view.setKills(new ArrayList<>(rows), null);
+	}
+
+	private void add(BossKillEvent kill)
+	{
+		rows.add(kill);
+		rows.sort(Comparator.comparing(BossKillEvent::getTime, Collections.reverseOrder()));
+		view.updateKill(kill, null);
+	}
+
+	private void remove(BossKillEvent kill)
+	{
+		rows.remove(kill);
+		view.removeKill(kill.getUuid());
+	}
+
+	private static int height(BossKillEvent kill)
+	{
+		return COLLAPSED_HEIGHT + Math.max(1, (kill.getParticipantCount() + 1) / 2) * PARTICIPANT_ROW_HEIGHT;
+	}
+
+	private List<String> participants(int count)
+	{
+		final List<String> participants = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+		{
+			participants.add("Player " + i);
+		}
+		return participants;
+	}
+
+	private BossKillEvent kill(long time)
+	{
+		final List<String> participants = participants(1 + random.nextInt(12));
+		return new BossKillEvent(dictionary, UUID.randomUUID(), BossRegistry.CORPOREAL_BEAST.getBossId(), new BossTrackerItem(1, "Spirit shield", 1, 100, 50),
+			participants.get(0), participants, Instant.ofEpochMilli(time));
+	}
+}